@@ -0,0 +1,108 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Filters, order and limit of an employee query. Each filter left {@code null} matches every employee; the salary and
+ * age bounds are inclusive and only match employees that have a value, and the title must match exactly.
+ * <p>
+ * Sorted results come in {@link SalaryIndex} order for a descending salary: by value, then by id, both reversed for
+ * an ascending sort. Employees without the value come last, by id, either way. Unsorted results come in no particular
+ * order.
+ *
+ * @param sort     {@code null} for unsorted results
+ * @param limit    maximum number of employees returned, or {@code null} for all of them
+ */
+public record EmployeeQuery(
+        Integer minSalary,
+        Integer maxSalary,
+        Integer minAge,
+        Integer maxAge,
+        String title,
+        SortField sort,
+        boolean descending,
+        Integer limit) {
+
+    public enum SortField {
+        SALARY(MockEmployee::getSalary),
+        AGE(MockEmployee::getAge);
+
+        private final Function<MockEmployee, Integer> value;
+
+        SortField(Function<MockEmployee, Integer> value) {
+            this.value = value;
+        }
+
+        /**
+         * @throws IllegalArgumentException for anything but {@code salary} or {@code age}, in any case
+         */
+        public static SortField parse(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("sort must be one of salary or age");
+            }
+        }
+    }
+
+    public EmployeeQuery {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+    }
+
+    public static EmployeeQuery all() {
+        return new EmployeeQuery(null, null, null, null, null, null, false, null);
+    }
+
+    public boolean filtersSalary() {
+        return minSalary != null || maxSalary != null;
+    }
+
+    public boolean filtersAge() {
+        return minAge != null || maxAge != null;
+    }
+
+    public boolean matches(MockEmployee employee) {
+        return inRange(employee.getSalary(), minSalary, maxSalary)
+                && inRange(employee.getAge(), minAge, maxAge)
+                && (title == null || title.equals(employee.getTitle()));
+    }
+
+    /**
+     * @return {@code Integer.MAX_VALUE} when there is no limit
+     */
+    public int maxResults() {
+        return limit == null ? Integer.MAX_VALUE : limit;
+    }
+
+    /**
+     * @return the order of sorted results, described above
+     */
+    public Comparator<MockEmployee> comparator() {
+        Function<MockEmployee, Integer> value = sort.value;
+        Comparator<MockEmployee> valued =
+                Comparator.comparing(value).thenComparing(MockEmployee::getId, Comparator.reverseOrder());
+        Comparator<MockEmployee> ordered = descending ? valued.reversed() : valued;
+        return (a, b) -> {
+            Integer x = value.apply(a);
+            Integer y = value.apply(b);
+            if (x != null && y != null) {
+                return ordered.compare(a, b);
+            } else if (x == null && y == null) {
+                return a.getId().compareTo(b.getId());
+            }
+            return x == null ? 1 : -1;
+        };
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
@@ -0,0 +1,359 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory copy of the v1 employee list as of {@link #getFetchedAt()}. Writes made through the v2 API are applied
+ * on top of it so they are visible before the next refresh replaces the snapshot. Reads are lock-free; writes are
+ * serialized so the id map and the indexes built from it stay consistent with each other.
+ * <p>
+ * The listing is held as an {@link EmployeeTable}, and employees are built from it only for the rows a response
+ * returns. Writes go to an overlay of removed rows and written employees; once the overlay outgrows an eighth of the
+ * table, the write that grew it folds both into a new table.
+ * <p>
+ * {@link #getETag()} changes whenever the content does: each snapshot gets its own generation and every write bumps
+ * a modification count.
+ */
+public class EmployeeSnapshot {
+
+    // Keeps entity tags from one run of the application from matching those of another
+    private static final String INSTANCE_ID =
+            Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    // overlay size below which the table is never rebuilt
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final List<MockEmployee> source;
+    private final long generation = GENERATIONS.incrementAndGet();
+    private volatile Instant fetchedAt;
+    private volatile long modifications;
+    private volatile Layers layers;
+
+    private EmployeeSnapshot(List<MockEmployee> source, Instant fetchedAt, EmployeeTable table) {
+        this.source = source;
+        this.fetchedAt = fetchedAt;
+        this.layers = new Layers(table);
+    }
+
+    /**
+     * Builds the snapshot on the table behind {@code employees} when it is a {@link EmployeeTable#asList()} view, or
+     * on a new table of them otherwise.
+     */
+    public static EmployeeSnapshot of(List<MockEmployee> employees, Instant fetchedAt) {
+        return new EmployeeSnapshot(employees, fetchedAt, EmployeeTable.from(employees));
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Whether this snapshot was built from exactly this list instance, as returned again for an unchanged upstream.
+     */
+    public boolean isBuiltFrom(List<MockEmployee> employees) {
+        return source == employees;
+    }
+
+    /**
+     * Marks the snapshot as fetched again at {@code fetchedAt}, keeping its indexes and entity tag.
+     */
+    public void revalidated(Instant fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Weak entity tag of the current content. Read it before the content so a concurrent write can only make the tag
+     * older than the content, never newer.
+     */
+    public String getETag() {
+        return "W/\"" + INSTANCE_ID + "." + generation + "." + modifications + "\"";
+    }
+
+    public boolean isFresh(Instant now, Duration ttl) {
+        return now.isBefore(fetchedAt.plus(ttl));
+    }
+
+    public int size() {
+        return layers.size();
+    }
+
+    public List<MockEmployee> employees() {
+        Layers current = layers;
+        EmployeeTable table = current.table;
+        List<MockEmployee> employees = new ArrayList<>(current.size());
+        for (int row = 0; row < table.size(); row++) {
+            if (!table.isSuperseded(row) && !current.isRemoved(row)) {
+                employees.add(table.get(row));
+            }
+        }
+        employees.addAll(current.written.values());
+        return employees;
+    }
+
+    public Optional<MockEmployee> findById(UUID id) {
+        Layers current = layers;
+        MockEmployee written = current.written.get(id);
+        if (written != null) {
+            return Optional.of(written);
+        }
+        int row = current.table.findRow(id);
+        return row < 0 || current.isRemoved(row) ? Optional.empty() : Optional.of(current.table.get(row));
+    }
+
+    public List<MockEmployee> searchByName(String fragment, boolean ignoreCase) {
+        Layers current = layers;
+        List<MockEmployee> matches = new ArrayList<>();
+        for (int row : current.table.searchName(fragment, ignoreCase)) {
+            if (!current.isRemoved(row)) {
+                matches.add(current.table.get(row));
+            }
+        }
+        for (UUID id : current.writtenNames.search(fragment, ignoreCase)) {
+            MockEmployee employee = current.written.get(id);
+            if (employee != null) {
+                matches.add(employee);
+            }
+        }
+        return matches;
+    }
+
+    public OptionalInt highestSalary() {
+        Layers current = layers;
+        OptionalInt written = current.writtenSalaries.highestSalary();
+        int rank = current.nextLiveRank(0);
+        if (rank == current.table.salaryRanks()) {
+            return written;
+        }
+        int listed = current.table.salary(current.table.rowBySalary(rank));
+        return OptionalInt.of(written.isPresent() ? Math.max(listed, written.getAsInt()) : listed);
+    }
+
+    /**
+     * Merges the listed rows, already in {@link SalaryIndex} order, with the written employees' own index.
+     */
+    public List<MockEmployee> topEarners(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        Layers current = layers;
+        EmployeeTable table = current.table;
+        List<MockEmployee> written = current.writtenSalaries.topEarners(limit);
+        List<MockEmployee> topEarners = new ArrayList<>(Math.min(limit, current.size()));
+        int rank = current.nextLiveRank(0);
+        int next = 0;
+        while (topEarners.size() < limit) {
+            boolean listedLeft = rank < table.salaryRanks();
+            boolean writtenLeft = next < written.size();
+            if (listedLeft && (!writtenLeft || table.compareBySalary(table.rowBySalary(rank), written.get(next)) < 0)) {
+                topEarners.add(table.get(table.rowBySalary(rank)));
+                rank = current.nextLiveRank(rank + 1);
+            } else if (writtenLeft) {
+                topEarners.add(written.get(next++));
+            } else {
+                break;
+            }
+        }
+        return topEarners;
+    }
+
+    /**
+     * Runs the query against the table's indexes and against the written employees, which stay few until compacted
+     * into the table, and merges the two.
+     */
+    public List<MockEmployee> query(EmployeeQuery query) {
+        Layers current = layers;
+        int[] rows = current.table.query(query, current::isRemoved);
+        List<MockEmployee> listed = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            listed.add(current.table.get(row));
+        }
+        List<MockEmployee> written = new ArrayList<>();
+        for (MockEmployee employee : current.written.values()) {
+            if (query.matches(employee)) {
+                written.add(employee);
+            }
+        }
+        if (written.isEmpty()) {
+            return listed;
+        }
+
+        int limit = query.maxResults();
+        if (query.sort() == null) {
+            listed.addAll(written.subList(0, Math.min(written.size(), Math.max(0, limit - listed.size()))));
+            return listed;
+        }
+        Comparator<MockEmployee> comparator = query.comparator();
+        written.sort(comparator);
+        List<MockEmployee> merged = new ArrayList<>(Math.min(limit, listed.size() + written.size()));
+        int nextListed = 0;
+        int nextWritten = 0;
+        while (merged.size() < limit && (nextListed < listed.size() || nextWritten < written.size())) {
+            if (nextWritten == written.size()
+                    || (nextListed < listed.size()
+                            && comparator.compare(listed.get(nextListed), written.get(nextWritten)) < 0)) {
+                merged.add(listed.get(nextListed++));
+            } else {
+                merged.add(written.get(nextWritten++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Salary statistics by title of the employees matching the query's filters, ordered by title with employees
+     * without one last. The query's order and limit do not apply.
+     */
+    public List<TitleAggregate> aggregateByTitle(EmployeeQuery query) {
+        Layers current = layers;
+        BitSet removed = current.removedRows();
+        Map<String, TitleStats> statsByTitle = current.table.aggregateByTitle(
+                query, removed::get, removed.stream().toArray());
+        for (MockEmployee employee : current.written.values()) {
+            if (query.matches(employee)) {
+                statsByTitle
+                        .computeIfAbsent(employee.getTitle(), ignored -> new TitleStats())
+                        .add(employee.getSalary() == null ? EmployeeTable.NO_VALUE : employee.getSalary());
+            }
+        }
+        List<TitleAggregate> aggregates = new ArrayList<>(statsByTitle.size());
+        statsByTitle.forEach((title, stats) -> aggregates.add(stats.toAggregate(title)));
+        aggregates.sort(Comparator.comparing(TitleAggregate::title, Comparator.nullsLast(Comparator.naturalOrder())));
+        return aggregates;
+    }
+
+    public synchronized void add(MockEmployee employee) {
+        if (Objects.nonNull(employee) && Objects.nonNull(employee.getId())) {
+            Layers current = layers;
+            MockEmployee replaced = current.written.put(employee.getId(), employee);
+            if (replaced != null) {
+                current.writtenSalaries.remove(replaced);
+            } else {
+                current.removeRow(employee.getId());
+            }
+            current.writtenSalaries.add(employee);
+            current.writtenNames.add(employee.getId(), employee.getName());
+            modifications++;
+            compactIfNeeded();
+        }
+    }
+
+    public synchronized Optional<MockEmployee> removeById(UUID id) {
+        Layers current = layers;
+        MockEmployee removed = current.written.remove(id);
+        if (removed != null) {
+            current.writtenSalaries.remove(removed);
+            current.writtenNames.remove(id);
+        } else {
+            int row = current.removeRow(id);
+            if (row < 0) {
+                return Optional.empty();
+            }
+            removed = current.table.get(row);
+        }
+        modifications++;
+        compactIfNeeded();
+        return Optional.of(removed);
+    }
+
+    /**
+     * Mirrors the v1 delete, which removes the first employee whose name matches ignoring case.
+     */
+    public synchronized Optional<MockEmployee> removeByName(String name) {
+        for (MockEmployee employee : searchByName(name, true)) {
+            if (employee.getName().equalsIgnoreCase(name)) {
+                return removeById(employee.getId());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void compactIfNeeded() {
+        Layers current = layers;
+        int overlay = current.written.size() + current.removedCount;
+        if (overlay < Math.max(MIN_COMPACTION_SIZE, current.table.liveRows() / 8)) {
+            return;
+        }
+        EmployeeTable.Builder builder = EmployeeTable.builder();
+        for (int row = 0; row < current.table.size(); row++) {
+            if (!current.table.isSuperseded(row) && !current.isRemoved(row)) {
+                builder.add(current.table, row);
+            }
+        }
+        current.written.values().forEach(builder::add);
+        layers = new Layers(builder.build());
+    }
+
+    /**
+     * The table, the rows of it removed or replaced by writes, and the employees written, with their own indexes.
+     * Writes change the current layers in place; compaction replaces them, so a read sees one consistent set.
+     */
+    private static final class Layers {
+
+        private final EmployeeTable table;
+        // one bit per row of the table
+        private final AtomicLongArray removedRows;
+        private volatile int removedCount;
+        private final Map<UUID, MockEmployee> written = new ConcurrentHashMap<>();
+        private final SalaryIndex writtenSalaries = new SalaryIndex();
+        private final NameNgramIndex writtenNames = new NameNgramIndex();
+
+        private Layers(EmployeeTable table) {
+            this.table = table;
+            this.removedRows = new AtomicLongArray((table.size() + 63) >>> 6);
+        }
+
+        int size() {
+            return table.liveRows() - removedCount + written.size();
+        }
+
+        boolean isRemoved(int row) {
+            return (removedRows.get(row >>> 6) & (1L << row)) != 0;
+        }
+
+        // a copy, so one aggregate sees one set of removed rows
+        BitSet removedRows() {
+            long[] words = new long[removedRows.length()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = removedRows.get(i);
+            }
+            return BitSet.valueOf(words);
+        }
+
+        /**
+         * @return the removed row, or -1 when the table has no live row for the id
+         */
+        int removeRow(UUID id) {
+            int row = table.findRow(id);
+            if (row < 0 || isRemoved(row)) {
+                return -1;
+            }
+            removedRows.getAndAccumulate(row >>> 6, 1L << row, (bits, bit) -> bits | bit);
+            removedCount++;
+            return row;
+        }
+
+        // the first salary rank from rank on whose row is not removed
+        int nextLiveRank(int rank) {
+            while (rank < table.salaryRanks() && isRemoved(table.rowBySalary(rank))) {
+                rank++;
+            }
+            return rank;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.server.model.MockEmployee;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stale-while-revalidate cache over the v1 employee list.
+ * <ul>
+ *     <li>a snapshot younger than {@code ttl} is served as is;</li>
+ *     <li>an older one is served immediately while a single background refresh replaces it;</li>
+ *     <li>once a snapshot is older than {@code ttl + maxStale}, or there is none yet, callers wait for the refresh
+ *     and see its error if it fails. With {@code lastKnownGood}, a failed refresh serves the last snapshot instead,
+ *     however old; only callers without one see the error.</li>
+ * </ul>
+ * At most one upstream fetch is in flight at any time, whatever the request rate. When the loader returns the same
+ * list instance as last time, because the upstream reported it unchanged, the current snapshot is revalidated instead
+ * of rebuilt, so its indexes and entity tag carry over.
+ * <p>
+ * Any snapshot served past its {@code ttl} is {@link #staleness(EmployeeSnapshot) stale}, which responses report.
+ */
+@Slf4j
+public class EmployeeSnapshotCache {
+
+    private final Supplier<List<MockEmployee>> loader;
+    private final Duration ttl;
+    private final Duration maxStale;
+    private final boolean lastKnownGood;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<EmployeeSnapshot>> inFlight = new AtomicReference<>();
+
+    public EmployeeSnapshotCache(Supplier<List<MockEmployee>> loader, ApiV1Config.Cache config) {
+        this(
+                loader,
+                config.getTtl(),
+                config.getMaxStale(),
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                Clock.systemUTC(),
+                config.isLastKnownGood());
+    }
+
+    public EmployeeSnapshotCache(
+            Supplier<List<MockEmployee>> loader,
+            Duration ttl,
+            Duration maxStale,
+            Executor refreshExecutor,
+            Clock clock) {
+        this(loader, ttl, maxStale, refreshExecutor, clock, false);
+    }
+
+    public EmployeeSnapshotCache(
+            Supplier<List<MockEmployee>> loader,
+            Duration ttl,
+            Duration maxStale,
+            Executor refreshExecutor,
+            Clock clock,
+            boolean lastKnownGood) {
+        this.loader = loader;
+        this.ttl = ttl;
+        this.maxStale = maxStale;
+        this.lastKnownGood = lastKnownGood;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    public EmployeeSnapshot getSnapshot() {
+        EmployeeSnapshot snapshot = current.get();
+        Instant now = clock.instant();
+        if (snapshot != null && snapshot.isFresh(now, ttl)) {
+            return snapshot;
+        }
+        if (snapshot != null && snapshot.isFresh(now, ttl.plus(maxStale))) {
+            refresh(true);
+            return snapshot;
+        }
+        try {
+            return refresh(false).join();
+        } catch (CompletionException e) {
+            if (lastKnownGood && snapshot != null) {
+                return snapshot;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getSnapshot()}: when the caller has to wait, the refresh runs on the refresh
+     * executor and the returned {@link Mono} completes from there.
+     */
+    public Mono<EmployeeSnapshot> getSnapshotAsync() {
+        return Mono.defer(() -> {
+            EmployeeSnapshot snapshot = current.get();
+            Instant now = clock.instant();
+            if (snapshot != null && snapshot.isFresh(now, ttl)) {
+                return Mono.just(snapshot);
+            }
+            if (snapshot != null && snapshot.isFresh(now, ttl.plus(maxStale))) {
+                refresh(true);
+                return Mono.just(snapshot);
+            }
+            Mono<EmployeeSnapshot> refreshed = Mono.fromFuture(refresh(true), true);
+            return lastKnownGood && snapshot != null ? refreshed.onErrorReturn(snapshot) : refreshed;
+        });
+    }
+
+    /**
+     * Like {@link #getSnapshot()} for callers that have a cheaper way to answer than waiting for a refresh.
+     *
+     * @return the snapshot when it can be served without waiting, or empty when a caller of {@link #getSnapshot()}
+     * would have to; either way a refresh is started in the background when one is due
+     */
+    public Optional<EmployeeSnapshot> getSnapshotIfServable() {
+        EmployeeSnapshot snapshot = current.get();
+        Instant now = clock.instant();
+        if (snapshot != null && snapshot.isFresh(now, ttl)) {
+            return Optional.of(snapshot);
+        }
+        refresh(true);
+        if (snapshot != null && snapshot.isFresh(now, ttl.plus(maxStale))) {
+            return Optional.of(snapshot);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return how long ago the snapshot was fetched, when that is past the {@code ttl}
+     */
+    public Optional<Duration> staleness(EmployeeSnapshot snapshot) {
+        Instant now = clock.instant();
+        if (snapshot.isFresh(now, ttl)) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.between(snapshot.getFetchedAt(), now));
+    }
+
+    /**
+     * @return the current snapshot however old, without refreshing it
+     */
+    public Optional<EmployeeSnapshot> getLastKnownGood() {
+        return Optional.ofNullable(current.get());
+    }
+
+    /**
+     * Applies a successful v2 create to the current snapshot. A refresh already in flight may not include it; the
+     * following refresh will.
+     */
+    public void onEmployeeCreated(MockEmployee employee) {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            snapshot.add(employee);
+        }
+    }
+
+    public void onEmployeeDeleted(String name) {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            snapshot.removeByName(name);
+        }
+    }
+
+    /**
+     * Starts a background refresh, or joins the one in flight, while the current snapshot keeps being served.
+     */
+    public CompletableFuture<EmployeeSnapshot> refreshAsync() {
+        return refresh(true);
+    }
+
+    private CompletableFuture<EmployeeSnapshot> refresh(boolean async) {
+        while (true) {
+            CompletableFuture<EmployeeSnapshot> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<EmployeeSnapshot> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                if (async) {
+                    refreshExecutor.execute(() -> load(created));
+                } else {
+                    load(created);
+                }
+                return created;
+            }
+        }
+    }
+
+    private void load(CompletableFuture<EmployeeSnapshot> target) {
+        try {
+            List<MockEmployee> employees = loader.get();
+            EmployeeSnapshot previous = current.get();
+            EmployeeSnapshot snapshot;
+            if (previous != null && previous.isBuiltFrom(employees)) {
+                previous.revalidated(clock.instant());
+                snapshot = previous;
+            } else {
+                snapshot = EmployeeSnapshot.of(employees, clock.instant());
+                current.set(snapshot);
+            }
+            target.complete(snapshot);
+        } catch (RuntimeException e) {
+            log.warn("Refreshing employee snapshot failed, previous snapshot is kept", e);
+            target.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(target, null);
+        }
+    }
+}
@@ -0,0 +1,880 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.cache.EmployeeQuery.SortField;
+import com.reliaquest.server.model.MockEmployee;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable, column-oriented copy of an employee listing, one row per employee:
+ * <ul>
+ *     <li>the id as two {@code long} columns;</li>
+ *     <li>salary and age as {@code int} columns, {@link #NO_VALUE} standing for none;</li>
+ *     <li>the title as a code into a dictionary of the distinct titles;</li>
+ *     <li>name and email as UTF-8 bytes packed end to end into one array each.</li>
+ * </ul>
+ * Rows are turned back into {@link MockEmployee}s only as responses need them. Indexes over the rows replace the
+ * per-object ones: an open-addressing id hash, the rows in {@link SalaryIndex} order, and name trigram postings as
+ * ascending row arrays. For {@link EmployeeQuery queries} the rows are also sorted by age, and each title has its rows
+ * in salary order with running salary sums, so salary and age ranges are binary searches and per-title aggregates
+ * over a salary range take a few lookups.
+ * <p>
+ * Employees without an id are left out. When an id is listed more than once, its last row supersedes the others.
+ */
+public final class EmployeeTable {
+
+    // stands for a missing salary or age
+    public static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private static final int NO_TITLE = -1;
+
+    private final int size;
+    private final long[] idHigh;
+    private final long[] idLow;
+    private final int[] salaries;
+    private final int[] ages;
+    private final int[] titleCodes;
+    private final String[] titles;
+    private final Utf8Column names;
+    private final Utf8Column emails;
+
+    // each slot holds a row + 1, or 0 when empty; kept at most half full
+    private final int[] idSlots;
+    private final BitSet superseded;
+    private final int liveRows;
+    private final SortedColumn bySalary;
+    private final SortedColumn byAge;
+    private final Map<String, int[]> namePostings;
+    private final Map<String, Integer> titleDictionary;
+    // per title code, and NO_TITLE last: the title's rows in bySalary order, how many of them have a salary, and
+    // the running sum of those salaries
+    private final int[][] titleRows;
+    private final int[] titleSalaried;
+    private final long[][] titleSalarySums;
+    private final List<MockEmployee> rows = new Rows();
+
+    private EmployeeTable(Builder builder) {
+        this.size = builder.size;
+        this.idHigh = Arrays.copyOf(builder.idHigh, size);
+        this.idLow = Arrays.copyOf(builder.idLow, size);
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.titleCodes = Arrays.copyOf(builder.titleCodes, size);
+        this.titles = builder.titles.toArray(String[]::new);
+        this.names = builder.names.build();
+        this.emails = builder.emails.build();
+
+        this.idSlots = new int[Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1];
+        this.superseded = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            int slot = findSlot(idHigh[row], idLow[row]);
+            if (idSlots[slot] != 0) {
+                superseded.set(idSlots[slot] - 1);
+            }
+            idSlots[slot] = row + 1;
+        }
+        this.liveRows = size - superseded.cardinality();
+        this.bySalary = new SortedColumn(salaries);
+        this.byAge = new SortedColumn(ages);
+        this.namePostings = indexNames();
+
+        this.titleDictionary = new HashMap<>(builder.titleDictionary);
+        this.titleRows = new int[titles.length + 1][];
+        this.titleSalaried = new int[titles.length + 1];
+        this.titleSalarySums = new long[titles.length + 1][];
+        indexTitles();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static EmployeeTable of(Collection<MockEmployee> employees) {
+        Builder builder = new Builder();
+        employees.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return the table behind a list returned by {@link #asList()}, or a new table of the employees
+     */
+    public static EmployeeTable from(List<MockEmployee> employees) {
+        if (employees instanceof EmployeeTable.Rows tableRows) {
+            return tableRows.table();
+        }
+        return of(employees);
+    }
+
+    /**
+     * @return every row, superseded ones included, as a read-only list that builds each employee as it is read; the
+     * same instance on every call
+     */
+    public List<MockEmployee> asList() {
+        return rows;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return rows not superseded by a later row with the same id
+     */
+    public int liveRows() {
+        return liveRows;
+    }
+
+    public boolean isSuperseded(int row) {
+        return superseded.get(row);
+    }
+
+    public MockEmployee get(int row) {
+        return MockEmployee.builder()
+                .id(id(row))
+                .name(name(row))
+                .salary(salaries[row] == NO_VALUE ? null : salaries[row])
+                .age(ages[row] == NO_VALUE ? null : ages[row])
+                .title(title(row))
+                .email(emails.get(row))
+                .build();
+    }
+
+    public UUID id(int row) {
+        return new UUID(idHigh[row], idLow[row]);
+    }
+
+    public String name(int row) {
+        return names.get(row);
+    }
+
+    public int salary(int row) {
+        return salaries[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String title(int row) {
+        return titleCodes[row] == NO_TITLE ? null : titles[titleCodes[row]];
+    }
+
+    /**
+     * @return the live row of the employee, or -1
+     */
+    public int findRow(UUID id) {
+        int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return idSlots[slot] - 1;
+    }
+
+    /**
+     * @return how many live rows have a salary, i.e. the ranks accepted by {@link #rowBySalary(int)}
+     */
+    public int salaryRanks() {
+        return bySalary.valued;
+    }
+
+    /**
+     * @return the live row at {@code rank} in {@link SalaryIndex} order, highest salary first
+     */
+    public int rowBySalary(int rank) {
+        return bySalary.rows[bySalary.valued - 1 - rank];
+    }
+
+    /**
+     * Compares in {@link SalaryIndex} order: negative when the row comes before the employee.
+     */
+    public int compareBySalary(int row, MockEmployee employee) {
+        int bySalary = Integer.compare(employee.getSalary(), salaries[row]);
+        return bySalary != 0 ? bySalary : compareIds(row, employee.getId());
+    }
+
+    /**
+     * @return live rows whose name contains {@code fragment}, ascending
+     */
+    public int[] searchName(String fragment, boolean ignoreCase) {
+        if (fragment.length() < NameNgramIndex.GRAM_LENGTH) {
+            IntBuffer matches = new IntBuffer();
+            for (int row = 0; row < size; row++) {
+                if (!superseded.get(row) && nameMatches(row, fragment, ignoreCase)) {
+                    matches.add(row);
+                }
+            }
+            return matches.toArray();
+        }
+
+        List<int[]> candidates = new ArrayList<>();
+        for (String gram : NameNgramIndex.grams(fragment)) {
+            int[] posting = namePostings.get(gram);
+            if (posting == null) {
+                return new int[0];
+            }
+            candidates.add(posting);
+        }
+        candidates.sort(Comparator.comparingInt(posting -> posting.length));
+
+        IntBuffer matches = new IntBuffer();
+        List<int[]> others = candidates.subList(1, candidates.size());
+        for (int row : candidates.get(0)) {
+            if (!superseded.get(row) && containedInAll(row, others) && nameMatches(row, fragment, ignoreCase)) {
+                matches.add(row);
+            }
+        }
+        return matches.toArray();
+    }
+
+    /**
+     * Finds the rows matching the query's filters, other than the excluded ones, in its order and up to its limit.
+     * They are read from the narrowest of the salary range, the age range and the title's rows, and checked against
+     * the other filters. When that source is not in the requested order, the matches are sorted by their position in
+     * the requested one.
+     */
+    public int[] query(EmployeeQuery query, IntPredicate excluded) {
+        int titleCode = NO_TITLE;
+        if (query.title() != null) {
+            Integer code = titleDictionary.get(query.title());
+            if (code == null) {
+                return new int[0];
+            }
+            titleCode = code;
+        }
+        Source source = narrowestSource(query, titleCode);
+        SortedColumn order = query.sort() == null ? null : query.sort() == SortField.SALARY ? bySalary : byAge;
+        boolean reversed = order != null && query.descending();
+        int limit = query.maxResults();
+
+        if (order != null && order != source.order()) {
+            IntBuffer ranks = new IntBuffer();
+            for (int i = 0; i < source.length(); i++) {
+                int row = source.row(i, false);
+                if (matches(row, query, titleCode, excluded)) {
+                    ranks.add(order.rankOfRow[row]);
+                }
+            }
+            int[] sorted = ranks.toArray();
+            Arrays.sort(sorted);
+            int valued = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                valued += sorted[i] < order.valued ? 1 : 0;
+                sorted[i] = order.rows[sorted[i]];
+            }
+            Source sortedMatches = new Source(sorted, 0, sorted.length, valued, order);
+            int[] limited = new int[Math.min(limit, sorted.length)];
+            for (int i = 0; i < limited.length; i++) {
+                limited[i] = sortedMatches.row(i, reversed);
+            }
+            return limited;
+        }
+
+        IntBuffer matches = new IntBuffer();
+        for (int i = 0; i < source.length() && matches.size() < limit; i++) {
+            int row = source.row(i, reversed);
+            if (matches(row, query, titleCode, excluded)) {
+                matches.add(row);
+            }
+        }
+        return matches.toArray();
+    }
+
+    /**
+     * Gathers the salary statistics, by title, of the rows matching the query's filters other than the excluded
+     * ones; its order and limit do not apply. Without an age filter, each title takes two binary searches into its
+     * rows and its running salary sums, corrected for the excluded rows. With one, either the age range or the
+     * titles' salary ranges are checked row by row, whichever holds fewer rows.
+     *
+     * @param excludedRows every row {@code excluded} accepts
+     */
+    Map<String, TitleStats> aggregateByTitle(EmployeeQuery query, IntPredicate excluded, int[] excludedRows) {
+        Map<String, TitleStats> statsByTitle = new HashMap<>();
+        int titleCode = NO_TITLE;
+        int fromSlot = 0;
+        int toSlot = titleRows.length;
+        if (query.title() != null) {
+            Integer code = titleDictionary.get(query.title());
+            if (code == null) {
+                return statsByTitle;
+            }
+            titleCode = code;
+            fromSlot = code;
+            toSlot = code + 1;
+        }
+        Source[] sources = new Source[titleRows.length];
+        long titleRowCount = 0;
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            sources[slot] = titleSource(slot, query);
+            titleRowCount += sources[slot].length();
+        }
+
+        if (query.filtersAge()) {
+            Source ageRange = byAge.range(query.minAge(), query.maxAge());
+            if (ageRange.length() < titleRowCount) {
+                addMatches(statsByTitle, ageRange, query, titleCode, excluded);
+            } else {
+                for (int slot = fromSlot; slot < toSlot; slot++) {
+                    addMatches(statsByTitle, sources[slot], query, titleCode, excluded);
+                }
+            }
+            return statsByTitle;
+        }
+
+        long[] excludedCounts = new long[titleRows.length];
+        long[] excludedSalaried = new long[titleRows.length];
+        long[] excludedSums = new long[titleRows.length];
+        for (int row : excludedRows) {
+            if (matches(row, query, titleCode, ignored -> false)) {
+                int slot = titleSlot(row);
+                excludedCounts[slot]++;
+                if (salaries[row] != NO_VALUE) {
+                    excludedSalaried[slot]++;
+                    excludedSums[slot] += salaries[row];
+                }
+            }
+        }
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            Source source = sources[slot];
+            long count = source.length() - excludedCounts[slot];
+            if (count == 0) {
+                continue;
+            }
+            TitleStats stats = statsByTitle.computeIfAbsent(slotTitle(slot), ignored -> new TitleStats());
+            int salariedTo = Math.min(source.to(), titleSalaried[slot]);
+            long salaried = Math.max(0, salariedTo - source.from()) - excludedSalaried[slot];
+            if (salaried == 0) {
+                stats.add(count, 0, 0, 0, 0);
+                continue;
+            }
+            int[] rows = titleRows[slot];
+            int lowest = source.from();
+            while (excluded.test(rows[lowest])) {
+                lowest++;
+            }
+            int highest = salariedTo - 1;
+            while (excluded.test(rows[highest])) {
+                highest--;
+            }
+            long sum = titleSalarySums[slot][salariedTo] - titleSalarySums[slot][source.from()] - excludedSums[slot];
+            stats.add(count, salaried, salaries[rows[lowest]], salaries[rows[highest]], sum);
+        }
+        return statsByTitle;
+    }
+
+    private void addMatches(
+            Map<String, TitleStats> statsByTitle,
+            Source source,
+            EmployeeQuery query,
+            int titleCode,
+            IntPredicate excluded) {
+        for (int i = 0; i < source.length(); i++) {
+            int row = source.row(i, false);
+            if (matches(row, query, titleCode, excluded)) {
+                statsByTitle
+                        .computeIfAbsent(title(row), ignored -> new TitleStats())
+                        .add(salaries[row]);
+            }
+        }
+    }
+
+    private Source narrowestSource(EmployeeQuery query, int titleCode) {
+        Source narrowest = null;
+        if (query.filtersSalary()) {
+            narrowest = bySalary.range(query.minSalary(), query.maxSalary());
+        }
+        if (query.filtersAge()) {
+            narrowest = narrower(narrowest, byAge.range(query.minAge(), query.maxAge()));
+        }
+        if (query.title() != null) {
+            narrowest = narrower(narrowest, titleSource(titleCode, query));
+        }
+        if (narrowest == null) {
+            // nothing to narrow by, so every live row, in the requested order if there is one
+            narrowest = query.sort() == SortField.AGE ? byAge.all() : bySalary.all();
+        }
+        return narrowest;
+    }
+
+    private static Source narrower(Source current, Source candidate) {
+        return current == null || candidate.length() < current.length() ? candidate : current;
+    }
+
+    /**
+     * @return the rows of a title slot within the query's salary range, in salary order
+     */
+    private Source titleSource(int slot, EmployeeQuery query) {
+        int[] rows = titleRows[slot];
+        if (!query.filtersSalary()) {
+            return new Source(rows, 0, rows.length, titleSalaried[slot], bySalary);
+        }
+        int from = firstAtLeast(rows, 0, titleSalaried[slot], salaries, lowerBound(query.minSalary()));
+        int to = firstAtLeast(rows, from, titleSalaried[slot], salaries, upperBound(query.maxSalary()));
+        return new Source(rows, from, to, to, bySalary);
+    }
+
+    private boolean matches(int row, EmployeeQuery query, int titleCode, IntPredicate excluded) {
+        return !superseded.get(row)
+                && (query.title() == null || titleCodes[row] == titleCode)
+                && inRange(salaries[row], query.minSalary(), query.maxSalary())
+                && inRange(ages[row], query.minAge(), query.maxAge())
+                && !excluded.test(row);
+    }
+
+    private static boolean inRange(int value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != NO_VALUE && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static long lowerBound(Integer min) {
+        return min == null ? Long.MIN_VALUE : min;
+    }
+
+    // exclusive
+    private static long upperBound(Integer max) {
+        return max == null ? Long.MAX_VALUE : max + 1L;
+    }
+
+    /**
+     * @return the first index in {@code [from, to)} whose row's value is at least {@code value}, or {@code to}; the
+     * values of those rows must be ascending
+     */
+    private static int firstAtLeast(int[] rows, int from, int to, int[] values, long value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[rows[middle]] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private boolean nameMatches(int row, String fragment, boolean ignoreCase) {
+        String name = names.get(row);
+        return name != null && NameNgramIndex.matches(name, fragment, ignoreCase);
+    }
+
+    private static boolean containedInAll(int row, List<int[]> postings) {
+        for (int[] posting : postings) {
+            if (Arrays.binarySearch(posting, row) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int titleSlot(int row) {
+        return titleCodes[row] == NO_TITLE ? titles.length : titleCodes[row];
+    }
+
+    private String slotTitle(int slot) {
+        return slot == titles.length ? null : titles[slot];
+    }
+
+    private int findSlot(long high, long low) {
+        int mask = idSlots.length - 1;
+        long mixed = (high ^ low) * 0x9E3779B97F4A7C15L;
+        int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+        while (idSlots[slot] != 0) {
+            int row = idSlots[slot] - 1;
+            if (idHigh[row] == high && idLow[row] == low) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int compareIds(int row, UUID id) {
+        int byHigh = Long.compare(idHigh[row], id.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compare(idLow[row], id.getLeastSignificantBits());
+    }
+
+    private Map<String, int[]> indexNames() {
+        Map<String, IntBuffer> postings = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            String name = names.get(row);
+            if (name != null && !superseded.get(row)) {
+                for (String gram : NameNgramIndex.grams(name)) {
+                    postings.computeIfAbsent(gram, ignored -> new IntBuffer()).add(row);
+                }
+            }
+        }
+        Map<String, int[]> index = new HashMap<>(postings.size() * 4 / 3 + 1);
+        postings.forEach((gram, rowsWithGram) -> index.put(gram, rowsWithGram.toArray()));
+        return index;
+    }
+
+    private void indexTitles() {
+        IntBuffer[] postings = new IntBuffer[titleRows.length];
+        for (int slot = 0; slot < postings.length; slot++) {
+            postings[slot] = new IntBuffer();
+        }
+        for (int row : bySalary.rows) {
+            postings[titleSlot(row)].add(row);
+        }
+        for (int slot = 0; slot < postings.length; slot++) {
+            int[] rows = postings[slot].toArray();
+            long[] sums = new long[rows.length + 1];
+            int salaried = 0;
+            while (salaried < rows.length && salaries[rows[salaried]] != NO_VALUE) {
+                sums[salaried + 1] = sums[salaried] + salaries[rows[salaried]];
+                salaried++;
+            }
+            titleRows[slot] = rows;
+            titleSalaried[slot] = salaried;
+            titleSalarySums[slot] = Arrays.copyOf(sums, salaried + 1);
+        }
+    }
+
+    /**
+     * Sorts {@code rows[from, to)} by id in place, comparing the id columns: runs of equal values are mostly short and
+     * get an insertion sort, longer ones a heap sort.
+     */
+    private void sortByIds(int[] rows, int from, int to, boolean descending) {
+        int sign = descending ? -1 : 1;
+        int length = to - from;
+        if (length <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i;
+                while (j > from && sign * compareRows(rows[j - 1], row) > 0) {
+                    rows[j] = rows[j - 1];
+                    j--;
+                }
+                rows[j] = row;
+            }
+            return;
+        }
+        for (int parent = length / 2 - 1; parent >= 0; parent--) {
+            siftDown(rows, from, parent, length, sign);
+        }
+        for (int last = length - 1; last > 0; last--) {
+            int top = rows[from];
+            rows[from] = rows[from + last];
+            rows[from + last] = top;
+            siftDown(rows, from, 0, last, sign);
+        }
+    }
+
+    private void siftDown(int[] rows, int from, int parent, int length, int sign) {
+        int row = rows[from + parent];
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= length) {
+                break;
+            }
+            if (child + 1 < length && sign * compareRows(rows[from + child + 1], rows[from + child]) > 0) {
+                child++;
+            }
+            if (sign * compareRows(rows[from + child], row) <= 0) {
+                break;
+            }
+            rows[from + parent] = rows[from + child];
+            parent = child;
+        }
+        rows[from + parent] = row;
+    }
+
+    private int compareRows(int a, int b) {
+        int byHigh = Long.compare(idHigh[a], idHigh[b]);
+        return byHigh != 0 ? byHigh : Long.compare(idLow[a], idLow[b]);
+    }
+
+    /**
+     * Live rows ordered by an {@code int} column: those with a value by ascending value and, among equal values, by
+     * descending id, so that reading them backwards gives {@link SalaryIndex} order; then those without a value, by
+     * ascending id.
+     */
+    private final class SortedColumn {
+
+        private final int[] values;
+        private final int[] rows;
+        // how many of the rows have a value
+        private final int valued;
+        // position of each row in rows, -1 for superseded ones
+        private final int[] rankOfRow;
+
+        private SortedColumn(int[] values) {
+            this.values = values;
+            long[] keys = new long[size];
+            int count = 0;
+            IntBuffer missing = new IntBuffer();
+            for (int row = 0; row < size; row++) {
+                if (superseded.get(row)) {
+                    continue;
+                }
+                if (values[row] == NO_VALUE) {
+                    missing.add(row);
+                } else {
+                    keys[count++] = ((long) values[row] << 32) | row;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            this.valued = count;
+            this.rows = new int[count + missing.size()];
+            for (int i = 0; i < count; i++) {
+                rows[i] = (int) keys[i];
+            }
+            for (int start = 0; start < count; ) {
+                int end = start + 1;
+                while (end < count && values[rows[end]] == values[rows[start]]) {
+                    end++;
+                }
+                sortByIds(rows, start, end, true);
+                start = end;
+            }
+            System.arraycopy(missing.toArray(), 0, rows, count, missing.size());
+            sortByIds(rows, count, rows.length, false);
+
+            this.rankOfRow = new int[size];
+            Arrays.fill(rankOfRow, -1);
+            for (int rank = 0; rank < rows.length; rank++) {
+                rankOfRow[rows[rank]] = rank;
+            }
+        }
+
+        Source all() {
+            return new Source(rows, 0, rows.length, valued, this);
+        }
+
+        Source range(Integer min, Integer max) {
+            int from = firstAtLeast(rows, 0, valued, values, lowerBound(min));
+            int to = firstAtLeast(rows, from, valued, values, upperBound(max));
+            return new Source(rows, from, to, to, this);
+        }
+    }
+
+    /**
+     * {@code rows[from, to)} in the order of a {@link SortedColumn}, rows with a value before {@code valuedTo}.
+     */
+    private record Source(int[] rows, int from, int to, int valuedTo, SortedColumn order) {
+
+        int length() {
+            return to - from;
+        }
+
+        /**
+         * @param reversed for descending order, in which the rows with a value are read backwards and still come
+         *                 before the others
+         */
+        int row(int index, boolean reversed) {
+            int valued = Math.max(0, Math.min(valuedTo, to) - from);
+            if (reversed && index < valued) {
+                return rows[from + valued - 1 - index];
+            }
+            return rows[from + index];
+        }
+    }
+
+    /**
+     * Collects rows; not thread-safe.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] idHigh = new long[16];
+        private long[] idLow = new long[16];
+        private int[] salaries = new int[16];
+        private int[] ages = new int[16];
+        private int[] titleCodes = new int[16];
+        private final List<String> titles = new ArrayList<>();
+        private final Map<String, Integer> titleDictionary = new HashMap<>();
+        private final Utf8Column.Builder names = new Utf8Column.Builder();
+        private final Utf8Column.Builder emails = new Utf8Column.Builder();
+
+        private Builder() {}
+
+        public Builder add(MockEmployee employee) {
+            if (employee == null || employee.getId() == null) {
+                return this;
+            }
+            int row = nextRow();
+            idHigh[row] = employee.getId().getMostSignificantBits();
+            idLow[row] = employee.getId().getLeastSignificantBits();
+            salaries[row] = employee.getSalary() == null ? NO_VALUE : employee.getSalary();
+            ages[row] = employee.getAge() == null ? NO_VALUE : employee.getAge();
+            titleCodes[row] = titleCode(employee.getTitle());
+            names.add(employee.getName());
+            emails.add(employee.getEmail());
+            return this;
+        }
+
+        /**
+         * Copies a row of another table without building the employee.
+         */
+        public Builder add(EmployeeTable table, int source) {
+            int row = nextRow();
+            idHigh[row] = table.idHigh[source];
+            idLow[row] = table.idLow[source];
+            salaries[row] = table.salaries[source];
+            ages[row] = table.ages[source];
+            titleCodes[row] = titleCode(table.title(source));
+            names.add(table.names, source);
+            emails.add(table.emails, source);
+            return this;
+        }
+
+        public EmployeeTable build() {
+            return new EmployeeTable(this);
+        }
+
+        private int nextRow() {
+            if (size == idHigh.length) {
+                int capacity = size * 2;
+                idHigh = Arrays.copyOf(idHigh, capacity);
+                idLow = Arrays.copyOf(idLow, capacity);
+                salaries = Arrays.copyOf(salaries, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                titleCodes = Arrays.copyOf(titleCodes, capacity);
+            }
+            return size++;
+        }
+
+        private int titleCode(String title) {
+            if (title == null) {
+                return NO_TITLE;
+            }
+            return titleDictionary.computeIfAbsent(title, added -> {
+                titles.add(added);
+                return titles.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Strings stored as UTF-8 end to end in one array. {@code ends[row]} is where the row's bytes end, and where the
+     * next row's start; a null is stored as the complement of that offset.
+     */
+    private static final class Utf8Column {
+
+        private final byte[] bytes;
+        private final int[] ends;
+
+        private Utf8Column(byte[] bytes, int[] ends) {
+            this.bytes = bytes;
+            this.ends = ends;
+        }
+
+        String get(int row) {
+            if (ends[row] < 0) {
+                return null;
+            }
+            int start = start(row);
+            return new String(bytes, start, ends[row] - start, StandardCharsets.UTF_8);
+        }
+
+        private int start(int row) {
+            return row == 0 ? 0 : end(row - 1);
+        }
+
+        private int end(int row) {
+            return ends[row] < 0 ? ~ends[row] : ends[row];
+        }
+
+        private static final class Builder {
+
+            private byte[] bytes = new byte[256];
+            private int length;
+            private int[] ends = new int[16];
+            private int size;
+
+            void add(String value) {
+                if (value == null) {
+                    addNull();
+                    return;
+                }
+                byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+                append(encoded, 0, encoded.length);
+            }
+
+            void add(Utf8Column column, int row) {
+                if (column.ends[row] < 0) {
+                    addNull();
+                    return;
+                }
+                int start = column.start(row);
+                append(column.bytes, start, column.ends[row] - start);
+            }
+
+            Utf8Column build() {
+                return new Utf8Column(Arrays.copyOf(bytes, length), Arrays.copyOf(ends, size));
+            }
+
+            private void addNull() {
+                ensureRow();
+                ends[size++] = ~length;
+            }
+
+            private void append(byte[] value, int offset, int count) {
+                if (length + count > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+                }
+                System.arraycopy(value, offset, bytes, length, count);
+                length += count;
+                ensureRow();
+                ends[size++] = length;
+            }
+
+            private void ensureRow() {
+                if (size == ends.length) {
+                    ends = Arrays.copyOf(ends, size * 2);
+                }
+            }
+        }
+    }
+
+    private static final class IntBuffer {
+
+        private int[] values = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private final class Rows extends AbstractList<MockEmployee> implements RandomAccess {
+
+        @Override
+        public MockEmployee get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return EmployeeTable.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        EmployeeTable table() {
+            return EmployeeTable.this;
+        }
+    }
+}
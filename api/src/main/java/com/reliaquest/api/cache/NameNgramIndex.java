@@ -0,0 +1,135 @@
+package com.reliaquest.api.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trigram inverted index over employee names. Every lower-cased trigram of a name maps to the ids whose name contains
+ * it; a search intersects the posting sets of the fragment's trigrams, starting from the smallest, and only verifies
+ * the surviving candidates against the real name. Fragments shorter than a trigram fall back to a scan.
+ * <p>
+ * Trigrams are always indexed lower-cased, so the same index serves case-sensitive and case-insensitive searches.
+ * Searches may run concurrently with writes; writes themselves must be serialized by the caller.
+ */
+public class NameNgramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<UUID, String> namesById = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+
+    public void add(UUID id, String name) {
+        if (Objects.isNull(id) || Objects.isNull(name)) {
+            return;
+        }
+        String previous = namesById.put(id, name);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+        for (String gram : grams(name)) {
+            postings.computeIfAbsent(gram, ignored -> ConcurrentHashMap.newKeySet())
+                    .add(id);
+        }
+    }
+
+    public void remove(UUID id) {
+        String name = namesById.remove(id);
+        if (name != null) {
+            removePostings(id, name);
+        }
+    }
+
+    /**
+     * @return ids of the names containing {@code fragment}, in no particular order
+     */
+    public List<UUID> search(String fragment, boolean ignoreCase) {
+        if (fragment.length() < GRAM_LENGTH) {
+            return scan(fragment, ignoreCase);
+        }
+
+        List<Set<UUID>> candidateSets = new ArrayList<>();
+        for (String gram : grams(fragment)) {
+            Set<UUID> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            candidateSets.add(ids);
+        }
+        candidateSets.sort(Comparator.comparingInt(Set::size));
+        Set<UUID> smallest = candidateSets.get(0);
+
+        List<UUID> matches = new ArrayList<>();
+        List<Set<UUID>> others = candidateSets.subList(1, candidateSets.size());
+        for (UUID id : smallest) {
+            if (containedInAll(id, others)) {
+                String name = namesById.get(id);
+                if (name != null && matches(name, fragment, ignoreCase)) {
+                    matches.add(id);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private List<UUID> scan(String fragment, boolean ignoreCase) {
+        List<UUID> matches = new ArrayList<>();
+        namesById.forEach((id, name) -> {
+            if (matches(name, fragment, ignoreCase)) {
+                matches.add(id);
+            }
+        });
+        return matches;
+    }
+
+    private void removePostings(UUID id, String name) {
+        for (String gram : grams(name)) {
+            postings.computeIfPresent(gram, (ignored, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static boolean containedInAll(UUID id, List<Set<UUID>> sets) {
+        for (Set<UUID> set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean matches(String name, String needle, boolean ignoreCase) {
+        if (!ignoreCase) {
+            return name.contains(needle);
+        }
+        for (int i = 0; i + needle.length() <= name.length(); i++) {
+            if (name.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<String> grams(String text) {
+        String lowerCased = lowerCase(text);
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= lowerCased.length(); i++) {
+            grams.add(lowerCased.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String lowerCase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
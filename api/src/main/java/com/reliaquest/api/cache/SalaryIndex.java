@@ -0,0 +1,64 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Employees ordered by salary, highest first, with the id as tie-break so equal salaries never collide. The highest
+ * salary is the head of the set and the top {@code n} earners are its first {@code n} entries, so neither needs a
+ * sort or a full scan. Employees without a salary or id are not indexed.
+ */
+public class SalaryIndex {
+
+    static final Comparator<MockEmployee> HIGHEST_SALARY_FIRST = Comparator.comparing(
+                    MockEmployee::getSalary, Comparator.reverseOrder())
+            .thenComparing(MockEmployee::getId);
+
+    private final ConcurrentSkipListSet<MockEmployee> employees = new ConcurrentSkipListSet<>(HIGHEST_SALARY_FIRST);
+
+    public static SalaryIndex of(Collection<MockEmployee> employees) {
+        SalaryIndex index = new SalaryIndex();
+        employees.forEach(index::add);
+        return index;
+    }
+
+    public void add(MockEmployee employee) {
+        if (isIndexable(employee)) {
+            employees.add(employee);
+        }
+    }
+
+    public void remove(MockEmployee employee) {
+        if (isIndexable(employee)) {
+            employees.remove(employee);
+        }
+    }
+
+    public OptionalInt highestSalary() {
+        Iterator<MockEmployee> iterator = employees.iterator();
+        return iterator.hasNext() ? OptionalInt.of(iterator.next().getSalary()) : OptionalInt.empty();
+    }
+
+    public List<MockEmployee> topEarners(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        List<MockEmployee> topEarners = new ArrayList<>(Math.min(limit, employees.size()));
+        Iterator<MockEmployee> iterator = employees.iterator();
+        while (topEarners.size() < limit && iterator.hasNext()) {
+            topEarners.add(iterator.next());
+        }
+        return topEarners;
+    }
+
+    private static boolean isIndexable(MockEmployee employee) {
+        return Objects.nonNull(employee) && Objects.nonNull(employee.getSalary()) && Objects.nonNull(employee.getId());
+    }
+}
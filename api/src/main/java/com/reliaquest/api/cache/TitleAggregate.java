@@ -0,0 +1,7 @@
+package com.reliaquest.api.cache;
+
+/**
+ * Salary statistics of the employees with one title, or without a title when {@code title} is {@code null}. The
+ * salary figures are {@code null} when none of the {@code count} employees has a salary.
+ */
+public record TitleAggregate(String title, long count, Integer minSalary, Integer maxSalary, Double averageSalary) {}
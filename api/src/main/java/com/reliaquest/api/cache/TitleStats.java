@@ -0,0 +1,44 @@
+package com.reliaquest.api.cache;
+
+/**
+ * Running count and salary statistics of one title, as gathered for a {@link TitleAggregate}.
+ */
+final class TitleStats {
+
+    private long count;
+    private long salaried;
+    private int minSalary = Integer.MAX_VALUE;
+    private int maxSalary = Integer.MIN_VALUE;
+    private long salarySum;
+
+    /**
+     * @param salary {@link EmployeeTable#NO_VALUE} for an employee without one
+     */
+    void add(int salary) {
+        count++;
+        if (salary != EmployeeTable.NO_VALUE) {
+            add(0, 1, salary, salary, salary);
+        }
+    }
+
+    void add(long count, long salaried, int minSalary, int maxSalary, long salarySum) {
+        this.count += count;
+        if (salaried > 0) {
+            this.salaried += salaried;
+            this.minSalary = Math.min(this.minSalary, minSalary);
+            this.maxSalary = Math.max(this.maxSalary, maxSalary);
+            this.salarySum += salarySum;
+        }
+    }
+
+    long count() {
+        return count;
+    }
+
+    TitleAggregate toAggregate(String title) {
+        if (salaried == 0) {
+            return new TitleAggregate(title, count, null, null, null);
+        }
+        return new TitleAggregate(title, count, minSalary, maxSalary, (double) salarySum / salaried);
+    }
+}
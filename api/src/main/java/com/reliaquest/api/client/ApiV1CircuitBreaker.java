@@ -0,0 +1,203 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Circuit breaker over every exchange with the v1 server. An exchange fails when it gets a 5xx or 429 response, or no
+ * response at all; a cancelled one, e.g. past its deadline or outrun by a hedge, counts neither way.
+ * <ul>
+ *     <li>{@link State#CLOSED}: exchanges go through, and once at least {@code minimumCalls} of the last
+ *     {@code slidingWindowSize} are in, a failure rate of {@code failureRateThreshold} opens the circuit;</li>
+ *     <li>{@link State#OPEN}: exchanges fail at once with {@link UpstreamUnavailableException} for
+ *     {@code openDuration}, or for the upstream's Retry-After when that is longer;</li>
+ *     <li>{@link State#HALF_OPEN}: up to {@code halfOpenTrials} exchanges go through as trials while the rest keep
+ *     failing fast. All trials succeeding closes the circuit, any one failing opens it again.</li>
+ * </ul>
+ * {@link #isCallPermitted()} lets callers fail before they queue for an upstream slot.
+ */
+@Slf4j
+public class ApiV1CircuitBreaker implements ExchangeFilterFunction {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final boolean enabled;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenTrials;
+
+    // guarded by this; ring of the last exchange outcomes while closed, true for a failure
+    private final boolean[] outcomes;
+    private int nextOutcome;
+    private int outcomeCount;
+    private int failureCount;
+    private State state = State.CLOSED;
+    // bumped on every transition, so outcomes of exchanges let through in an earlier state are ignored
+    private long epoch;
+    private long openUntilNanos;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public ApiV1CircuitBreaker(ApiV1Config.CircuitBreaker config) {
+        this.enabled = config.isEnabled();
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.minimumCalls = Math.max(1, config.getMinimumCalls());
+        this.openNanos = config.getOpenDuration().toNanos();
+        this.halfOpenTrials = Math.max(1, config.getHalfOpenTrials());
+        this.outcomes = new boolean[Math.max(this.minimumCalls, config.getSlidingWindowSize())];
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!enabled) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            if (permit == null) {
+                return Mono.error(rejection());
+            }
+            return next.exchange(request)
+                    .doOnNext(response -> completed(permit, isFailure(response), retryAfterNanos(response)))
+                    .doOnError(e -> completed(permit, true, -1))
+                    .doOnCancel(() -> cancelled(permit));
+        });
+    }
+
+    /**
+     * @return false while the circuit is open and not yet due for a trial, when an exchange would be rejected
+     */
+    public synchronized boolean isCallPermitted() {
+        return !enabled || state != State.OPEN || System.nanoTime() - openUntilNanos >= 0;
+    }
+
+    public UpstreamUnavailableException rejection() {
+        long remaining;
+        synchronized (this) {
+            remaining = openUntilNanos - System.nanoTime();
+        }
+        return new UpstreamUnavailableException(
+                "V1 employee API is failing, calls are rejected until it recovers",
+                remaining > 0 ? Duration.ofNanos(remaining) : null);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getOpened() {
+        return opened.sum();
+    }
+
+    private synchronized Permit acquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                rejected.increment();
+                return null;
+            }
+            transition(State.HALF_OPEN);
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+            log.info("Letting trial requests through to the V1 employee API");
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenTrials) {
+                rejected.increment();
+                return null;
+            }
+            trialsStarted++;
+        }
+        return new Permit(epoch);
+    }
+
+    private synchronized void completed(Permit permit, boolean failure, long retryAfterNanos) {
+        if (permit.epoch() != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failure) {
+                open(retryAfterNanos);
+            } else if (++trialsSucceeded >= halfOpenTrials) {
+                transition(State.CLOSED);
+                log.info("V1 employee API recovered, circuit closed");
+            }
+            return;
+        }
+        if (outcomeCount == outcomes.length && outcomes[nextOutcome]) {
+            failureCount--;
+        }
+        outcomes[nextOutcome] = failure;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        outcomeCount = Math.min(outcomeCount + 1, outcomes.length);
+        if (failure) {
+            failureCount++;
+        }
+        if (failureCount > 0 && outcomeCount >= minimumCalls && failureCount >= failureRateThreshold * outcomeCount) {
+            open(retryAfterNanos);
+        }
+    }
+
+    private synchronized void cancelled(Permit permit) {
+        if (permit.epoch() == epoch && state == State.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    private void open(long retryAfterNanos) {
+        long openFor = Math.max(openNanos, retryAfterNanos);
+        transition(State.OPEN);
+        openUntilNanos = System.nanoTime() + openFor;
+        opened.increment();
+        log.warn("V1 employee API is failing, rejecting calls to it for {} ms", TimeUnit.NANOSECONDS.toMillis(openFor));
+    }
+
+    private void transition(State target) {
+        state = target;
+        epoch++;
+        nextOutcome = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+    }
+
+    private static boolean isFailure(ClientResponse response) {
+        return response.statusCode().is5xxServerError()
+                || response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static long retryAfterNanos(ClientResponse response) {
+        if (!response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return -1;
+        }
+        String retryAfter = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return retryAfter == null ? -1 : TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Permit(long epoch) {}
+}
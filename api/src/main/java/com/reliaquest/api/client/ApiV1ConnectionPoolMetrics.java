@@ -0,0 +1,69 @@
+package com.reliaquest.api.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Receives the per-remote-address pools Reactor Netty creates for the v1 connection provider and sums their live
+ * gauges. {@link #bindTo(MeterRegistry)} exposes the sums as {@code api.v1.pool.*} gauges.
+ */
+public class ApiV1ConnectionPoolMetrics implements ConnectionProvider.MeterRegistrar, MeterBinder {
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(
+            String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(id, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    public int getActiveConnections() {
+        return sum(ConnectionPoolMetrics::acquiredSize);
+    }
+
+    public int getIdleConnections() {
+        return sum(ConnectionPoolMetrics::idleSize);
+    }
+
+    public int getPendingAcquires() {
+        return sum(ConnectionPoolMetrics::pendingAcquireSize);
+    }
+
+    public int getAllocatedConnections() {
+        return sum(ConnectionPoolMetrics::allocatedSize);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("api.v1.pool.connections", this, ApiV1ConnectionPoolMetrics::getActiveConnections)
+                .description("Connections to the v1 employee API by state")
+                .tag("state", "active")
+                .register(registry);
+        Gauge.builder("api.v1.pool.connections", this, ApiV1ConnectionPoolMetrics::getIdleConnections)
+                .description("Connections to the v1 employee API by state")
+                .tag("state", "idle")
+                .register(registry);
+        Gauge.builder("api.v1.pool.allocated", this, ApiV1ConnectionPoolMetrics::getAllocatedConnections)
+                .description("Connections to the v1 employee API, active or idle")
+                .register(registry);
+        Gauge.builder("api.v1.pool.pending.acquires", this, ApiV1ConnectionPoolMetrics::getPendingAcquires)
+                .description("Requests waiting for a connection to the v1 employee API")
+                .register(registry);
+    }
+
+    private int sum(ToIntFunction<ConnectionPoolMetrics> gauge) {
+        return pools.values().stream().mapToInt(gauge).sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.reliaquest.api.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records every exchange with the v1 API, tagged with the operation set in the {@link #OPERATION_ATTRIBUTE} request
+ * attribute:
+ * <ul>
+ *     <li>{@code api.v1.requests}: time until the response status and headers arrived, tagged with the {@code status}
+ *     code, or {@code IO_ERROR} when no response arrived;</li>
+ *     <li>{@code api.v1.response.size}: bytes of each response body read, after decompression.</li>
+ * </ul>
+ * Time spent waiting in the {@link UpstreamScheduler} is not included; the calls timed by the service are.
+ */
+public class ApiV1RequestMetrics implements ExchangeFilterFunction {
+
+    public static final String OPERATION_ATTRIBUTE = ApiV1RequestMetrics.class.getName() + ".operation";
+
+    private final MeterRegistry meterRegistry;
+
+    public ApiV1RequestMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String operation =
+                request.attribute(OPERATION_ATTRIBUTE).map(Object::toString).orElse("unknown");
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnError(
+                            e -> timer(operation, "IO_ERROR").record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .map(response -> {
+                        timer(operation, Integer.toString(response.statusCode().value()))
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        // exchangeToMono subscribes to the body again to release it, which must not count twice
+                        AtomicLong bytes = new AtomicLong();
+                        AtomicBoolean recorded = new AtomicBoolean();
+                        return response.mutate()
+                                .body(body -> body.doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doOnComplete(() -> {
+                                            if (recorded.compareAndSet(false, true)) {
+                                                responseSize(operation).record(bytes.get());
+                                            }
+                                        }))
+                                .build();
+                    });
+        });
+    }
+
+    private Timer timer(String operation, String status) {
+        return Timer.builder("api.v1.requests")
+                .description("Exchanges with the v1 employee API, until the response headers arrived")
+                .tag("operation", operation)
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary responseSize(String operation) {
+        return DistributionSummary.builder("api.v1.response.size")
+                .description("Response body bytes read from the v1 employee API")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
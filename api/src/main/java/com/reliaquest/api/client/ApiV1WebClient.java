@@ -1,11 +1,15 @@
 package com.reliaquest.api.client;
 
 import com.reliaquest.api.config.ApiV1Config;
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-@Configuration
+@Configuration("apiV1WebClientConfiguration")
 public class ApiV1WebClient {
 
     private final ApiV1Config apiV1Config;
@@ -14,8 +18,38 @@ public class ApiV1WebClient {
         this.apiV1Config = apiV1Config;
     }
 
+    @Bean
+    public ApiV1ConnectionPoolMetrics apiV1ConnectionPoolMetrics() {
+        return new ApiV1ConnectionPoolMetrics();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider apiV1ConnectionProvider(ApiV1ConnectionPoolMetrics apiV1ConnectionPoolMetrics) {
+        ApiV1Config.Pool pool = apiV1Config.getPool();
+        return ConnectionProvider.builder("apiV1")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true, () -> apiV1ConnectionPoolMetrics)
+                .build();
+    }
+
     @Bean("apiV1WebClient")
-    public WebClient getApiV1WebClient(){
-        return WebClient.create(apiV1Config.getEndpoint());
+    public WebClient getApiV1WebClient(ConnectionProvider apiV1ConnectionProvider) {
+        ApiV1Config.Transport transport = apiV1Config.getTransport();
+        HttpClient httpClient = HttpClient.create(apiV1ConnectionProvider)
+                .option(
+                        ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        Math.toIntExact(transport.getConnectTimeout().toMillis()))
+                .keepAlive(transport.isKeepAlive())
+                .responseTimeout(transport.getResponseTimeout())
+                .compress(transport.isCompress());
+        return WebClient.builder()
+                .baseUrl(apiV1Config.getEndpoint())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
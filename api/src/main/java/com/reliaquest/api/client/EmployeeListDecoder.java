@@ -0,0 +1,149 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+/**
+ * Decodes the v1 employee list as its body arrives. Each {@link DataBuffer} is fed to a non-blocking Jackson parser
+ * and released straight away; every complete array element is bound with a shared {@link ObjectReader}, so only the
+ * element being parsed is buffered rather than the whole payload.
+ * <p>
+ * Both a bare JSON array and the v1 {@code {"data": [...], "status": ...}} envelope are accepted.
+ */
+public class EmployeeListDecoder {
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final ObjectReader EMPLOYEE_READER = OBJECT_MAPPER.readerFor(MockEmployee.class);
+
+    private static final String DATA_FIELD = "data";
+
+    public Flux<MockEmployee> decode(Flux<DataBuffer> body) {
+        return decode(body, nanos -> {});
+    }
+
+    /**
+     * @param decodeNanos told the time spent parsing and binding each buffer, as opposed to waiting for it
+     */
+    public Flux<MockEmployee> decode(Flux<DataBuffer> body, LongConsumer decodeNanos) {
+        return Flux.defer(() -> {
+            Tokenizer tokenizer = new Tokenizer();
+            return body.concatMapIterable(buffer -> timed(() -> tokenizer.feed(buffer), decodeNanos))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(timed(tokenizer::endOfInput, decodeNanos))));
+        });
+    }
+
+    private static List<MockEmployee> timed(Supplier<List<MockEmployee>> step, LongConsumer decodeNanos) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            decodeNanos.accept(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Per-response parsing state; buffers are delivered one at a time so it needs no synchronization.
+     */
+    private static final class Tokenizer {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private byte[] chunk = new byte[0];
+
+        private int depth;
+        private int arrayDepth = -1;
+        private boolean arrayClosed;
+        private boolean dataFieldSeen;
+        private TokenBuffer element;
+
+        Tokenizer() {
+            try {
+                this.parser = OBJECT_MAPPER.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<MockEmployee> feed(DataBuffer buffer) {
+            try {
+                int length = buffer.readableByteCount();
+                if (chunk.length < length) {
+                    chunk = new byte[length];
+                }
+                buffer.read(chunk, 0, length);
+                // the parser copies any partial token before asking for more input, so chunk can be reused
+                feeder.feedInput(chunk, 0, length);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error occurred during response conversion to MockEmployee object", e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<MockEmployee> endOfInput() {
+            try {
+                feeder.endOfInput();
+                List<MockEmployee> employees = drain();
+                if (depth != 0) {
+                    throw new IOException("Employee list ended before the JSON document was complete");
+                }
+                return employees;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error occurred during response conversion to MockEmployee object", e);
+            }
+        }
+
+        private List<MockEmployee> drain() throws IOException {
+            List<MockEmployee> employees = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+
+                if (element != null) {
+                    if (depth == arrayDepth) {
+                        employees.add(EMPLOYEE_READER.readValue(element.asParser()));
+                        element = null;
+                    }
+                } else if (token == JsonToken.START_ARRAY && arrayDepth < 0 && (depth == 1 || dataFieldSeen)) {
+                    arrayDepth = depth;
+                } else if (token == JsonToken.END_ARRAY && depth == arrayDepth - 1) {
+                    arrayClosed = true;
+                } else if (token == JsonToken.START_OBJECT
+                        && arrayDepth > 0
+                        && !arrayClosed
+                        && depth == arrayDepth + 1) {
+                    element = new TokenBuffer(parser);
+                    element.copyCurrentEvent(parser);
+                }
+                dataFieldSeen = token == JsonToken.FIELD_NAME && depth == 1 && DATA_FIELD.equals(parser.currentName());
+            }
+            return employees;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control in front of the v1 server. Callers queue by {@link Priority}, then arrival order, and are let
+ * through while fewer than {@code maxConcurrentRequests} calls are in flight. A 429 pauses every dispatch for the
+ * upstream's Retry-After, or for an exponential backoff when it sends none, and puts the rejected call back at the
+ * head of its priority so it is retried first. Callers that cannot be dispatched within {@code maxWait} fail with
+ * {@link UpstreamRateLimitedException}.
+ * <p>
+ * Waiting for a slot does not hold a thread: admission is a future completed by whichever thread frees the slot or
+ * by the scheduler's timer once a backoff ends.
+ */
+@Slf4j
+public class UpstreamScheduler {
+
+    public enum Priority {
+        // creates and deletes, which users are actively waiting on
+        WRITE,
+        // by-id lookups
+        LOOKUP,
+        // full list refreshes, which can be served stale meanwhile
+        BULK
+    }
+
+    private final int maxConcurrentRequests;
+    private final int maxQueueSize;
+    private final long maxWaitNanos;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upstream-scheduler-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Ticket> queue =
+            new PriorityQueue<>(Comparator.comparing(Ticket::getPriority).thenComparingLong(Ticket::getSequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private int inFlight;
+    private long pausedUntilNanos;
+    private long currentBackoffNanos;
+    private ScheduledFuture<?> resume;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxObservedWaitNanos = new AtomicLong();
+
+    public UpstreamScheduler(ApiV1Config.Scheduler config) {
+        this.maxConcurrentRequests = config.getMaxConcurrentRequests();
+        this.maxQueueSize = config.getMaxQueueSize();
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.initialBackoffNanos = config.getInitialBackoff().toNanos();
+        this.maxBackoffNanos = config.getMaxBackoff().toNanos();
+        this.currentBackoffNanos = initialBackoffNanos;
+    }
+
+    /**
+     * @return a {@link Mono} that waits for a slot, subscribes to the call, and retries it after backoff while the
+     * upstream answers 429 and {@code maxWait} has not passed
+     */
+    public <T> Mono<T> schedule(Priority priority, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> attempt(new Ticket(priority, sequence.getAndIncrement(), System.nanoTime()), call));
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            long pausedFor = Math.max(0, pausedUntilNanos - System.nanoTime());
+            return new Stats(
+                    queue.size(),
+                    inFlight,
+                    Duration.ofNanos(pausedFor),
+                    dispatched.sum(),
+                    rejected.sum(),
+                    rateLimited.sum(),
+                    Duration.ofNanos(totalWaitNanos.sum()),
+                    Duration.ofNanos(maxObservedWaitNanos.get()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> Mono<T> attempt(Ticket ticket, Supplier<Mono<T>> call) {
+        return Mono.fromFuture(() -> acquire(ticket))
+                .then(Mono.defer(call).doOnSuccess(ignored -> onSuccess()).doFinally(ignored -> release()))
+                .onErrorResume(UpstreamRateLimitedException.class, e -> {
+                    if (ticket.isRejected()) {
+                        return Mono.error(e);
+                    }
+                    onRateLimited(e.getRetryAfter().map(Duration::toNanos).orElse(-1L));
+                    if (System.nanoTime() - ticket.getEnqueuedAtNanos() >= maxWaitNanos) {
+                        return Mono.error(e);
+                    }
+                    log.debug("Upstream rate limited {} request, retrying after backoff", ticket.getPriority());
+                    return attempt(ticket, call);
+                });
+    }
+
+    private CompletableFuture<Void> acquire(Ticket ticket) {
+        List<Ticket> admitted;
+        lock.lock();
+        try {
+            ticket.admission = new CompletableFuture<>();
+            if (queue.size() >= maxQueueSize) {
+                reject(ticket, "Too many requests waiting for the v1 employee API");
+                return ticket.admission;
+            }
+            long remaining = ticket.getEnqueuedAtNanos() + maxWaitNanos - System.nanoTime();
+            queue.add(ticket);
+            ticket.timeout = timer.schedule(() -> expire(ticket), Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            admitted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        admit(admitted);
+        return ticket.admission;
+    }
+
+    private void expire(Ticket ticket) {
+        lock.lock();
+        try {
+            if (queue.remove(ticket)) {
+                long pausedFor = pausedUntilNanos - System.nanoTime();
+                reject(
+                        ticket,
+                        "Timed out waiting for the v1 employee API",
+                        pausedFor > 0 ? Duration.ofNanos(pausedFor) : null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        List<Ticket> admitted;
+        lock.lock();
+        try {
+            inFlight--;
+            admitted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        admit(admitted);
+    }
+
+    /**
+     * Removes every ticket that may run now from the queue; must be called with the lock held.
+     */
+    private List<Ticket> dispatch() {
+        List<Ticket> admitted = new ArrayList<>();
+        long now = System.nanoTime();
+        if (now < pausedUntilNanos) {
+            if (resume == null || resume.isDone()) {
+                resume = timer.schedule(this::resume, pausedUntilNanos - now, TimeUnit.NANOSECONDS);
+            }
+            return admitted;
+        }
+        while (inFlight < maxConcurrentRequests && !queue.isEmpty()) {
+            Ticket ticket = queue.poll();
+            ticket.timeout.cancel(false);
+            inFlight++;
+            admitted.add(ticket);
+        }
+        return admitted;
+    }
+
+    private void resume() {
+        List<Ticket> admitted;
+        lock.lock();
+        try {
+            admitted = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        admit(admitted);
+    }
+
+    // completes admissions outside the lock, so callers' continuations never run while it is held
+    private void admit(List<Ticket> admitted) {
+        for (Ticket ticket : admitted) {
+            long waited = System.nanoTime() - ticket.getEnqueuedAtNanos();
+            // recorded before completing, which runs the caller's call and may hand its result back before returning
+            dispatched.increment();
+            totalWaitNanos.add(waited);
+            maxObservedWaitNanos.accumulateAndGet(waited, Math::max);
+            if (!ticket.admission.complete(null)) {
+                // the caller gave up while queued; hand its slot to the next ticket
+                dispatched.decrement();
+                totalWaitNanos.add(-waited);
+                release();
+            }
+        }
+    }
+
+    private void reject(Ticket ticket, String message) {
+        reject(ticket, message, null);
+    }
+
+    private void reject(Ticket ticket, String message, Duration retryAfter) {
+        rejected.increment();
+        ticket.rejected = true;
+        ticket.admission.completeExceptionally(new UpstreamRateLimitedException(message, retryAfter));
+    }
+
+    private void onSuccess() {
+        lock.lock();
+        try {
+            currentBackoffNanos = initialBackoffNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onRateLimited(long retryAfterNanos) {
+        rateLimited.increment();
+        lock.lock();
+        try {
+            long backoff = retryAfterNanos > 0 ? retryAfterNanos : currentBackoffNanos;
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + backoff);
+            currentBackoffNanos = Math.min(maxBackoffNanos, currentBackoffNanos * 2);
+            log.warn(
+                    "V1 employee API is rate limiting, pausing upstream calls for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(backoff));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Ticket {
+
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedAtNanos;
+        // guarded by the scheduler lock; replaced on every retry of the same call
+        private CompletableFuture<Void> admission;
+        private ScheduledFuture<?> timeout;
+        private volatile boolean rejected;
+
+        private Ticket(Priority priority, long sequence, long enqueuedAtNanos) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+
+        Priority getPriority() {
+            return priority;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        long getEnqueuedAtNanos() {
+            return enqueuedAtNanos;
+        }
+
+        boolean isRejected() {
+            return rejected;
+        }
+    }
+
+    public record Stats(
+            int queueDepth,
+            int inFlight,
+            Duration pausedFor,
+            long dispatched,
+            long rejected,
+            long rateLimited,
+            Duration totalWait,
+            Duration maxWait) {}
+}
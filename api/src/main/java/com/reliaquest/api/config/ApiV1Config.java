@@ -1,6 +1,6 @@
 package com.reliaquest.api.config;
 
-
+import java.time.Duration;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -10,4 +10,128 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties("webclient.api.v1")
 public class ApiV1Config {
     private String endpoint = "http://localhost:8112/api/v1/employee";
+    // employees requested per page when listing, which bounds the size of each v1 response; 0 fetches the whole list
+    // in one request. 10000 is the most the v1 server returns per page, so a list that size still takes one request.
+    private int pageSize = 10_000;
+    private Cache cache = new Cache();
+    private Search search = new Search();
+    private Scheduler scheduler = new Scheduler();
+    private Pool pool = new Pool();
+    private Transport transport = new Transport();
+    private Changes changes = new Changes();
+    private Batching batching = new Batching();
+    private Deadlines deadlines = new Deadlines();
+    private Hedging hedging = new Hedging();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    @Data
+    public static class Cache {
+        // how long a fetched employee list is served without triggering a refresh
+        private Duration ttl = Duration.ofSeconds(30);
+        // how long past its ttl a snapshot is still served while refreshes keep failing
+        private Duration maxStale = Duration.ofMinutes(10);
+        // past maxStale, serve the last snapshot marked stale when a refresh fails, rather than failing the request
+        private boolean lastKnownGood = true;
+    }
+
+    @Data
+    public static class Search {
+        // whether /search/{searchString} on the v2 API matches names ignoring case
+        private boolean ignoreCase = false;
+    }
+
+    @Data
+    public static class Scheduler {
+        // upstream requests allowed in flight at once
+        private int maxConcurrentRequests = 4;
+        // requests allowed to wait for a slot before new ones are rejected
+        private int maxQueueSize = 1000;
+        // longest a request waits for a slot, including 429 backoff, before it is failed
+        private Duration maxWait = Duration.ofSeconds(10);
+        // backoff after a 429 without Retry-After, doubled on each consecutive 429
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(90);
+    }
+
+    @Data
+    public static class Pool {
+        private int maxConnections = 16;
+        // acquires allowed to wait for a connection before new ones fail fast
+        private int pendingAcquireMaxCount = 256;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        // how often idle and expired connections are closed in the background
+        private Duration evictionInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Transport {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration responseTimeout = Duration.ofSeconds(10);
+        private boolean keepAlive = true;
+        // request gzip responses; the v1 server compresses its list when asked
+        private boolean compress = true;
+    }
+
+    @Data
+    public static class Changes {
+        // follow the v1 change feed to keep the cached snapshot current instead of relisting after each ttl
+        private boolean enabled = false;
+        // how long one long-poll waits on the v1 server for a change
+        private Duration pollWait = Duration.ofSeconds(25);
+        // changes requested per poll
+        private int batchSize = 1000;
+        // pause after a failed poll
+        private Duration retryBackoff = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Batching {
+        // send concurrent creates and deletes to the v1 bulk endpoints; needs a v1 server that has them
+        private boolean enabled = true;
+        // how long the first write of a batch waits for others to join it
+        private Duration window = Duration.ofMillis(5);
+        // writes per bulk request; the v1 server takes at most 1000
+        private int maxBatchSize = 100;
+    }
+
+    @Data
+    public static class Deadlines {
+        // longest each upstream call may take, including its wait for a scheduler slot and any 429 retries
+        private Duration listEmployees = Duration.ofSeconds(30);
+        private Duration getEmployeeById = Duration.ofSeconds(5);
+        // creates and deletes, single or bulk
+        private Duration write = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Hedging {
+        // send a second by-id GET when the first has not answered within the hedge delay, and take the first answer
+        private boolean enabled = false;
+        // the hedge delay is this percentile of recent by-id latencies, kept between minDelay and maxDelay
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        // also the delay until enough latencies have been observed
+        private Duration maxDelay = Duration.ofSeconds(1);
+        // recent latencies the percentile is taken over
+        private int window = 1000;
+        // hedges allowed per by-id call, so a slow upstream never sees much more than its usual load
+        private double maxHedgeRatio = 0.1;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        // fail upstream calls fast while the v1 server keeps failing or rate limiting, rather than queueing them
+        private boolean enabled = true;
+        // share of failed exchanges (5xx, 429 or no response) among the last slidingWindowSize that opens the circuit
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        // exchanges seen before the failure rate is trusted
+        private int minimumCalls = 10;
+        // how long the circuit stays open before trial requests are let through; a longer Retry-After extends it
+        private Duration openDuration = Duration.ofSeconds(30);
+        // trial requests that must all succeed to close the circuit again
+        private int halfOpenTrials = 3;
+    }
 }
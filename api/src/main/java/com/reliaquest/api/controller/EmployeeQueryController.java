@@ -0,0 +1,118 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.cache.EmployeeQuery;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.TitleAggregate;
+import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.api.timing.RequestTimings;
+import com.reliaquest.api.timing.RequestTimings.Stage;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.function.BiFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Queries over the employee snapshot, served next to {@link IEmployeeControllerImpl} or
+ * {@link ReactiveEmployeeController}:
+ * <ul>
+ *     <li>{@code GET /api/v2/employee/query} lists the employees within {@code minSalary}..{@code maxSalary} and
+ *     {@code minAge}..{@code maxAge}, bounds inclusive, and with exactly {@code title}, sorted by {@code sort}
+ *     ({@code salary} or {@code age}) in {@code order} ({@code asc} or {@code desc}) and cut at {@code limit};</li>
+ *     <li>{@code GET /api/v2/employee/query/aggregate} takes the same filters and returns the count and the minimum,
+ *     maximum and average salary of the matching employees by title.</li>
+ * </ul>
+ * Every parameter is optional. Both are answered from the snapshot's sorted indexes, see {@link EmployeeQuery}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v2/employee/query")
+public class EmployeeQueryController {
+
+    private final ApiV1Service apiV1Service;
+
+    private final EndpointMetrics endpointMetrics;
+
+    public EmployeeQueryController(ApiV1Service apiV1Service, EndpointMetrics endpointMetrics) {
+        this.apiV1Service = apiV1Service;
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    @GetMapping()
+    public ResponseEntity<List<MockEmployee>> queryEmployees(
+            @RequestParam(name = "minSalary", required = false) Integer minSalary,
+            @RequestParam(name = "maxSalary", required = false) Integer maxSalary,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
+            @RequestParam(name = "title", required = false) String title,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "order", required = false) String order,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        return endpointMetrics.time(
+                "queryEmployees",
+                () -> fromSnapshot(
+                        query(minSalary, maxSalary, minAge, maxAge, title, sort, order, limit),
+                        EmployeeSnapshot::query));
+    }
+
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<TitleAggregate>> aggregateEmployeesByTitle(
+            @RequestParam(name = "minSalary", required = false) Integer minSalary,
+            @RequestParam(name = "maxSalary", required = false) Integer maxSalary,
+            @RequestParam(name = "minAge", required = false) Integer minAge,
+            @RequestParam(name = "maxAge", required = false) Integer maxAge,
+            @RequestParam(name = "title", required = false) String title) {
+        return endpointMetrics.time(
+                "aggregateEmployeesByTitle",
+                () -> fromSnapshot(
+                        query(minSalary, maxSalary, minAge, maxAge, title, null, null, null),
+                        EmployeeSnapshot::aggregateByTitle));
+    }
+
+    private static EmployeeQuery query(
+            Integer minSalary,
+            Integer maxSalary,
+            Integer minAge,
+            Integer maxAge,
+            String title,
+            String sort,
+            String order,
+            Integer limit) {
+        boolean descending;
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            descending = false;
+        } else if (order.equalsIgnoreCase("desc")) {
+            descending = true;
+        } else {
+            throw new IllegalArgumentException("order must be one of asc or desc");
+        }
+        return new EmployeeQuery(
+                minSalary,
+                maxSalary,
+                minAge,
+                maxAge,
+                title,
+                sort == null ? null : EmployeeQuery.SortField.parse(sort),
+                descending,
+                limit);
+    }
+
+    private <T> ResponseEntity<List<T>> fromSnapshot(
+            EmployeeQuery query, BiFunction<EmployeeSnapshot, EmployeeQuery, List<T>> run) {
+        try {
+            EmployeeSnapshot snapshot = apiV1Service.getEmployeeSnapshot();
+            return SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                    .body(RequestTimings.current().time(Stage.AGGREGATE, () -> run.apply(snapshot, query)));
+        } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Exception occurred while querying employees with {}", query, e);
+            throw new EmployeeNotFoundException("Employees not found", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times v2 endpoints in {@code api.v2.requests}, tagged with the {@code endpoint}, an {@code outcome} of
+ * {@code success}, {@code not_found}, {@code bad_request}, {@code rate_limited}, {@code timeout}, {@code unavailable}
+ * or {@code error}, and the {@code exception} behind a failure. The controllers translate upstream failures into
+ * {@link EmployeeNotFoundException} or {@link IllegalArgumentException} with the original as cause, so the cause is
+ * what gets tagged.
+ */
+@Component
+public class EndpointMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public EndpointMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String endpoint, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            stop(sample, endpoint, null);
+            return result;
+        } catch (RuntimeException e) {
+            stop(sample, endpoint, e);
+            throw e;
+        }
+    }
+
+    public <T> Mono<T> time(String endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnSuccess(ignored -> stop(sample, endpoint, null)).doOnError(e -> stop(sample, endpoint, e));
+        });
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, Throwable error) {
+        Throwable cause = error != null && error.getCause() != null ? error.getCause() : error;
+        sample.stop(Timer.builder("api.v2.requests")
+                .description("Requests to the v2 employee API")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome(error))
+                .tag("exception", cause == null ? "none" : cause.getClass().getSimpleName())
+                .register(meterRegistry));
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        } else if (error instanceof UpstreamRateLimitedException) {
+            return "rate_limited";
+        } else if (error instanceof UpstreamTimeoutException) {
+            return "timeout";
+        } else if (error instanceof UpstreamUnavailableException) {
+            return "unavailable";
+        } else if (error instanceof EmployeeNotFoundException) {
+            return "not_found";
+        } else if (error instanceof IllegalArgumentException && error.getCause() == null) {
+            return "bad_request";
+        }
+        return "error";
+    }
+}
@@ -1,6 +1,10 @@
 package com.reliaquest.api.controller;
 
 import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,12 +14,35 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 public class IEmployeeControllerAdvice {
 
     @ExceptionHandler(value = {EmployeeNotFoundException.class})
-    public ResponseEntity<Object> handleExceptionCausingEmployeeNotFound(RuntimeException e){
+    public ResponseEntity<Object> handleExceptionCausingEmployeeNotFound(RuntimeException e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NO_CONTENT);
     }
 
+    @ExceptionHandler(value = {UpstreamRateLimitedException.class})
+    public ResponseEntity<Object> handleExceptionCausingUpstreamRateLimit(UpstreamRateLimitedException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        e.getRetryAfter()
+                .ifPresent(retryAfter ->
+                        response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds()))));
+        return response.body(e.getMessage());
+    }
+
+    @ExceptionHandler(value = {UpstreamUnavailableException.class})
+    public ResponseEntity<Object> handleExceptionCausingUpstreamUnavailable(UpstreamUnavailableException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE);
+        e.getRetryAfter()
+                .ifPresent(retryAfter ->
+                        response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds()))));
+        return response.body(e.getMessage());
+    }
+
+    @ExceptionHandler(value = {UpstreamTimeoutException.class})
+    public ResponseEntity<Object> handleExceptionCausingUpstreamTimeout(UpstreamTimeoutException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     @ExceptionHandler(value = {IllegalArgumentException.class})
-    public ResponseEntity<Object> handleExceptionCausingIllegalArgument(RuntimeException e){
+    public ResponseEntity<Object> handleExceptionCausingIllegalArgument(RuntimeException e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 }
@@ -1,118 +1,179 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.cache.EmployeeSnapshot;
 import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
 import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.api.timing.RequestTimings;
+import com.reliaquest.api.timing.RequestTimings.Stage;
+import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.model.CreateMockEmployeeInput;
-import com.reliaquest.server.model.Response;
 import jakarta.validation.Valid;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
-
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v2/employee")
-public class IEmployeeControllerImpl implements IEmployeeController<MockEmployee, CreateMockEmployeeInput>{
+@ConditionalOnProperty(name = "api.v2.reactive.enabled", havingValue = "false", matchIfMissing = true)
+public class IEmployeeControllerImpl implements IEmployeeController<MockEmployee, CreateMockEmployeeInput> {
 
     private final ApiV1Service apiV1Service;
 
-    public IEmployeeControllerImpl(ApiV1Service apiV1Service) {
+    private final EndpointMetrics endpointMetrics;
+
+    public IEmployeeControllerImpl(ApiV1Service apiV1Service, EndpointMetrics endpointMetrics) {
         this.apiV1Service = apiV1Service;
+        this.endpointMetrics = endpointMetrics;
     }
 
     @Override
     public ResponseEntity<List<MockEmployee>> getAllEmployees() {
-        try{
-            List<MockEmployee> employeeList = apiV1Service.getAllEmployeeList();
-            return ResponseEntity.ok(employeeList);
-        } catch (RuntimeException e){
-            log.error("Exception occurred while fetching employee list", e);
-            throw new EmployeeNotFoundException("Employees not found");
-        }
+        return endpointMetrics.time("getAllEmployees", () -> {
+            try {
+                EmployeeSnapshot snapshot = apiV1Service.getEmployeeSnapshot();
+                return SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                        .body(snapshot.employees());
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while fetching employee list", e);
+                throw new EmployeeNotFoundException("Employees not found", e);
+            }
+        });
     }
 
     @Override
-    public ResponseEntity<List<MockEmployee>> getEmployeesByNameSearch(@PathVariable("searchString") String searchString) {
-        try{
-            List<MockEmployee> employeeList = apiV1Service.getAllEmployeeList();
-            List<MockEmployee> filteredEmployeeList = employeeList.stream()
-                    .filter(mockEmployee -> mockEmployee.getName().contains(searchString)).collect(Collectors.toList());
-            return ResponseEntity.ok(filteredEmployeeList);
-        } catch (RuntimeException e){
-            log.error("Exception occurred while fetching employees with searchString:{}", searchString, e);
-            throw new EmployeeNotFoundException("Any employee does not match the provided criteria");
-        }
+    public ResponseEntity<List<MockEmployee>> getEmployeesByNameSearch(
+            @PathVariable("searchString") String searchString) {
+        return endpointMetrics.time("getEmployeesByNameSearch", () -> {
+            try {
+                EmployeeSnapshot snapshot = apiV1Service.getEmployeeSnapshot();
+                return SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                        .body(RequestTimings.current()
+                                .time(
+                                        Stage.AGGREGATE,
+                                        () -> snapshot.searchByName(searchString, apiV1Service.isSearchIgnoreCase())));
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while fetching employees with searchString:{}", searchString, e);
+                throw new EmployeeNotFoundException("Any employee does not match the provided criteria", e);
+            }
+        });
     }
 
     @Override
     public ResponseEntity<MockEmployee> getEmployeeById(@PathVariable("id") String id) {
-        try{
-           return ResponseEntity.ok(apiV1Service.getEmployeeById(UUID.fromString(id)));
-        } catch (RuntimeException e){
-            log.error("Exception occurred while fetching employee with id:{}", id, e);
-            throw new EmployeeNotFoundException(String.format("Employee not found for id %s", id));
-        }
+        return endpointMetrics.time("getEmployeeById", () -> {
+            try {
+                return ResponseEntity.ok(apiV1Service.getEmployeeById(UUID.fromString(id)));
+            } catch (UpstreamUnavailableException e) {
+                return fromLastKnownSnapshot(UUID.fromString(id), e);
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while fetching employee with id:{}", id, e);
+                throw new EmployeeNotFoundException(String.format("Employee not found for id %s", id), e);
+            }
+        });
+    }
+
+    /**
+     * While the v1 API is unavailable, an employee in the last snapshot is served from it.
+     */
+    private ResponseEntity<MockEmployee> fromLastKnownSnapshot(UUID id, UpstreamUnavailableException e) {
+        EmployeeSnapshot snapshot = apiV1Service.getLastKnownSnapshot().orElseThrow(() -> e);
+        ResponseEntity.BodyBuilder response = SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot));
+        return response.body(snapshot.findById(id).orElseThrow(() -> e));
     }
 
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        try{
-            List<MockEmployee> employeeList = apiV1Service.getAllEmployeeList();
-            return employeeList.stream()
-                    .max(Comparator.comparingInt(MockEmployee::getSalary))
-                    .map(employee -> ResponseEntity.ok(employee.getSalary()))
-                   .orElseThrow(RuntimeException::new);
-        } catch (RuntimeException e){
-            log.error("Exception occurred while fetching employee with highest salary", e);
-            throw new EmployeeNotFoundException("Employees not found");
-        }
+        return endpointMetrics.time("getHighestSalaryOfEmployees", () -> {
+            try {
+                EmployeeSnapshot snapshot = apiV1Service.getSalarySnapshot();
+                return SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                        .body(RequestTimings.current()
+                                .time(Stage.AGGREGATE, snapshot::highestSalary)
+                                .orElseThrow(RuntimeException::new));
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while fetching employee with highest salary", e);
+                throw new EmployeeNotFoundException("Employees not found", e);
+            }
+        });
     }
 
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        try{
-            List<MockEmployee> employeeList = apiV1Service.getAllEmployeeList();
-            List<String> filteredEmployeeNames = employeeList.stream()
-                    .sorted(Comparator.comparingInt(MockEmployee::getSalary).reversed())
-                    .limit(10)
-                    .map(MockEmployee::getName)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(filteredEmployeeNames);
-        } catch (RuntimeException e){
-            log.error("Exception occurred while fetching top 10 highest salary", e);
-            throw new EmployeeNotFoundException("Employees not found");
-        }
+        return endpointMetrics.time("getTopTenHighestEarningEmployeeNames", () -> topHighestEarningEmployeeNames(10));
+    }
 
+    @GetMapping("/topHighestEarningEmployeeNames")
+    public ResponseEntity<List<String>> getTopHighestEarningEmployeeNames(@RequestParam("limit") int limit) {
+        return endpointMetrics.time("getTopHighestEarningEmployeeNames", () -> topHighestEarningEmployeeNames(limit));
+    }
+
+    private ResponseEntity<List<String>> topHighestEarningEmployeeNames(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+        try {
+            EmployeeSnapshot snapshot = apiV1Service.getSalarySnapshot();
+            ResponseEntity.BodyBuilder response = SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot));
+            List<String> filteredEmployeeNames =
+                    RequestTimings.current().time(Stage.AGGREGATE, () -> snapshot.topEarners(limit)).stream()
+                            .map(MockEmployee::getName)
+                            .collect(Collectors.toList());
+            return response.body(filteredEmployeeNames);
+        } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Exception occurred while fetching top {} highest salary", limit, e);
+            throw new EmployeeNotFoundException("Employees not found", e);
+        }
     }
 
     @Override
     public ResponseEntity<MockEmployee> createEmployee(@Valid @RequestBody CreateMockEmployeeInput employee) {
-        try{
-            return ResponseEntity.ok(apiV1Service.createEmployee(employee));
-        } catch(RuntimeException e){
-            log.error("Exception occurred while creating employee with name:{}", employee.getName(), e);
-            throw new IllegalArgumentException("Request was unsuccessful, please try again");
-        }
+        return endpointMetrics.time("createEmployee", () -> {
+            try {
+                return ResponseEntity.ok(apiV1Service.createEmployee(employee));
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while creating employee with name:{}", employee.getName(), e);
+                throw new IllegalArgumentException("Request was unsuccessful, please try again", e);
+            }
+        });
     }
 
     @Override
     public ResponseEntity<String> deleteEmployeeById(@PathVariable String id) {
-        try{
-            MockEmployee employee = apiV1Service.getEmployeeById(UUID.fromString(id));
-            DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
-            deleteMockEmployeeInput.setName(employee.getName());
-            apiV1Service.deleteEmployee(deleteMockEmployeeInput);
-            return ResponseEntity.ok(employee.getName());
-        } catch(RuntimeException e){
-            log.error("Exception occurred while deleting employee with id:{}", id, e);
-            throw new EmployeeNotFoundException(String.format("Employee not found for id %s, it might be already deleted", id));
-        }
+        return endpointMetrics.time("deleteEmployeeById", () -> {
+            try {
+                MockEmployee employee = apiV1Service.getEmployeeById(UUID.fromString(id));
+                DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
+                deleteMockEmployeeInput.setName(employee.getName());
+                apiV1Service.deleteEmployee(deleteMockEmployeeInput);
+                return ResponseEntity.ok(employee.getName());
+            } catch (UpstreamRateLimitedException | UpstreamTimeoutException | UpstreamUnavailableException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Exception occurred while deleting employee with id:{}", id, e);
+                throw new EmployeeNotFoundException(
+                        String.format("Employee not found for id %s, it might be already deleted", id), e);
+            }
+        });
     }
 }
@@ -0,0 +1,203 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.api.timing.RequestTimings;
+import com.reliaquest.api.timing.RequestTimings.Stage;
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link IEmployeeControllerImpl}, enabled with {@code api.v2.reactive.enabled=true}.
+ * It serves the same URLs, bodies and error responses, but returns {@link Mono}s so Spring MVC releases the servlet
+ * thread while the upstream call or snapshot refresh is in progress and completes the response asynchronously.
+ * Snapshot-backed responses carry the snapshot's entity tag, so Spring MVC answers a matching {@code If-None-Match}
+ * with 304 Not Modified, and are marked stale as described in {@link SnapshotResponses}.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v2/employee")
+@ConditionalOnProperty(name = "api.v2.reactive.enabled", havingValue = "true")
+public class ReactiveEmployeeController {
+
+    private final ApiV1Service apiV1Service;
+
+    private final EndpointMetrics endpointMetrics;
+
+    public ReactiveEmployeeController(ApiV1Service apiV1Service, EndpointMetrics endpointMetrics) {
+        this.apiV1Service = apiV1Service;
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    @GetMapping()
+    public Mono<ResponseEntity<List<MockEmployee>>> getAllEmployees() {
+        return respond(
+                "getAllEmployees",
+                apiV1Service
+                        .getEmployeeSnapshotAsync()
+                        .map(snapshot -> SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                                .body(snapshot.employees()))
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error("Exception occurred while fetching employee list", e);
+                            return new EmployeeNotFoundException("Employees not found", e);
+                        }));
+    }
+
+    @GetMapping("/search/{searchString}")
+    public Mono<ResponseEntity<List<MockEmployee>>> getEmployeesByNameSearch(
+            @PathVariable("searchString") String searchString) {
+        RequestTimings timings = RequestTimings.current();
+        return respond(
+                "getEmployeesByNameSearch",
+                apiV1Service
+                        .getEmployeeSnapshotAsync()
+                        .map(snapshot -> SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                                .body(timings.time(
+                                        Stage.AGGREGATE,
+                                        () -> snapshot.searchByName(searchString, apiV1Service.isSearchIgnoreCase()))))
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error(
+                                    "Exception occurred while fetching employees with searchString:{}",
+                                    searchString,
+                                    e);
+                            return new EmployeeNotFoundException(
+                                    "Any employee does not match the provided criteria", e);
+                        }));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<MockEmployee>> getEmployeeById(@PathVariable("id") String id) {
+        return respond(
+                "getEmployeeById",
+                Mono.fromCallable(() -> UUID.fromString(id))
+                        .flatMap(uuid -> apiV1Service
+                                .getEmployeeByIdAsync(uuid)
+                                .map(ResponseEntity::ok)
+                                .onErrorResume(UpstreamUnavailableException.class, e -> fromLastKnownSnapshot(uuid, e)))
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error("Exception occurred while fetching employee with id:{}", id, e);
+                            return new EmployeeNotFoundException(String.format("Employee not found for id %s", id), e);
+                        }));
+    }
+
+    @GetMapping("/highestSalary")
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        RequestTimings timings = RequestTimings.current();
+        return respond(
+                "getHighestSalaryOfEmployees",
+                apiV1Service
+                        .getSalarySnapshotAsync()
+                        .map(snapshot -> SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                                .body(timings.time(Stage.AGGREGATE, snapshot::highestSalary)
+                                        .orElseThrow(RuntimeException::new)))
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error("Exception occurred while fetching employee with highest salary", e);
+                            return new EmployeeNotFoundException("Employees not found", e);
+                        }));
+    }
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        return respond("getTopTenHighestEarningEmployeeNames", topHighestEarningEmployeeNames(10));
+    }
+
+    @GetMapping("/topHighestEarningEmployeeNames")
+    public Mono<ResponseEntity<List<String>>> getTopHighestEarningEmployeeNames(@RequestParam("limit") int limit) {
+        return respond("getTopHighestEarningEmployeeNames", topHighestEarningEmployeeNames(limit));
+    }
+
+    private Mono<ResponseEntity<List<String>>> topHighestEarningEmployeeNames(int limit) {
+        if (limit <= 0) {
+            return Mono.error(new IllegalArgumentException("limit must be greater than zero"));
+        }
+        RequestTimings timings = RequestTimings.current();
+        return apiV1Service
+                .getSalarySnapshotAsync()
+                .map(snapshot -> SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot))
+                        .body(timings.time(Stage.AGGREGATE, () -> snapshot.topEarners(limit)).stream()
+                                .map(MockEmployee::getName)
+                                .collect(Collectors.toList())))
+                .onErrorMap(notPassedThrough(), e -> {
+                    log.error("Exception occurred while fetching top {} highest salary", limit, e);
+                    return new EmployeeNotFoundException("Employees not found", e);
+                });
+    }
+
+    @PostMapping()
+    public Mono<ResponseEntity<MockEmployee>> createEmployee(@Valid @RequestBody CreateMockEmployeeInput employee) {
+        return respond(
+                "createEmployee",
+                apiV1Service
+                        .createEmployeeAsync(employee)
+                        .map(ResponseEntity::ok)
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error("Exception occurred while creating employee with name:{}", employee.getName(), e);
+                            return new IllegalArgumentException("Request was unsuccessful, please try again", e);
+                        }));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        return respond(
+                "deleteEmployeeById",
+                Mono.fromCallable(() -> UUID.fromString(id))
+                        .flatMap(apiV1Service::getEmployeeByIdAsync)
+                        .flatMap(employee -> {
+                            DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
+                            deleteMockEmployeeInput.setName(employee.getName());
+                            return apiV1Service
+                                    .deleteEmployeeAsync(deleteMockEmployeeInput)
+                                    .thenReturn(ResponseEntity.ok(employee.getName()));
+                        })
+                        .onErrorMap(notPassedThrough(), e -> {
+                            log.error("Exception occurred while deleting employee with id:{}", id, e);
+                            return new EmployeeNotFoundException(
+                                    String.format("Employee not found for id %s, it might be already deleted", id), e);
+                        }));
+    }
+
+    /**
+     * While the v1 API is unavailable, an employee in the last snapshot is served from it.
+     */
+    private Mono<ResponseEntity<MockEmployee>> fromLastKnownSnapshot(UUID id, UpstreamUnavailableException e) {
+        return Mono.fromCallable(() -> {
+            EmployeeSnapshot snapshot = apiV1Service.getLastKnownSnapshot().orElseThrow(() -> e);
+            ResponseEntity.BodyBuilder response = SnapshotResponses.ok(snapshot, apiV1Service.getStaleness(snapshot));
+            return response.body(snapshot.findById(id).orElseThrow(() -> e));
+        });
+    }
+
+    /**
+     * Times the endpoint, and marks when its result is ready so the wait for the async dispatch that writes it is
+     * timed too.
+     */
+    private <T> Mono<T> respond(String endpoint, Mono<T> call) {
+        RequestTimings timings = RequestTimings.current();
+        return endpointMetrics
+                .time(endpoint, call)
+                .doOnSuccess(ignored -> timings.resultReady())
+                .doOnError(ignored -> timings.resultReady());
+    }
+
+    // rate limiting, missed deadlines and an open circuit surface as such rather than as a missing employee
+    private static Predicate<Throwable> notPassedThrough() {
+        return e -> !(e instanceof UpstreamRateLimitedException
+                || e instanceof UpstreamTimeoutException
+                || e instanceof UpstreamUnavailableException);
+    }
+}
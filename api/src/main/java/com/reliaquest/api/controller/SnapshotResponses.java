@@ -0,0 +1,26 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Responses served from an {@link EmployeeSnapshot} carry its entity tag. Once the snapshot is past its ttl, e.g.
+ * while the v1 API is failing and the last known good snapshot is served, they also carry its {@code Age} in seconds
+ * and {@code X-Snapshot-Stale: true}. The {@code Warning} header is not used for that, as RFC 9111 obsoleted it.
+ */
+final class SnapshotResponses {
+
+    static final String STALE_HEADER = "X-Snapshot-Stale";
+
+    private SnapshotResponses() {}
+
+    static ResponseEntity.BodyBuilder ok(EmployeeSnapshot snapshot, Optional<Duration> staleness) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(snapshot.getETag());
+        staleness.ifPresent(age -> response.header(HttpHeaders.AGE, String.valueOf(age.toSeconds()))
+                .header(STALE_HEADER, "true"));
+        return response;
+    }
+}
@@ -1,8 +1,12 @@
 package com.reliaquest.api.exceptions;
 
-public class EmployeeNotFoundException extends RuntimeException{
+public class EmployeeNotFoundException extends RuntimeException {
 
-    public EmployeeNotFoundException(String message){
+    public EmployeeNotFoundException(String message) {
         super(message);
     }
+
+    public EmployeeNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,10 @@
+package com.reliaquest.api.exceptions;
+
+import java.time.Duration;
+
+public class UpstreamTimeoutException extends RuntimeException {
+
+    public UpstreamTimeoutException(String operation, Duration deadline) {
+        super(String.format("V1 employee API did not complete %s within %d ms", operation, deadline.toMillis()));
+    }
+}
@@ -1,105 +1,801 @@
 package com.reliaquest.api.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.EmployeeSnapshotCache;
+import com.reliaquest.api.cache.EmployeeTable;
+import com.reliaquest.api.client.ApiV1CircuitBreaker;
+import com.reliaquest.api.client.ApiV1RequestMetrics;
+import com.reliaquest.api.client.EmployeeListDecoder;
+import com.reliaquest.api.client.UpstreamScheduler;
+import com.reliaquest.api.client.UpstreamScheduler.Priority;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.api.timing.RequestTimings;
+import com.reliaquest.api.timing.RequestTimings.Stage;
+import com.reliaquest.server.model.BulkItemResult;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
 import com.reliaquest.server.model.Response;
-import lombok.SneakyThrows;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriBuilder;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClientRequest;
 
-import java.io.IOException;
-import java.io.InputStream;
-
-import java.net.URI;
-import java.util.List;
-import java.util.Objects;
-import java.util.UUID;
-
+/**
+ * Client of the v1 employee API. Every upstream call is timed in {@code api.v1.calls}, tagged with its
+ * {@code operation} and an {@code outcome} of {@code success}, {@code rate_limited}, {@code timeout},
+ * {@code unavailable}, {@code error} or {@code cancelled}; the time includes waiting in the upstream scheduler.
+ * {@link ApiV1RequestMetrics} records the exchanges themselves, and the scheduler's queue and counters are exposed as
+ * {@code api.v1.scheduler.*}.
+ * <p>
+ * Each call fails with {@link UpstreamTimeoutException} past its deadline from {@link ApiV1Config.Deadlines}, and
+ * by-id lookups may be hedged by {@link Hedger}. While {@link ApiV1CircuitBreaker} is open, calls fail with
+ * {@link UpstreamUnavailableException} before queueing for the scheduler, and snapshot reads are served from the last
+ * snapshot.
+ */
 @Slf4j
 @Component
 public class ApiV1Service {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+
+    // what the salary endpoints read: ids keep employees apart, names are what they return
+    private static final List<String> SALARY_FIELDS = List.of("id", "employee_name", "employee_salary");
+
+    private static final ObjectReader EMPLOYEE_RESPONSE_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(new TypeReference<Response<MockEmployee>>() {});
+
     private final WebClient apiV1WebClient;
 
-    public ApiV1Service(@Qualifier("apiV1WebClient") WebClient apiV1WebClient) {
-        this.apiV1WebClient = apiV1WebClient;
+    private final EmployeeSnapshotCache employeeSnapshotCache;
+
+    private final boolean searchIgnoreCase;
+
+    private final int pageSize;
+
+    private final Duration responseTimeout;
+
+    private final RequestCoalescer<UUID, MockEmployee> employeeByIdCoalescer = new RequestCoalescer<>();
+
+    private final RequestCoalescer<List<String>, List<MockEmployee>> projectionCoalescer = new RequestCoalescer<>();
+
+    private final EmployeeListDecoder employeeListDecoder = new EmployeeListDecoder();
+
+    private final UpstreamScheduler upstreamScheduler;
+
+    private final AtomicReference<TaggedEmployeeList> lastEmployeeList = new AtomicReference<>();
+
+    private final AtomicReference<TimedListing> lastListingTimings = new AtomicReference<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final MicroBatcher<CreateMockEmployeeInput, BulkItemResult<MockEmployee>> createBatcher;
+
+    private final MicroBatcher<DeleteMockEmployeeInput, BulkItemResult<Boolean>> deleteBatcher;
+
+    private final ApiV1Config.Deadlines deadlines;
+
+    private final Hedger hedger;
+
+    private final ApiV1CircuitBreaker circuitBreaker;
+
+    public ApiV1Service(WebClient apiV1WebClient) {
+        this(apiV1WebClient, new ApiV1Config());
     }
 
-    public List<MockEmployee> getAllEmployeeList(){
-        Mono<DataBuffer> dataBufferMono = apiV1WebClient.get()
-                .exchangeToMono(clientResponse -> {
-                    if(clientResponse.statusCode().equals(HttpStatus.OK)){
-                        return clientResponse.bodyToMono(DataBuffer.class);
-                    } else{
-                        return Mono.error(() -> new RuntimeException("V1 employee API didn't return successful response, status code : " + clientResponse.statusCode()));
-                    }
-                });
+    public ApiV1Service(WebClient apiV1WebClient, ApiV1Config apiV1Config) {
+        this(apiV1WebClient, apiV1Config, new SimpleMeterRegistry());
+    }
 
-        Mono<InputStream> resp = DataBufferUtils
-                .join(dataBufferMono)
-                .publishOn(Schedulers.boundedElastic())
-                .map(dataBuffer -> dataBuffer.asInputStream(true));
-        ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    public ApiV1Service(
+            @Qualifier("apiV1WebClient") WebClient apiV1WebClient,
+            ApiV1Config apiV1Config,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new ApiV1CircuitBreaker(apiV1Config.getCircuitBreaker());
+        // exchanges the breaker rejects are never sent, so they are not recorded as requests
+        this.apiV1WebClient = apiV1WebClient
+                .mutate()
+                .filter(circuitBreaker)
+                .filter(new ApiV1RequestMetrics(meterRegistry))
+                .build();
+        this.upstreamScheduler = new UpstreamScheduler(apiV1Config.getScheduler());
+        bindSchedulerMetrics();
+        this.employeeSnapshotCache = new EmployeeSnapshotCache(this::fetchAllEmployeeList, apiV1Config.getCache());
+        this.searchIgnoreCase = apiV1Config.getSearch().isIgnoreCase();
+        this.pageSize = apiV1Config.getPageSize();
+        this.responseTimeout = apiV1Config.getTransport().getResponseTimeout();
+        this.createBatcher = newBatcher(apiV1Config.getBatching(), this::postEmployee, this::postEmployees);
+        this.deleteBatcher = newBatcher(apiV1Config.getBatching(), this::sendDeleteEmployee, this::sendDeleteEmployees);
+        this.deadlines = apiV1Config.getDeadlines();
+        this.hedger = new Hedger(apiV1Config.getHedging());
+        bindHedgingMetrics();
+        bindCircuitBreakerMetrics();
+    }
+
+    public List<MockEmployee> getAllEmployeeList() {
+        return getEmployeeSnapshot().employees();
+    }
+
+    public EmployeeSnapshot getEmployeeSnapshot() {
+        RequestTimings timings = RequestTimings.current();
+        RequestTimings.Span waiting = timings.start(Stage.SNAPSHOT);
         try {
-            return objectMapper.readValue(resp.block(), new TypeReference<List<MockEmployee>>() {});
-        } catch (IOException e) {
-            throw new RuntimeException("Error occurred during response conversion to MockEmployee object", e);
+            return employeeSnapshotCache.getSnapshot();
+        } finally {
+            snapshotObtained(timings, waiting);
+        }
+    }
+
+    public Mono<EmployeeSnapshot> getEmployeeSnapshotAsync() {
+        RequestTimings timings = RequestTimings.current();
+        return Mono.defer(() -> {
+            RequestTimings.Span waiting = timings.start(Stage.SNAPSHOT);
+            return employeeSnapshotCache
+                    .getSnapshotAsync()
+                    .doOnSuccess(ignored -> snapshotObtained(timings, waiting))
+                    .doOnError(ignored -> snapshotObtained(timings, waiting));
+        });
+    }
+
+    /**
+     * Snapshot for the endpoints that only rank salaries. The cached snapshot is used whenever it can be served
+     * without waiting for the v1 API. Otherwise, rather than wait for the full listing, only the id, name and salary
+     * of each employee are listed, while the full snapshot refreshes in the background. The result of that smaller
+     * listing is not cached.
+     */
+    public EmployeeSnapshot getSalarySnapshot() {
+        return employeeSnapshotCache.getSnapshotIfServable().orElseGet(() -> salarySnapshot()
+                .block());
+    }
+
+    public Mono<EmployeeSnapshot> getSalarySnapshotAsync() {
+        return Mono.defer(() ->
+                employeeSnapshotCache.getSnapshotIfServable().map(Mono::just).orElseGet(this::salarySnapshot));
+    }
+
+    private Mono<EmployeeSnapshot> salarySnapshot() {
+        RequestTimings timings = RequestTimings.current();
+        return Mono.defer(() -> {
+            RequestTimings.Span waiting = timings.start(Stage.SNAPSHOT);
+            return fetchEmployees(SALARY_FIELDS, timings)
+                    .map(employees -> EmployeeSnapshot.of(employees, Instant.now()))
+                    .doFinally(ignored -> waiting.end());
+        });
+    }
+
+    /**
+     * Lists employees reduced to {@code fields}, following the v1 cursor. Concurrent listings of the same fields share
+     * one upstream listing.
+     *
+     * @param fields v1 field names, e.g. {@code employee_salary}; employees decoded from them have every other
+     *               property left {@code null}
+     */
+    public Mono<List<MockEmployee>> fetchEmployees(List<String> fields, RequestTimings timings) {
+        return projectionCoalescer.execute(fields, key -> fetchEmployeePage(null, key, null, timings)
+                .flatMapMany(firstPage -> followCursor(firstPage, key, timings))
+                .collectList());
+    }
+
+    /**
+     * When the listing behind the snapshot completed while the request was waiting for it, the listing's stages are
+     * added to the request's, as the breakdown of its {@code snapshot} stage.
+     */
+    private void snapshotObtained(RequestTimings timings, RequestTimings.Span waiting) {
+        waiting.end();
+        TimedListing listing = lastListingTimings.get();
+        if (listing != null && listing.completedAtNanos() - waiting.startNanos() > 0) {
+            timings.include(listing.timings());
         }
     }
 
-    public MockEmployee getEmployeeById(UUID id){
-        RestTemplate restTemplate = new RestTemplate();
-        URI uri = UriComponentsBuilder.fromHttpUrl("http://localhost:8112/api/v1/employee").path("/{id}").build(id);
+    /**
+     * @return how long ago the snapshot was fetched from the v1 API, when it is being served past its ttl
+     */
+    public Optional<Duration> getStaleness(EmployeeSnapshot snapshot) {
+        return employeeSnapshotCache.staleness(snapshot);
+    }
 
-        MockEmployee employee = new MockEmployee();
-        HttpHeaders headers = new HttpHeaders();
-        HttpEntity<MockEmployee> entity = new HttpEntity<MockEmployee>(employee, headers);
-        ResponseEntity<Response<MockEmployee>> result = restTemplate.exchange(uri, HttpMethod.GET, entity, new ParameterizedTypeReference<Response<MockEmployee>>() {});
-        return Objects.requireNonNull(result.getBody()).data();
+    /**
+     * @return the last snapshot fetched, however old, without calling the v1 API
+     */
+    public Optional<EmployeeSnapshot> getLastKnownSnapshot() {
+        return employeeSnapshotCache.getLastKnownGood();
     }
 
-    public MockEmployee createEmployee(CreateMockEmployeeInput employee){
-        return apiV1WebClient.post()
-                .body(Mono.just(employee), CreateMockEmployeeInput.class)
-                .accept(MediaType.APPLICATION_JSON)
-                .exchangeToMono(clientResponse -> {
-                    if(clientResponse.statusCode().equals(HttpStatus.OK)){
-                        return clientResponse.bodyToMono(MockEmployee.class);
-                    } else{
-                        return Mono.error(() -> new RuntimeException("Exception occurred while creating employee, status code : " + clientResponse.statusCode()));
+    public boolean isSearchIgnoreCase() {
+        return searchIgnoreCase;
+    }
+
+    /**
+     * Lists every employee, sending the entity tag of the previous listing. When the v1 API answers 304 Not Modified,
+     * the previously decoded list instance is returned as is. The listing is decoded into an {@link EmployeeTable}
+     * and returned as its row view, which the snapshot then indexes without copying.
+     */
+    public List<MockEmployee> fetchAllEmployeeList() {
+        TaggedEmployeeList previous = lastEmployeeList.get();
+        RequestTimings timings = RequestTimings.shared("employee listing");
+        try {
+            return fetchEmployeePage(null, List.of(), previous == null ? null : previous.eTag(), timings)
+                    .flatMap(firstPage -> {
+                        if (firstPage.notModified()) {
+                            return Mono.just(previous.employees());
+                        }
+                        return followCursor(firstPage, List.of(), timings)
+                                .collect(EmployeeTable::builder, EmployeeTable.Builder::add)
+                                .map(builder -> builder.build().asList())
+                                .doOnNext(employees -> lastEmployeeList.set(new TaggedEmployeeList(
+                                        firstPage.eTag(), employees, firstPage.changeSequence())));
+                    })
+                    .block();
+        } finally {
+            lastListingTimings.set(new TimedListing(timings, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Lists employees from the first page on, following the v1 cursor page by page when a page size is configured.
+     */
+    private Flux<MockEmployee> followCursor(EmployeePage firstPage, List<String> fields, RequestTimings timings) {
+        return Mono.just(firstPage)
+                .expand(page -> page.nextCursor() == null
+                        ? Mono.empty()
+                        : fetchEmployeePage(page.nextCursor(), fields, null, timings))
+                .flatMapIterable(EmployeePage::employees);
+    }
+
+    /**
+     * @param fields      v1 field names to request; empty for whole employees
+     * @param ifNoneMatch entity tag of a previous listing; the page comes back empty and marked not modified when the
+     *                    v1 employee set still matches it
+     */
+    private Mono<EmployeePage> fetchEmployeePage(
+            String cursor, List<String> fields, String ifNoneMatch, RequestTimings timings) {
+        return timed(
+                "listEmployees",
+                deadlines.getListEmployees(),
+                scheduled(Priority.BULK, timings, upstream -> apiV1WebClient
+                        .get()
+                        .uri(uriBuilder -> {
+                            if (pageSize > 0) {
+                                uriBuilder.queryParam("limit", pageSize);
+                            }
+                            if (cursor != null) {
+                                uriBuilder.queryParam("cursor", cursor);
+                            }
+                            if (!fields.isEmpty()) {
+                                uriBuilder.queryParam("fields", String.join(",", fields));
+                            }
+                            return uriBuilder.build();
+                        })
+                        .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "listEmployees")
+                        .headers(headers -> {
+                            if (ifNoneMatch != null) {
+                                headers.setIfNoneMatch(ifNoneMatch);
+                            }
+                        })
+                        .exchangeToMono(clientResponse -> {
+                            upstream.end();
+                            HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                            if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                String nextCursor = headers.getFirst(NEXT_CURSOR_HEADER);
+                                Long changeSequence = parseLong(headers.getFirst(CHANGE_SEQUENCE_HEADER));
+                                // the list is decoded as it arrives, so the time spent parsing is taken out of the read
+                                long readStartNanos = System.nanoTime();
+                                LongAdder decodeNanos = new LongAdder();
+                                return employeeListDecoder
+                                        .decode(clientResponse.bodyToFlux(DataBuffer.class), decodeNanos::add)
+                                        .collectList()
+                                        .doOnSuccess(ignored -> {
+                                            timings.record(Stage.DECODE, decodeNanos.sum());
+                                            timings.record(
+                                                    Stage.READ, System.nanoTime() - readStartNanos - decodeNanos.sum());
+                                        })
+                                        .map(employees -> new EmployeePage(
+                                                employees, nextCursor, headers.getETag(), changeSequence, false));
+                            } else if (ifNoneMatch != null
+                                    && clientResponse.statusCode().equals(HttpStatus.NOT_MODIFIED)) {
+                                return clientResponse
+                                        .releaseBody()
+                                        .thenReturn(new EmployeePage(List.of(), null, ifNoneMatch, null, true));
+                            } else {
+                                return Mono.error(() -> upstreamError(
+                                        "V1 employee API didn't return successful response, status code : ",
+                                        clientResponse));
+                            }
+                        })));
+    }
+
+    /**
+     * @return the v1 change feed sequence the snapshot's listing is at least as new as, when the snapshot was built
+     * from the latest listing and the v1 server reported one
+     */
+    public OptionalLong getChangeSequence(EmployeeSnapshot snapshot) {
+        TaggedEmployeeList last = lastEmployeeList.get();
+        if (last == null || last.changeSequence() == null || !snapshot.isBuiltFrom(last.employees())) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(last.changeSequence());
+    }
+
+    /**
+     * Long-polls the v1 change feed. Not scheduled through the upstream scheduler, as a poll may hold its connection
+     * for up to {@code wait}.
+     *
+     * @return the changes after {@code since}, or empty when the v1 server no longer retains them and the snapshot
+     * has to be rebuilt from a full listing
+     */
+    public Mono<Optional<MockEmployeeChanges>> fetchChanges(long since, int limit, Duration wait) {
+        return timed(
+                "fetchChanges",
+                apiV1WebClient
+                        .get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/changes")
+                                .queryParam("since", since)
+                                .queryParam("limit", limit)
+                                .queryParam("waitSeconds", wait.toSeconds())
+                                .build())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "fetchChanges")
+                        .httpRequest(request -> {
+                            if (request.getNativeRequest() instanceof HttpClientRequest httpClientRequest) {
+                                httpClientRequest.responseTimeout(wait.plus(responseTimeout));
+                            }
+                        })
+                        .exchangeToMono(clientResponse -> {
+                            if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                return clientResponse
+                                        .bodyToMono(new ParameterizedTypeReference<Response<MockEmployeeChanges>>() {})
+                                        .map(response -> Optional.of(Objects.requireNonNull(response.data())));
+                            } else if (clientResponse.statusCode().equals(HttpStatus.GONE)) {
+                                return clientResponse.releaseBody().thenReturn(Optional.<MockEmployeeChanges>empty());
+                            } else {
+                                return Mono.error(() -> upstreamError(
+                                        "Exception occurred while fetching employee changes, status code : ",
+                                        clientResponse));
+                            }
+                        }));
+    }
+
+    /**
+     * Rebuilds the snapshot from a full listing while the current one keeps being served.
+     */
+    public EmployeeSnapshot refreshEmployeeSnapshot() {
+        try {
+            return employeeSnapshotCache.refreshAsync().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public MockEmployee getEmployeeById(UUID id) {
+        return getEmployeeByIdAsync(id).block();
+    }
+
+    /**
+     * Concurrent lookups of the same id share one upstream call; its stages are recorded for the request that made it.
+     * The call, including a hedged second attempt, fails with {@link UpstreamTimeoutException} once past its deadline.
+     */
+    public Mono<MockEmployee> getEmployeeByIdAsync(UUID id) {
+        RequestTimings timings = RequestTimings.current();
+        return employeeByIdCoalescer.execute(
+                id,
+                key -> withDeadline(
+                        "getEmployeeById",
+                        deadlines.getGetEmployeeById(),
+                        hedger.execute(attempt -> fetchEmployeeById(key, attempt, timings))));
+    }
+
+    /**
+     * A hedge records no stages, as the request's stages already cover the time it ran alongside the first attempt.
+     */
+    private Mono<MockEmployee> fetchEmployeeById(UUID id, Hedger.Attempt attempt, RequestTimings requestTimings) {
+        RequestTimings timings = attempt.isHedge() ? RequestTimings.NONE : requestTimings;
+        return timed(
+                "getEmployeeById",
+                scheduled(Priority.LOOKUP, timings, upstream -> {
+                            attempt.sent();
+                            return apiV1WebClient
+                                    .get()
+                                    .uri("/{id}", id)
+                                    .accept(MediaType.APPLICATION_JSON)
+                                    .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "getEmployeeById")
+                                    .exchangeToMono(clientResponse -> {
+                                        upstream.end();
+                                        if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                            return ApiV1Service.<Response<MockEmployee>>readBody(
+                                                    clientResponse, EMPLOYEE_RESPONSE_READER, timings);
+                                        } else {
+                                            return Mono.error(() -> upstreamError(
+                                                    "Exception occurred while fetching employee, status code : ",
+                                                    clientResponse));
+                                        }
+                                    });
+                        })
+                        .map(response -> Objects.requireNonNull(response.data())));
+    }
+
+    public MockEmployee createEmployee(CreateMockEmployeeInput employee) {
+        return createEmployeeAsync(employee).block();
+    }
+
+    /**
+     * Creates the employee, sent to the v1 API together with other creates submitted within the batching window.
+     */
+    public Mono<MockEmployee> createEmployeeAsync(CreateMockEmployeeInput employee) {
+        return timedWrite(createBatcher.submit(employee))
+                .flatMap(result -> itemResult(result, "Exception occurred while creating employee : "))
+                .doOnNext(employeeSnapshotCache::onEmployeeCreated);
+    }
+
+    private Mono<MockEmployee> postEmployee(CreateMockEmployeeInput employee) {
+        return timed(
+                "createEmployee",
+                deadlines.getWrite(),
+                schedule(Priority.WRITE, () -> apiV1WebClient
+                                .post()
+                                .body(Mono.just(employee), CreateMockEmployeeInput.class)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "createEmployee")
+                                .exchangeToMono(clientResponse -> {
+                                    if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                        return clientResponse.bodyToMono(
+                                                new ParameterizedTypeReference<Response<MockEmployee>>() {});
+                                    } else {
+                                        return Mono.error(() -> upstreamError(
+                                                "Exception occurred while creating employee, status code : ",
+                                                clientResponse));
+                                    }
+                                }))
+                        .map(response -> Objects.requireNonNull(response.data())));
+    }
+
+    private Mono<List<BulkItemResult<MockEmployee>>> postEmployees(List<CreateMockEmployeeInput> employees) {
+        return timed(
+                "createEmployees",
+                deadlines.getWrite(),
+                schedule(Priority.WRITE, () -> apiV1WebClient
+                                .post()
+                                .uri("/bulk")
+                                .body(
+                                        Mono.just(employees),
+                                        new ParameterizedTypeReference<List<CreateMockEmployeeInput>>() {})
+                                .accept(MediaType.APPLICATION_JSON)
+                                .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "createEmployees")
+                                .exchangeToMono(clientResponse -> {
+                                    if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                        return clientResponse.bodyToMono(
+                                                new ParameterizedTypeReference<
+                                                        Response<List<BulkItemResult<MockEmployee>>>>() {});
+                                    } else {
+                                        return Mono.error(() -> upstreamError(
+                                                "Exception occurred while creating employees, status code : ",
+                                                clientResponse));
+                                    }
+                                }))
+                        .map(response -> Objects.requireNonNull(response.data())));
+    }
+
+    public void deleteEmployee(DeleteMockEmployeeInput deleteMockEmployeeInput) {
+        deleteEmployeeAsync(deleteMockEmployeeInput).block();
+    }
+
+    /**
+     * Deletes the employee, sent to the v1 API together with other deletes submitted within the batching window.
+     */
+    public Mono<Void> deleteEmployeeAsync(DeleteMockEmployeeInput deleteMockEmployeeInput) {
+        return timedWrite(deleteBatcher.submit(deleteMockEmployeeInput))
+                .flatMap(result -> itemResult(result, "Exception occurred while deleting employee : "))
+                .doOnNext(employeeDeleted -> {
+                    if (Boolean.FALSE.equals(employeeDeleted)) {
+                        log.error("Employee with name {} might be already deleted.", deleteMockEmployeeInput.getName());
                     }
                 })
-               .block();
-    }
-
-    public void deleteEmployee(DeleteMockEmployeeInput deleteMockEmployeeInput){
-        Boolean employeeDeleted = apiV1WebClient
-                .method(HttpMethod.DELETE)
-                .body(Mono.just(deleteMockEmployeeInput), DeleteMockEmployeeInput.class)
-                .exchangeToMono(clientResponse -> {
-                    if(clientResponse.statusCode().equals(HttpStatus.OK)){
-                        return clientResponse.bodyToMono(Boolean.class);
-                    } else{
-                        return Mono.error(() -> new RuntimeException("Exception occurred while deleting employee, status code : " + clientResponse.statusCode()));
+                .doOnSuccess(ignored -> employeeSnapshotCache.onEmployeeDeleted(deleteMockEmployeeInput.getName()))
+                .then();
+    }
+
+    private Mono<Boolean> sendDeleteEmployee(DeleteMockEmployeeInput deleteMockEmployeeInput) {
+        return timed(
+                "deleteEmployee",
+                deadlines.getWrite(),
+                schedule(Priority.WRITE, () -> apiV1WebClient
+                                .method(HttpMethod.DELETE)
+                                .body(Mono.just(deleteMockEmployeeInput), DeleteMockEmployeeInput.class)
+                                .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "deleteEmployee")
+                                .exchangeToMono(clientResponse -> {
+                                    if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                        return clientResponse.bodyToMono(
+                                                new ParameterizedTypeReference<Response<Boolean>>() {});
+                                    } else {
+                                        return Mono.error(() -> upstreamError(
+                                                "Exception occurred while deleting employee, status code : ",
+                                                clientResponse));
+                                    }
+                                }))
+                        .map(response -> Objects.requireNonNull(response.data())));
+    }
+
+    private Mono<List<BulkItemResult<Boolean>>> sendDeleteEmployees(
+            List<DeleteMockEmployeeInput> deleteMockEmployeeInputs) {
+        return timed(
+                "deleteEmployees",
+                deadlines.getWrite(),
+                schedule(Priority.WRITE, () -> apiV1WebClient
+                                .method(HttpMethod.DELETE)
+                                .uri("/bulk")
+                                .body(
+                                        Mono.just(deleteMockEmployeeInputs),
+                                        new ParameterizedTypeReference<List<DeleteMockEmployeeInput>>() {})
+                                .accept(MediaType.APPLICATION_JSON)
+                                .attribute(ApiV1RequestMetrics.OPERATION_ATTRIBUTE, "deleteEmployees")
+                                .exchangeToMono(clientResponse -> {
+                                    if (clientResponse.statusCode().equals(HttpStatus.OK)) {
+                                        return clientResponse.bodyToMono(
+                                                new ParameterizedTypeReference<
+                                                        Response<List<BulkItemResult<Boolean>>>>() {});
+                                    } else {
+                                        return Mono.error(() -> upstreamError(
+                                                "Exception occurred while deleting employees, status code : ",
+                                                clientResponse));
+                                    }
+                                }))
+                        .map(response -> Objects.requireNonNull(response.data())));
+    }
+
+    public UpstreamScheduler.Stats getUpstreamSchedulerStats() {
+        return upstreamScheduler.stats();
+    }
+
+    /**
+     * Schedules the call, timing the wait for a slot as {@link Stage#QUEUE}. The call is handed the
+     * {@link Stage#UPSTREAM} span, started as the request is sent, to end once the response headers are in; it also
+     * ends if the call fails before.
+     */
+    private <T> Mono<T> scheduled(
+            Priority priority, RequestTimings timings, Function<RequestTimings.Span, Mono<T>> call) {
+        return Mono.defer(() -> {
+            RequestTimings.Span queued = timings.start(Stage.QUEUE);
+            return schedule(priority, () -> {
+                queued.end();
+                RequestTimings.Span upstream = timings.start(Stage.UPSTREAM);
+                return call.apply(upstream).doOnError(ignored -> upstream.end());
+            });
+        });
+    }
+
+    /**
+     * Schedules the call, or fails it at once while the circuit breaker would reject it anyway.
+     */
+    private <T> Mono<T> schedule(Priority priority, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> circuitBreaker.isCallPermitted()
+                ? upstreamScheduler.schedule(priority, call)
+                : Mono.error(circuitBreaker.rejection()));
+    }
+
+    /**
+     * Joins the response body's buffers, timed as {@link Stage#READ}, then binds the JSON, timed as
+     * {@link Stage#DECODE}.
+     */
+    private static <T> Mono<T> readBody(ClientResponse clientResponse, ObjectReader reader, RequestTimings timings) {
+        RequestTimings.Span reading = timings.start(Stage.READ);
+        return DataBufferUtils.join(clientResponse.bodyToFlux(DataBuffer.class))
+                .doOnTerminate(reading::end)
+                .map(buffer -> {
+                    RequestTimings.Span decoding = timings.start(Stage.DECODE);
+                    try (InputStream body = buffer.asInputStream(true)) {
+                        return reader.<T>readValue(body);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(
+                                "Error occurred during response conversion to MockEmployee object", e);
+                    } finally {
+                        decoding.end();
                     }
-                })
-                .block();
-        if(Boolean.FALSE.equals(employeeDeleted)){
-            log.error("Employee with name {} might be already deleted.", deleteMockEmployeeInput.getName());
+                });
+    }
+
+    /**
+     * Times a batched write from submission to its result as {@link Stage#WRITE}, which includes the batching window
+     * and the shared upstream call.
+     */
+    private static <T> Mono<T> timedWrite(Mono<T> write) {
+        RequestTimings timings = RequestTimings.current();
+        return Mono.defer(() -> {
+            RequestTimings.Span writing = timings.start(Stage.WRITE);
+            return write.doOnSuccess(ignored -> writing.end()).doOnError(ignored -> writing.end());
+        });
+    }
+
+    private <T> Mono<T> timed(String operation, Duration deadline, Mono<T> call) {
+        return timed(operation, withDeadline(operation, deadline, call));
+    }
+
+    private <T> Mono<T> timed(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doOnSuccess(ignored -> stop(sample, operation, "success"))
+                    .doOnError(e -> stop(sample, operation, outcome(e)))
+                    .doOnCancel(() -> stop(sample, operation, "cancelled"));
+        });
+    }
+
+    private static <T> Mono<T> withDeadline(String operation, Duration deadline, Mono<T> call) {
+        return call.timeout(deadline, Mono.error(() -> new UpstreamTimeoutException(operation, deadline)));
+    }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof UpstreamRateLimitedException) {
+            return "rate_limited";
+        } else if (error instanceof UpstreamTimeoutException) {
+            return "timeout";
+        } else if (error instanceof UpstreamUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+
+    private void stop(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder("api.v1.calls")
+                .description("Calls to the v1 employee API, including time queued in the upstream scheduler")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private void bindSchedulerMetrics() {
+        Gauge.builder("api.v1.scheduler.queue.depth", upstreamScheduler, scheduler -> scheduler
+                        .stats()
+                        .queueDepth())
+                .description("Upstream requests waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("api.v1.scheduler.in.flight", upstreamScheduler, scheduler -> scheduler
+                        .stats()
+                        .inFlight())
+                .description("Upstream requests in flight")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.scheduler.dispatched", upstreamScheduler, scheduler -> scheduler
+                        .stats()
+                        .dispatched())
+                .description("Upstream requests given a slot")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.scheduler.rejected", upstreamScheduler, scheduler -> scheduler
+                        .stats()
+                        .rejected())
+                .description(
+                        "Upstream requests failed without being sent, because the queue was full or the wait too long")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.scheduler.rate.limited", upstreamScheduler, scheduler -> scheduler
+                        .stats()
+                        .rateLimited())
+                .description("429 responses from the v1 employee API that paused the scheduler")
+                .register(meterRegistry);
+    }
+
+    private void bindHedgingMetrics() {
+        FunctionCounter.builder("api.v1.hedges.sent", hedger, Hedger::getSent)
+                .description("Second by-id GETs sent because the first had not answered within the hedge delay")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.hedges.won", hedger, Hedger::getWon)
+                .description("Hedged by-id GETs that answered before the first attempt")
+                .register(meterRegistry);
+        Gauge.builder("api.v1.hedge.delay", hedger, h -> h.getDelay().toNanos() / 1e9)
+                .description("Current delay before a by-id GET is hedged")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    private void bindCircuitBreakerMetrics() {
+        Gauge.builder("api.v1.circuit.state", circuitBreaker, breaker -> breaker.getState()
+                        .ordinal())
+                .description("State of the circuit breaker over the v1 employee API: 0 closed, 1 half open, 2 open")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.circuit.opened", circuitBreaker, ApiV1CircuitBreaker::getOpened)
+                .description("Times the circuit breaker opened on failing or rate limited v1 calls")
+                .register(meterRegistry);
+        FunctionCounter.builder("api.v1.circuit.rejected", circuitBreaker, ApiV1CircuitBreaker::getRejected)
+                .description("V1 calls failed fast by the open circuit breaker, without being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * With batching disabled every write is flushed on its own, so it takes the single-item request.
+     */
+    private static <I, T> MicroBatcher<I, BulkItemResult<T>> newBatcher(
+            ApiV1Config.Batching batching,
+            Function<I, Mono<T>> singleCall,
+            Function<List<I>, Mono<List<BulkItemResult<T>>>> batchCall) {
+        return new MicroBatcher<>(
+                batching.isEnabled() ? batching.getMaxBatchSize() : 1,
+                batching.getWindow(),
+                Schedulers.parallel(),
+                item -> singleCall.apply(item).map(BulkItemResult::succeeded),
+                batchCall);
+    }
+
+    private static <T> Mono<T> itemResult(BulkItemResult<T> result, String message) {
+        if (result.error() != null) {
+            return Mono.error(new RuntimeException(message + result.error()));
         }
+        return Mono.justOrEmpty(result.data());
     }
+
+    private static RuntimeException upstreamError(String message, ClientResponse clientResponse) {
+        if (clientResponse.statusCode().equals(HttpStatus.TOO_MANY_REQUESTS)) {
+            return new UpstreamRateLimitedException(
+                    "V1 employee API is rate limiting requests", retryAfter(clientResponse));
+        }
+        return new RuntimeException(message + clientResponse.statusCode().value());
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value == null ? null : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring non-numeric header value: {}", value);
+            return null;
+        }
+    }
+
+    private static Duration retryAfter(ClientResponse clientResponse) {
+        String retryAfter = clientResponse.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return retryAfter == null ? null : Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring non-numeric Retry-After header: {}", retryAfter);
+            return null;
+        }
+    }
+
+    private record EmployeePage(
+            List<MockEmployee> employees, String nextCursor, String eTag, Long changeSequence, boolean notModified) {}
+
+    private record TaggedEmployeeList(String eTag, List<MockEmployee> employees, Long changeSequence) {}
+
+    private record TimedListing(RequestTimings timings, long completedAtNanos) {}
 }
@@ -0,0 +1,118 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the cached employee snapshot current by applying the v1 change feed to it, so an unchanged or slowly changing
+ * employee set costs one long-poll per {@code pollWait} instead of a full listing per {@code ttl}.
+ * <p>
+ * Each poll that comes back, with or without changes, revalidates the snapshot, so the cache never relists while the
+ * follower keeps up. When the v1 server no longer retains the changes the follower needs, it rebuilds the snapshot
+ * from a full listing and follows on from that listing's sequence. Enabled with
+ * {@code webclient.api.v1.changes.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "webclient.api.v1.changes.enabled", havingValue = "true")
+public class EmployeeChangeFollower implements DisposableBean {
+
+    private final ApiV1Service apiV1Service;
+    private final ApiV1Config.Changes config;
+    private final Clock clock;
+    private final Thread follower;
+    private volatile boolean running = true;
+
+    private EmployeeSnapshot followed;
+    private long sequence;
+
+    public EmployeeChangeFollower(ApiV1Service apiV1Service, ApiV1Config apiV1Config) {
+        this(apiV1Service, apiV1Config.getChanges(), Clock.systemUTC(), true);
+    }
+
+    EmployeeChangeFollower(ApiV1Service apiV1Service, ApiV1Config.Changes config, Clock clock, boolean start) {
+        this.apiV1Service = apiV1Service;
+        this.config = config;
+        this.clock = clock;
+        this.follower = new Thread(this::follow, "employee-change-follower");
+        this.follower.setDaemon(true);
+        if (start) {
+            this.follower.start();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        follower.interrupt();
+        follower.join(config.getRetryBackoff().toMillis());
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                Duration pause = pollOnce();
+                if (!pause.isZero()) {
+                    Thread.sleep(pause.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs one step of the follow loop.
+     *
+     * @return how long to pause before the next step
+     */
+    Duration pollOnce() {
+        try {
+            EmployeeSnapshot snapshot = apiV1Service.getEmployeeSnapshot();
+            if (snapshot != followed) {
+                OptionalLong start = apiV1Service.getChangeSequence(snapshot);
+                if (start.isEmpty()) {
+                    // Built from a listing without a change sequence; the ttl refresh keeps it current meanwhile
+                    log.debug("Employee snapshot has no change sequence to follow from yet");
+                    return config.getRetryBackoff();
+                }
+                followed = snapshot;
+                sequence = start.getAsLong();
+            }
+            Optional<MockEmployeeChanges> changes = apiV1Service
+                    .fetchChanges(sequence, config.getBatchSize(), config.getPollWait())
+                    .block();
+            if (changes == null || changes.isEmpty()) {
+                log.info("Fell behind the v1 change feed at sequence {}, rebuilding the employee snapshot", sequence);
+                apiV1Service.refreshEmployeeSnapshot();
+                return Duration.ZERO;
+            }
+            for (MockEmployeeChange change : changes.get().changes()) {
+                switch (change.type()) {
+                    case CREATE -> followed.add(change.employee());
+                    case DELETE -> followed.removeById(change.employee().getId());
+                }
+            }
+            sequence = changes.get().latestSequence();
+            followed.revalidated(clock.instant());
+            return Duration.ZERO;
+        } catch (UpstreamRateLimitedException e) {
+            return e.getRetryAfter().orElse(config.getRetryBackoff());
+        } catch (RuntimeException e) {
+            log.warn("Following the v1 change feed failed, retrying in {}", config.getRetryBackoff(), e);
+            return config.getRetryBackoff();
+        }
+    }
+}
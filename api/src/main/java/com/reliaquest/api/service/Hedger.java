@@ -0,0 +1,161 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.config.ApiV1Config;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Hedges an idempotent call: when the first attempt was sent and has not answered within the hedge delay, a second
+ * attempt is sent, and whichever answers first is the result; the other attempt is cancelled. Only the first attempt
+ * can fail the call: an error from the hedge, e.g. a 5xx or a rejection by the circuit breaker or the scheduler, is
+ * ignored and the first attempt is waited for.
+ * <p>
+ * The delay is a percentile of the latencies of recent successful attempts, from being sent to answering, so only the
+ * slowest calls are hedged. The delay starts once the first attempt is sent, not while it waits for an upstream
+ * slot, as a second attempt would only queue behind it. Hedges are paid for with tokens earned at {@code maxHedgeRatio} per call, which keeps the extra
+ * upstream load bounded when the upstream as a whole slows down.
+ */
+public class Hedger {
+
+    // samples observed before the percentile is trusted over maxDelay
+    private static final int MIN_SAMPLES = 20;
+    // recordings between two recomputations of the delay
+    private static final int RECOMPUTE_EVERY = 50;
+    // unspent hedges carried over, so a burst of slow calls after a quiet spell can still be hedged
+    private static final double MAX_TOKENS = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final double maxHedgeRatio;
+
+    private final long[] latencies;
+    private int nextLatency;
+    private int latencyCount;
+    private int sinceRecompute;
+    private volatile long delayNanos;
+    private double tokens;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder won = new LongAdder();
+
+    public Hedger(ApiV1Config.Hedging config) {
+        this.enabled = config.isEnabled();
+        this.percentile = config.getPercentile();
+        this.minDelayNanos = config.getMinDelay().toNanos();
+        this.maxDelayNanos = config.getMaxDelay().toNanos();
+        this.maxHedgeRatio = config.getMaxHedgeRatio();
+        this.latencies = new long[Math.max(MIN_SAMPLES, config.getWindow())];
+        this.delayNanos = maxDelayNanos;
+    }
+
+    /**
+     * @param call makes one attempt; it must call {@link Attempt#sent()} once the request is on its way upstream
+     */
+    public <T> Mono<T> execute(Function<Attempt, Mono<T>> call) {
+        if (!enabled) {
+            return call.apply(new Attempt(false));
+        }
+        return Mono.defer(() -> {
+            earnToken();
+            Attempt first = new Attempt(false);
+            Mono<Outcome<T>> hedge = first.sentSignal
+                    .asMono()
+                    .then(Mono.defer(() -> Mono.delay(Duration.ofNanos(delayNanos))))
+                    .flatMap(ignored -> {
+                        if (!spendToken()) {
+                            return Mono.never();
+                        }
+                        sent.increment();
+                        // a failed hedge must not cut short a first attempt that may still succeed
+                        return attempt(call, new Attempt(true)).onErrorResume(e -> Mono.never());
+                    });
+            return Mono.firstWithSignal(attempt(call, first), hedge).map(outcome -> {
+                if (outcome.attempt().isHedge()) {
+                    won.increment();
+                }
+                return outcome.value();
+            });
+        });
+    }
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getWon() {
+        return won.sum();
+    }
+
+    private <T> Mono<Outcome<T>> attempt(Function<Attempt, Mono<T>> call, Attempt attempt) {
+        return call.apply(attempt).map(value -> {
+            if (attempt.sentAtNanos != 0) {
+                record(System.nanoTime() - attempt.sentAtNanos);
+            }
+            return new Outcome<>(value, attempt);
+        });
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[nextLatency] = latencyNanos;
+        nextLatency = (nextLatency + 1) % latencies.length;
+        latencyCount = Math.min(latencyCount + 1, latencies.length);
+        if (latencyCount >= MIN_SAMPLES && (++sinceRecompute >= RECOMPUTE_EVERY || latencyCount == MIN_SAMPLES)) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long value = sorted[(int) Math.min(latencyCount - 1, Math.ceil(percentile * latencyCount) - 1)];
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+        }
+    }
+
+    private synchronized void earnToken() {
+        tokens = Math.min(MAX_TOKENS, tokens + maxHedgeRatio);
+    }
+
+    private synchronized boolean spendToken() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * One attempt of a hedged call.
+     */
+    public static final class Attempt {
+
+        private final boolean hedge;
+        private final Sinks.Empty<Void> sentSignal = Sinks.empty();
+        private volatile long sentAtNanos;
+
+        private Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        public boolean isHedge() {
+            return hedge;
+        }
+
+        /**
+         * Marks the attempt as sent upstream, which starts its latency and, for the first attempt, the hedge delay. A
+         * retry of the attempt marks it again, restarting its latency only.
+         */
+        public void sent() {
+            sentAtNanos = System.nanoTime();
+            sentSignal.tryEmitEmpty();
+        }
+    }
+
+    private record Outcome<T>(T value, Attempt attempt) {}
+}
@@ -0,0 +1,126 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Collects items submitted concurrently and sends them as one batch once {@code maxBatchSize} items are waiting or
+ * {@code window} has passed since the first of them. Every caller gets the result at its own item's position in the
+ * batch result, or the batch call's error.
+ * <p>
+ * A batch holding a single item goes through {@code singleCall} instead, so a lone caller sees the same request it
+ * would without batching, delayed by at most {@code window}.
+ *
+ * @param <I> item type
+ * @param <R> per-item result type
+ */
+public class MicroBatcher<I, R> {
+
+    private final int maxBatchSize;
+    private final Duration window;
+    private final Scheduler scheduler;
+    private final Function<I, Mono<R>> singleCall;
+    private final Function<List<I>, Mono<List<R>>> batchCall;
+
+    private List<Pending<I, R>> pending = new ArrayList<>();
+    private Disposable scheduledFlush;
+
+    public MicroBatcher(
+            int maxBatchSize,
+            Duration window,
+            Scheduler scheduler,
+            Function<I, Mono<R>> singleCall,
+            Function<List<I>, Mono<List<R>>> batchCall) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        this.scheduler = scheduler;
+        this.singleCall = singleCall;
+        this.batchCall = batchCall;
+    }
+
+    public Mono<R> submit(I item) {
+        return Mono.defer(() -> {
+            CompletableFuture<R> result = new CompletableFuture<>();
+            List<Pending<I, R>> full = null;
+            synchronized (this) {
+                pending.add(new Pending<>(item, result));
+                if (pending.size() >= maxBatchSize || window.isZero()) {
+                    full = takePending();
+                } else if (pending.size() == 1) {
+                    scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+            if (full != null) {
+                send(full);
+            }
+            return Mono.fromFuture(result, true);
+        });
+    }
+
+    private void flush() {
+        List<Pending<I, R>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<Pending<I, R>> takePending() {
+        List<Pending<I, R>> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(List<Pending<I, R>> batch) {
+        if (batch.size() == 1) {
+            Pending<I, R> only = batch.get(0);
+            call(() -> singleCall.apply(only.item()))
+                    .subscribe(only.result()::complete, only.result()::completeExceptionally, () -> only.result()
+                            .complete(null));
+            return;
+        }
+        List<I> items = batch.stream().map(Pending::item).toList();
+        call(() -> batchCall.apply(items))
+                .subscribe(
+                        results -> {
+                            if (results.size() != batch.size()) {
+                                IllegalStateException mismatch = new IllegalStateException(
+                                        "Batch of " + batch.size() + " items returned " + results.size() + " results");
+                                batch.forEach(each -> each.result().completeExceptionally(mismatch));
+                                return;
+                            }
+                            for (int i = 0; i < batch.size(); i++) {
+                                batch.get(i).result().complete(results.get(i));
+                            }
+                        },
+                        error -> batch.forEach(each -> each.result().completeExceptionally(error)),
+                        () -> batch.forEach(each -> each.result().complete(null)));
+    }
+
+    private static <T> Mono<T> call(Supplier<Mono<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private record Pending<I, R>(I item, CompletableFuture<R> result) {}
+}
@@ -0,0 +1,52 @@
+package com.reliaquest.api.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import reactor.core.publisher.Mono;
+
+/**
+ * Collapses concurrent calls for the same key into one. The first subscriber for a key subscribes to the loader;
+ * subscribers arriving while it is in flight share its result, or its error. Nothing is cached once the call
+ * completes, and a subscriber cancelling does not cancel the shared call for the others.
+ *
+ * @param <K> request key
+ * @param <V> result type
+ */
+public class RequestCoalescer<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing != null) {
+                return Mono.fromFuture(existing, true);
+            }
+            Mono<V> call;
+            try {
+                call = loader.apply(key);
+            } catch (RuntimeException e) {
+                call = Mono.error(e);
+            }
+            call.subscribe(
+                    created::complete,
+                    error -> {
+                        inFlight.remove(key, created);
+                        created.completeExceptionally(error);
+                    },
+                    () -> {
+                        inFlight.remove(key, created);
+                        // completes with null when the call was empty; a no-op when a value already completed it
+                        created.complete(null);
+                    });
+            return Mono.fromFuture(created, true);
+        });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.reliaquest.api.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One v2 request, from {@link ServerTimingFilter} until its response was written, with the time spent in each
+ * {@link RequestTimings.Stage}.
+ */
+@Name("com.reliaquest.api.Request")
+@Label("Employee API Request")
+@Category({"Employee API"})
+@Description("A v2 employee API request and the time spent in each of its stages")
+@StackTrace(false)
+class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    int status;
+
+    @Label("Snapshot")
+    @Timespan(Timespan.NANOSECONDS)
+    long snapshot;
+
+    @Label("Queue")
+    @Timespan(Timespan.NANOSECONDS)
+    long queue;
+
+    @Label("Upstream")
+    @Timespan(Timespan.NANOSECONDS)
+    long upstream;
+
+    @Label("Read")
+    @Timespan(Timespan.NANOSECONDS)
+    long read;
+
+    @Label("Decode")
+    @Timespan(Timespan.NANOSECONDS)
+    long decode;
+
+    @Label("Write")
+    @Timespan(Timespan.NANOSECONDS)
+    long write;
+
+    @Label("Aggregate")
+    @Timespan(Timespan.NANOSECONDS)
+    long aggregate;
+
+    @Label("Dispatch")
+    @Timespan(Timespan.NANOSECONDS)
+    long dispatch;
+
+    @Label("Serialize")
+    @Timespan(Timespan.NANOSECONDS)
+    long serialize;
+
+    /**
+     * Ends the event, begun when {@link ServerTimingFilter} first saw the request, and commits it with the time spent
+     * in each stage.
+     */
+    void complete(RequestTimings timings, String method, String path, int status) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        snapshot = timings.nanos(RequestTimings.Stage.SNAPSHOT);
+        queue = timings.nanos(RequestTimings.Stage.QUEUE);
+        upstream = timings.nanos(RequestTimings.Stage.UPSTREAM);
+        read = timings.nanos(RequestTimings.Stage.READ);
+        decode = timings.nanos(RequestTimings.Stage.DECODE);
+        write = timings.nanos(RequestTimings.Stage.WRITE);
+        aggregate = timings.nanos(RequestTimings.Stage.AGGREGATE);
+        dispatch = timings.nanos(RequestTimings.Stage.DISPATCH);
+        serialize = timings.nanos(RequestTimings.Stage.SERIALIZE);
+        commit();
+    }
+}
@@ -0,0 +1,214 @@
+package com.reliaquest.api.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in each {@link Stage} of one v2 request, reported in its {@code Server-Timing} header and in a
+ * {@link RequestEvent}. Each {@link Span} is also committed as a {@link StageEvent}, so stages show on the JFR timeline
+ * of the thread that ended them.
+ * <p>
+ * {@link ServerTimingFilter} binds the request's timings to the servlet thread. Stages that complete on other threads
+ * record into the instance returned by {@link #current()} when the pipeline was assembled; code running outside a v2
+ * request gets {@link #NONE}, which only emits the stage events.
+ * <p>
+ * Stages add up when they repeat, e.g. one {@code upstream} round trip per page of a listing. They may also nest:
+ * {@code snapshot} is the whole wait for the employee snapshot, and includes the listing stages when the request had
+ * to wait for a refresh.
+ */
+public class RequestTimings {
+
+    public static final RequestTimings NONE = new RequestTimings(null);
+
+    static final String ATTRIBUTE = RequestTimings.class.getName();
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    public enum Stage {
+        SNAPSHOT("Waiting for the employee snapshot"),
+        QUEUE("Waiting for an upstream slot"),
+        UPSTREAM("Upstream round trip until response headers"),
+        READ("Reading the upstream response body"),
+        DECODE("Decoding the upstream response JSON"),
+        WRITE("Batched upstream write"),
+        AGGREGATE("In-memory search and aggregation"),
+        DISPATCH("Waiting for a servlet thread to write the response"),
+        SERIALIZE("Writing the response body");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String metricName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final String request;
+    private final long startedAtNanos = System.nanoTime();
+    private final AtomicLongArray stageNanos = new AtomicLongArray(Stage.values().length);
+    private final RequestEvent event = new RequestEvent();
+    private volatile long resultReadyAtNanos;
+    private volatile long responseStartedAtNanos;
+
+    RequestTimings(String request) {
+        this.request = request;
+        event.begin();
+    }
+
+    /**
+     * @return the timings of the v2 request handled by this thread, or {@link #NONE}
+     */
+    public static RequestTimings current() {
+        RequestTimings timings = CURRENT.get();
+        return timings == null ? NONE : timings;
+    }
+
+    /**
+     * @return timings for work shared between requests, such as a snapshot refresh; requests waiting for it
+     * {@link #include(RequestTimings)} them
+     */
+    public static RequestTimings shared(String name) {
+        return new RequestTimings(name);
+    }
+
+    static RequestTimings of(HttpServletRequest request) {
+        return (RequestTimings) request.getAttribute(ATTRIBUTE);
+    }
+
+    static void bind(RequestTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public Span start(Stage stage) {
+        return new Span(stage);
+    }
+
+    public <T> T time(Stage stage, Supplier<T> call) {
+        Span span = start(stage);
+        try {
+            return call.get();
+        } finally {
+            span.end();
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        if (this != NONE && nanos > 0) {
+            stageNanos.addAndGet(stage.ordinal(), nanos);
+        }
+    }
+
+    /**
+     * Adds the stages of {@code other}, e.g. those of a shared upstream listing this request waited for.
+     */
+    public void include(RequestTimings other) {
+        for (Stage stage : Stage.values()) {
+            record(stage, other.nanos(stage));
+        }
+    }
+
+    public long nanos(Stage stage) {
+        return stageNanos.get(stage.ordinal());
+    }
+
+    /**
+     * Marks the asynchronous result as ready, so the wait for the servlet thread that writes it is timed as
+     * {@link Stage#DISPATCH}.
+     */
+    public void resultReady() {
+        resultReadyAtNanos = System.nanoTime();
+    }
+
+    void dispatched() {
+        if (resultReadyAtNanos != 0) {
+            record(Stage.DISPATCH, System.nanoTime() - resultReadyAtNanos);
+        }
+    }
+
+    /**
+     * Marks the start of the response body, which is timed as {@link Stage#SERIALIZE} until the request completes.
+     *
+     * @return the {@code Server-Timing} header value for the stages so far, ending with the {@code total} elapsed
+     */
+    String responseStarted() {
+        long now = System.nanoTime();
+        responseStartedAtNanos = now;
+        StringBuilder header = new StringBuilder();
+        for (Stage stage : Stage.values()) {
+            long nanos = nanos(stage);
+            if (nanos > 0) {
+                appendMetric(header, stage.metricName(), nanos, stage.getDescription());
+            }
+        }
+        appendMetric(header, "total", now - startedAtNanos, "Until the response headers");
+        return header.toString();
+    }
+
+    void completed(String method, String path, int status) {
+        if (responseStartedAtNanos != 0) {
+            record(Stage.SERIALIZE, System.nanoTime() - responseStartedAtNanos);
+        }
+        event.complete(this, method, path, status);
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos, String description) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name)
+                .append(";dur=")
+                .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0))
+                .append(";desc=\"")
+                .append(description)
+                .append('"');
+    }
+
+    /**
+     * One timed occurrence of a stage. Ending it more than once records it once, so it can end on whichever of
+     * several signals comes first.
+     */
+    public final class Span {
+
+        private final Stage stage;
+        private final StageEvent event = new StageEvent();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private final long startNanos;
+
+        private Span(Stage stage) {
+            this.stage = stage;
+            event.begin();
+            this.startNanos = System.nanoTime();
+        }
+
+        public void end() {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            record(stage, System.nanoTime() - startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.stage = stage.metricName();
+                event.request = request;
+                event.commit();
+            }
+        }
+
+        public long startNanos() {
+            return startNanos;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.reliaquest.api.timing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the {@code Server-Timing} header to v2 responses with a body, just before the body is written, so it covers
+ * every stage but the {@code serialize} one; that is only in the JFR event. The header can be turned off with
+ * {@code api.v2.server-timing.enabled=false}, which keeps the events.
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final boolean headerEnabled;
+
+    public ServerTimingAdvice(@Value("${api.v2.server-timing.enabled:true}") boolean headerEnabled) {
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            RequestTimings timings = RequestTimings.of(servletRequest.getServletRequest());
+            if (timings != null) {
+                String serverTiming = timings.responseStarted();
+                if (headerEnabled) {
+                    response.getHeaders().set(SERVER_TIMING_HEADER, serverTiming);
+                }
+            }
+        }
+        return body;
+    }
+}
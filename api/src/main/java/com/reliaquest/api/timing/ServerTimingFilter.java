@@ -0,0 +1,51 @@
+package com.reliaquest.api.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Creates the {@link RequestTimings} of each v2 request and binds them to the servlet thread, on the initial dispatch
+ * and again on the async dispatch that writes a {@code Mono} result. Once the response is written, the request's
+ * {@link RequestEvent} is committed.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final String PATH_PREFIX = "/api/v2/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.of(request);
+        if (timings == null) {
+            timings = new RequestTimings(request.getMethod() + " " + request.getRequestURI());
+            request.setAttribute(RequestTimings.ATTRIBUTE, timings);
+        } else if (isAsyncDispatch(request)) {
+            timings.dispatched();
+        }
+        RequestTimings.bind(timings);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.unbind();
+            if (!request.isAsyncStarted()) {
+                timings.completed(request.getMethod(), request.getRequestURI(), response.getStatus());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.reliaquest.api.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@link RequestTimings.Span}, from its start to its end. The recording thread is the one that ended it.
+ */
+@Name("com.reliaquest.api.Stage")
+@Label("Employee API Stage")
+@Category({"Employee API"})
+@Description("A stage of a v2 employee API request, or of work shared between requests")
+@StackTrace(false)
+class StageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Request")
+    @Description("Method and path of the v2 request, or the name of the shared work")
+    String request;
+}
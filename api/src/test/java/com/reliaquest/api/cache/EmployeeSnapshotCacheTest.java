@@ -0,0 +1,235 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeSnapshotCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration MAX_STALE = Duration.ofMinutes(5);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+
+    @Test
+    public void testSnapshotIsServedFromMemoryWithinTtl() {
+        AtomicInteger loads = new AtomicInteger();
+        EmployeeSnapshotCache cache = newCache(() -> {
+            loads.incrementAndGet();
+            return List.of(employee("abc", 100));
+        });
+
+        cache.getSnapshot();
+        clock.advance(TTL.minusSeconds(1));
+        EmployeeSnapshot snapshot = cache.getSnapshot();
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, snapshot.size());
+    }
+
+    @Test
+    public void testStaleSnapshotIsServedWhileRefreshing() {
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(
+                () -> {
+                    loads.incrementAndGet();
+                    return List.of(employee("abc", 100));
+                },
+                TTL,
+                MAX_STALE,
+                pendingRefreshes::add,
+                clock);
+
+        EmployeeSnapshot first = cache.getSnapshot();
+        clock.advance(TTL.plusSeconds(1));
+
+        Assertions.assertSame(first, cache.getSnapshot());
+        Assertions.assertSame(first, cache.getSnapshot());
+        Assertions.assertEquals(1, pendingRefreshes.size(), "refresh should be single-flight");
+
+        pendingRefreshes.get(0).run();
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertNotSame(first, cache.getSnapshot());
+    }
+
+    @Test
+    public void testSnapshotIfServableNeverWaitsForARefresh() {
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(
+                () -> List.of(employee("abc", 100)), TTL, MAX_STALE, pendingRefreshes::add, clock);
+
+        Assertions.assertTrue(cache.getSnapshotIfServable().isEmpty());
+        Assertions.assertEquals(1, pendingRefreshes.size());
+        pendingRefreshes.remove(0).run();
+        EmployeeSnapshot loaded = cache.getSnapshotIfServable().orElseThrow();
+
+        clock.advance(TTL.plusSeconds(1));
+        Assertions.assertSame(loaded, cache.getSnapshotIfServable().orElseThrow());
+        Assertions.assertEquals(1, pendingRefreshes.size());
+        pendingRefreshes.remove(0).run();
+
+        clock.advance(TTL.plus(MAX_STALE).plusSeconds(1));
+        Assertions.assertTrue(cache.getSnapshotIfServable().isEmpty());
+        Assertions.assertEquals(1, pendingRefreshes.size());
+    }
+
+    @Test
+    public void testStaleSnapshotIsKeptWhenRefreshFails() {
+        AtomicInteger loads = new AtomicInteger();
+        EmployeeSnapshotCache cache = newCache(() -> {
+            if (loads.getAndIncrement() > 0) {
+                throw new RuntimeException("429");
+            }
+            return List.of(employee("abc", 100));
+        });
+
+        EmployeeSnapshot first = cache.getSnapshot();
+        clock.advance(TTL.plusSeconds(1));
+
+        Assertions.assertSame(first, cache.getSnapshot());
+        Assertions.assertSame(first, cache.getSnapshot());
+    }
+
+    @Test
+    public void testErrorIsRaisedOnceSnapshotIsTooStale() {
+        AtomicInteger loads = new AtomicInteger();
+        EmployeeSnapshotCache cache = newCache(() -> {
+            if (loads.getAndIncrement() > 0) {
+                throw new RuntimeException("429");
+            }
+            return List.of(employee("abc", 100));
+        });
+
+        cache.getSnapshot();
+        clock.advance(TTL.plus(MAX_STALE).plusSeconds(1));
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, cache::getSnapshot);
+        Assertions.assertEquals("429", exception.getMessage());
+    }
+
+    @Test
+    public void testLastKnownGoodIsServedOnceSnapshotIsTooStale() {
+        AtomicInteger loads = new AtomicInteger();
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(
+                () -> {
+                    if (loads.getAndIncrement() > 0) {
+                        throw new RuntimeException("503");
+                    }
+                    return List.of(employee("abc", 100));
+                },
+                TTL,
+                MAX_STALE,
+                Runnable::run,
+                clock,
+                true);
+
+        EmployeeSnapshot first = cache.getSnapshot();
+        Assertions.assertEquals(Optional.empty(), cache.staleness(first));
+        clock.advance(TTL.plus(MAX_STALE).plusSeconds(1));
+
+        Assertions.assertSame(first, cache.getSnapshot());
+        Assertions.assertSame(first, cache.getSnapshotAsync().block());
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertEquals(Optional.of(TTL.plus(MAX_STALE).plusSeconds(1)), cache.staleness(first));
+    }
+
+    @Test
+    public void testErrorIsRaisedWithoutLastKnownGood() {
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(
+                () -> {
+                    throw new RuntimeException("503");
+                },
+                TTL,
+                MAX_STALE,
+                Runnable::run,
+                clock,
+                true);
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, cache::getSnapshot);
+        Assertions.assertEquals("503", exception.getMessage());
+        Assertions.assertEquals(Optional.empty(), cache.getLastKnownGood());
+    }
+
+    @Test
+    public void testWritesAreAppliedToCurrentSnapshot() {
+        EmployeeSnapshotCache cache = newCache(() -> List.of(employee("abc", 100)));
+        cache.getSnapshot();
+
+        cache.onEmployeeCreated(employee("def", 200));
+        Assertions.assertEquals(2, cache.getSnapshot().size());
+
+        cache.onEmployeeDeleted("ABC");
+        List<MockEmployee> employees = cache.getSnapshot().employees();
+        Assertions.assertEquals(1, employees.size());
+        Assertions.assertEquals("def", employees.get(0).getName());
+    }
+
+    @Test
+    public void testUnchangedListRevalidatesSnapshot() {
+        List<MockEmployee> employees = List.of(employee("abc", 100));
+        EmployeeSnapshotCache cache = newCache(() -> employees);
+        EmployeeSnapshot first = cache.getSnapshot();
+        String eTag = first.getETag();
+
+        clock.advance(TTL.plus(MAX_STALE));
+        EmployeeSnapshot second = cache.getSnapshot();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(eTag, second.getETag());
+        Assertions.assertTrue(second.isFresh(clock.instant(), TTL));
+
+        cache.onEmployeeCreated(employee("def", 200));
+        Assertions.assertNotEquals(eTag, cache.getSnapshot().getETag());
+    }
+
+    private EmployeeSnapshotCache newCache(Supplier<List<MockEmployee>> loader) {
+        return new EmployeeSnapshotCache(loader, TTL, MAX_STALE, Runnable::run, clock);
+    }
+
+    static MockEmployee employee(String name, int salary) {
+        MockEmployee employee = new MockEmployee();
+        employee.setId(UUID.randomUUID());
+        employee.setName(name);
+        employee.setSalary(salary);
+        return employee;
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
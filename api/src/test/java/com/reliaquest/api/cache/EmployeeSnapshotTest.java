@@ -0,0 +1,126 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeSnapshotTest {
+
+    private static MockEmployee employee(String name, int salary) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .build();
+    }
+
+    private static MockEmployee employee(String name, int salary, int age, String title) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(age)
+                .title(title)
+                .build();
+    }
+
+    @Test
+    public void testWritesAreLayeredOverTheListing() {
+        MockEmployee tiger = employee("Tiger Nixon", 300);
+        MockEmployee bill = employee("Bill Bob", 200);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(tiger, bill), Instant.now());
+
+        MockEmployee raised = bill.toBuilder().salary(400).build();
+        MockEmployee jill = employee("Jill Jenkins", 100);
+        snapshot.add(raised);
+        snapshot.add(jill);
+        snapshot.removeById(tiger.getId());
+
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertEquals(Set.of(raised, jill), new HashSet<>(snapshot.employees()));
+        Assertions.assertEquals(raised, snapshot.findById(bill.getId()).orElseThrow());
+        Assertions.assertTrue(snapshot.findById(tiger.getId()).isEmpty());
+        Assertions.assertEquals(Set.of(raised, jill), new HashSet<>(snapshot.searchByName("ill", false)));
+        Assertions.assertEquals(400, snapshot.highestSalary().getAsInt());
+        Assertions.assertEquals(List.of(raised, jill), snapshot.topEarners(5));
+    }
+
+    @Test
+    public void testTopEarnersMergesListingAndWrites() {
+        MockEmployee first = employee("a", 500);
+        MockEmployee third = employee("c", 300);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(third, first), Instant.now());
+        MockEmployee second = employee("b", 400);
+        snapshot.add(second);
+
+        Assertions.assertEquals(List.of(first, second), snapshot.topEarners(2));
+        Assertions.assertEquals(List.of(first, second, third), snapshot.topEarners(10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> snapshot.topEarners(-1));
+    }
+
+    @Test
+    public void testRemoveByNameIgnoresCase() {
+        MockEmployee tiger = employee("Tiger Nixon", 300);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(tiger), Instant.now());
+        String eTag = snapshot.getETag();
+
+        Assertions.assertEquals(tiger, snapshot.removeByName("tiger nixon").orElseThrow());
+        Assertions.assertTrue(snapshot.removeByName("tiger nixon").isEmpty());
+        Assertions.assertEquals(0, snapshot.size());
+        Assertions.assertNotEquals(eTag, snapshot.getETag());
+    }
+
+    @Test
+    public void testManyWritesAreCompactedIntoTheTable() {
+        List<MockEmployee> listed = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            listed.add(employee("Listed " + i, i));
+        }
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(listed, Instant.now());
+
+        List<MockEmployee> written = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            MockEmployee employee = employee("Written " + i, 1000 + i);
+            written.add(employee);
+            snapshot.add(employee);
+        }
+        for (int i = 0; i < 50; i++) {
+            snapshot.removeById(listed.get(i).getId());
+        }
+
+        Assertions.assertEquals(2050, snapshot.size());
+        Assertions.assertEquals(2050, snapshot.employees().size());
+        Assertions.assertEquals(written.get(1999), snapshot.topEarners(1).get(0));
+        Assertions.assertEquals(
+                listed.get(99), snapshot.findById(listed.get(99).getId()).orElseThrow());
+        Assertions.assertTrue(snapshot.findById(listed.get(0).getId()).isEmpty());
+        Assertions.assertEquals(1, snapshot.searchByName("Written 1234", false).size());
+    }
+
+    @Test
+    public void testQueriesSeeWrites() {
+        MockEmployee tiger = employee("Tiger Nixon", 300, 61, "Architect");
+        MockEmployee bill = employee("Bill Bob", 200, 25, "Engineer");
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(tiger, bill), Instant.now());
+        MockEmployee jill = employee("Jill Jenkins", 250, 33, "Engineer");
+        MockEmployee promoted = bill.toBuilder().salary(400).build();
+        snapshot.add(jill);
+        snapshot.add(promoted);
+        snapshot.removeById(tiger.getId());
+
+        EmployeeQuery query = new EmployeeQuery(null, null, null, 40, null, EmployeeQuery.SortField.SALARY, true, null);
+        Assertions.assertEquals(List.of(promoted, jill), snapshot.query(query));
+        Assertions.assertEquals(
+                List.of(new TitleAggregate("Engineer", 2, 250, 400, 325.0)), snapshot.aggregateByTitle(query));
+        Assertions.assertEquals(
+                1,
+                snapshot.query(new EmployeeQuery(null, null, null, null, null, null, false, 1))
+                        .size());
+    }
+}
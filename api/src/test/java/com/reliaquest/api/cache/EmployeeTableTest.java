@@ -0,0 +1,195 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeTableTest {
+
+    private static MockEmployee employee(UUID id, String name, Integer salary) {
+        return MockEmployee.builder()
+                .id(id)
+                .name(name)
+                .salary(salary)
+                .age(30)
+                .title("Engineer")
+                .email(name == null ? null : name.toLowerCase().replace(' ', '.') + "@company.com")
+                .build();
+    }
+
+    @Test
+    public void testRowsRoundTrip() {
+        MockEmployee full = employee(UUID.randomUUID(), "Zoë Ørsted 日本", 120);
+        MockEmployee empty =
+                MockEmployee.builder().id(UUID.randomUUID()).name("").build();
+        MockEmployee nulls = MockEmployee.builder().id(UUID.randomUUID()).build();
+
+        EmployeeTable table = EmployeeTable.of(List.of(full, empty, nulls));
+
+        Assertions.assertEquals(List.of(full, empty, nulls), new ArrayList<>(table.asList()));
+        Assertions.assertEquals(EmployeeTable.NO_VALUE, table.salary(2));
+        Assertions.assertNull(table.title(2));
+    }
+
+    @Test
+    public void testEmployeesWithoutIdAreLeftOut() {
+        EmployeeTable table = EmployeeTable.of(List.of(new MockEmployee(), employee(UUID.randomUUID(), "a", 1)));
+
+        Assertions.assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testFindRowAndLaterDuplicatesSupersede() {
+        UUID id = UUID.randomUUID();
+        MockEmployee other = employee(UUID.randomUUID(), "Other", 10);
+        EmployeeTable table = EmployeeTable.of(List.of(employee(id, "Old", 10), other, employee(id, "New", 20)));
+
+        Assertions.assertEquals(2, table.findRow(id));
+        Assertions.assertEquals(1, table.findRow(other.getId()));
+        Assertions.assertEquals(-1, table.findRow(UUID.randomUUID()));
+        Assertions.assertTrue(table.isSuperseded(0));
+        Assertions.assertEquals(2, table.liveRows());
+        Assertions.assertEquals(0, table.searchName("Old", false).length);
+    }
+
+    @Test
+    public void testSalaryOrderMatchesSalaryIndex() {
+        List<MockEmployee> employees = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employees.add(employee(UUID.randomUUID(), "Employee " + i, i % 3 == 0 ? null : (i % 7) * 100 - 200));
+        }
+        EmployeeTable table = EmployeeTable.of(employees);
+
+        List<MockEmployee> ranked = new ArrayList<>();
+        for (int rank = 0; rank < table.salaryRanks(); rank++) {
+            ranked.add(table.get(table.rowBySalary(rank)));
+        }
+        Assertions.assertEquals(SalaryIndex.of(employees).topEarners(employees.size()), ranked);
+    }
+
+    @Test
+    public void testCompareBySalary() {
+        UUID low = new UUID(0, 1);
+        UUID high = new UUID(0, 2);
+        EmployeeTable table = EmployeeTable.of(List.of(employee(low, "a", 100)));
+
+        Assertions.assertTrue(table.compareBySalary(0, employee(high, "b", 50)) < 0);
+        Assertions.assertTrue(table.compareBySalary(0, employee(high, "b", 100)) < 0);
+        Assertions.assertTrue(table.compareBySalary(0, employee(high, "b", 150)) > 0);
+    }
+
+    @Test
+    public void testSearchName() {
+        EmployeeTable table = EmployeeTable.of(List.of(
+                employee(UUID.randomUUID(), "Tiger Nixon", 1),
+                employee(UUID.randomUUID(), "Bill Bob", 1),
+                employee(UUID.randomUUID(), "Jill Jenkins", 1),
+                employee(UUID.randomUUID(), null, 1)));
+
+        Assertions.assertArrayEquals(new int[] {1, 2}, table.searchName("ill", false));
+        Assertions.assertArrayEquals(new int[] {0}, table.searchName("nixon", true));
+        Assertions.assertEquals(0, table.searchName("nixon", false).length);
+        Assertions.assertEquals(0, table.searchName("Bilob", false).length);
+        Assertions.assertArrayEquals(new int[] {0, 1, 2}, table.searchName("i", false));
+    }
+
+    @Test
+    public void testFromReusesTheTableBehindItsRows() {
+        EmployeeTable table = EmployeeTable.of(List.of(employee(UUID.randomUUID(), "a", 1)));
+
+        Assertions.assertSame(table, EmployeeTable.from(table.asList()));
+        Assertions.assertSame(table.asList(), table.asList());
+        Assertions.assertNotSame(table, EmployeeTable.from(new ArrayList<>(table.asList())));
+    }
+
+    @Test
+    public void testRowsCopiedBetweenTables() {
+        MockEmployee employee = employee(UUID.randomUUID(), "Jürgen", 1);
+        EmployeeTable table = EmployeeTable.of(List.of(employee(UUID.randomUUID(), null, 2), employee));
+
+        EmployeeTable copy = EmployeeTable.builder().add(table, 1).add(table, 0).build();
+
+        Assertions.assertEquals(employee, copy.get(0));
+        Assertions.assertNull(copy.name(1));
+        Assertions.assertEquals(0, copy.findRow(employee.getId()));
+    }
+
+    private static MockEmployee employee(long id, Integer salary, Integer age, String title) {
+        return MockEmployee.builder()
+                .id(new UUID(0, id))
+                .name("Employee " + id)
+                .salary(salary)
+                .age(age)
+                .title(title)
+                .build();
+    }
+
+    private final EmployeeTable queried = EmployeeTable.of(List.of(
+            employee(1, 300, 40, "Manager"),
+            employee(2, 100, 25, "Engineer"),
+            employee(3, 200, 31, "Engineer"),
+            employee(4, 200, 52, "Engineer"),
+            employee(5, null, 29, "Engineer"),
+            employee(6, 150, null, null)));
+
+    @Test
+    public void testQueryBySalaryRangeInBothOrders() {
+        EmployeeQuery ascending =
+                new EmployeeQuery(150, 250, null, null, null, EmployeeQuery.SortField.SALARY, false, null);
+        EmployeeQuery descending =
+                new EmployeeQuery(150, 250, null, null, null, EmployeeQuery.SortField.SALARY, true, 2);
+
+        // ties on salary are in id order when descending, and the reverse when ascending
+        Assertions.assertArrayEquals(new int[] {5, 3, 2}, queried.query(ascending, row -> false));
+        Assertions.assertArrayEquals(new int[] {2, 3}, queried.query(descending, row -> false));
+        Assertions.assertArrayEquals(new int[] {5, 2}, queried.query(ascending, row -> row == 3));
+    }
+
+    @Test
+    public void testQueryCombinesFiltersAndSortsOnAnotherColumn() {
+        EmployeeQuery byAge =
+                new EmployeeQuery(null, 250, null, 50, "Engineer", EmployeeQuery.SortField.AGE, true, null);
+        EmployeeQuery bySalary =
+                new EmployeeQuery(null, null, 20, 35, null, EmployeeQuery.SortField.SALARY, true, null);
+
+        Assertions.assertArrayEquals(new int[] {2, 1}, queried.query(byAge, row -> false));
+        // employees without a salary come last
+        Assertions.assertArrayEquals(new int[] {2, 1, 4}, queried.query(bySalary, row -> false));
+        Assertions.assertEquals(
+                0,
+                queried.query(new EmployeeQuery(null, null, null, null, "Intern", null, false, null), row -> false)
+                        .length);
+    }
+
+    @Test
+    public void testAggregateByTitle() {
+        Map<String, TitleStats> all = queried.aggregateByTitle(EmployeeQuery.all(), row -> false, new int[0]);
+        Map<String, TitleStats> ranged = queried.aggregateByTitle(
+                new EmployeeQuery(150, null, null, null, null, null, false, null), row -> row == 2, new int[] {2});
+
+        Assertions.assertEquals(
+                new TitleAggregate("Engineer", 4, 100, 200, 500 / 3.0),
+                all.get("Engineer").toAggregate("Engineer"));
+        Assertions.assertEquals(
+                new TitleAggregate(null, 1, 150, 150, 150.0), all.get(null).toAggregate(null));
+        Assertions.assertEquals(
+                new TitleAggregate("Engineer", 1, 200, 200, 200.0),
+                ranged.get("Engineer").toAggregate("Engineer"));
+        Assertions.assertEquals(3, ranged.size());
+    }
+
+    @Test
+    public void testAggregateByTitleWithAgeRange() {
+        Map<String, TitleStats> stats = queried.aggregateByTitle(
+                new EmployeeQuery(null, null, 26, 45, "Engineer", null, false, null), row -> false, new int[0]);
+
+        Assertions.assertEquals(
+                new TitleAggregate("Engineer", 2, 200, 200, 200.0),
+                stats.get("Engineer").toAggregate("Engineer"));
+        Assertions.assertEquals(1, stats.size());
+    }
+}
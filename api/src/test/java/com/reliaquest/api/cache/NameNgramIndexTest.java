@@ -0,0 +1,67 @@
+package com.reliaquest.api.cache;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class NameNgramIndexTest {
+
+    private final UUID tiger = UUID.randomUUID();
+    private final UUID bill = UUID.randomUUID();
+    private final UUID jill = UUID.randomUUID();
+
+    private NameNgramIndex newIndex() {
+        NameNgramIndex index = new NameNgramIndex();
+        index.add(tiger, "Tiger Nixon");
+        index.add(bill, "Bill Bob");
+        index.add(jill, "Jill Jenkins");
+        return index;
+    }
+
+    @Test
+    public void testSearchMatchesSubstrings() {
+        NameNgramIndex index = newIndex();
+
+        Assertions.assertEquals(List.of(tiger), index.search("Nixon", false));
+        Assertions.assertEquals(Set.of(bill, jill), Set.copyOf(index.search("ill", false)));
+        Assertions.assertTrue(index.search("Nixo n", false).isEmpty());
+    }
+
+    @Test
+    public void testSearchIsCaseSensitiveUnlessAskedOtherwise() {
+        NameNgramIndex index = newIndex();
+
+        Assertions.assertTrue(index.search("nixon", false).isEmpty());
+        Assertions.assertEquals(List.of(tiger), index.search("nixon", true));
+    }
+
+    @Test
+    public void testTrigramsMustBeAdjacentInName() {
+        NameNgramIndex index = newIndex();
+
+        // "Bil" and "Bob" are both indexed for Bill Bob but "Bilob" does not occur
+        Assertions.assertTrue(index.search("Bilob", false).isEmpty());
+    }
+
+    @Test
+    public void testShortFragmentsFallBackToScan() {
+        NameNgramIndex index = newIndex();
+
+        Assertions.assertEquals(Set.of(tiger, bill, jill), Set.copyOf(index.search("i", false)));
+        Assertions.assertEquals(Set.of(tiger, bill, jill), Set.copyOf(index.search("", false)));
+    }
+
+    @Test
+    public void testRemovedNamesAreNoLongerFound() {
+        NameNgramIndex index = newIndex();
+
+        index.remove(tiger);
+        Assertions.assertTrue(index.search("Nixon", false).isEmpty());
+
+        index.add(bill, "Bill Nixon");
+        Assertions.assertEquals(List.of(bill), index.search("Nixon", false));
+        Assertions.assertTrue(index.search("Bob", false).isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package com.reliaquest.api.cache;
+
+import static com.reliaquest.api.cache.EmployeeSnapshotCacheTest.employee;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SalaryIndexTest {
+
+    @Test
+    public void testTopEarnersAreOrderedBySalaryDescending() {
+        SalaryIndex index = SalaryIndex.of(List.of(employee("a", 100), employee("b", 300), employee("c", 200)));
+
+        Assertions.assertEquals(300, index.highestSalary().getAsInt());
+        Assertions.assertEquals(List.of("b", "c"), names(index.topEarners(2)));
+        Assertions.assertEquals(List.of("b", "c", "a"), names(index.topEarners(10)));
+    }
+
+    @Test
+    public void testEqualSalariesAreAllKept() {
+        SalaryIndex index = SalaryIndex.of(List.of(employee("a", 100), employee("b", 100)));
+
+        Assertions.assertEquals(2, index.topEarners(10).size());
+    }
+
+    @Test
+    public void testIndexFollowsWrites() {
+        MockEmployee top = employee("a", 500);
+        SalaryIndex index = SalaryIndex.of(List.of(top, employee("b", 100)));
+
+        index.add(employee("c", 900));
+        Assertions.assertEquals(900, index.highestSalary().getAsInt());
+
+        index.remove(top);
+        Assertions.assertEquals(List.of("c", "b"), names(index.topEarners(10)));
+    }
+
+    @Test
+    public void testEmployeesWithoutSalaryAreSkipped() {
+        MockEmployee noSalary = new MockEmployee();
+        noSalary.setName("x");
+        SalaryIndex index = SalaryIndex.of(List.of(noSalary));
+
+        Assertions.assertTrue(index.highestSalary().isEmpty());
+        Assertions.assertTrue(index.topEarners(10).isEmpty());
+    }
+
+    private static List<String> names(List<MockEmployee> employees) {
+        return employees.stream().map(MockEmployee::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,144 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.client.ApiV1CircuitBreaker.State;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+public class ApiV1CircuitBreakerTest {
+
+    private static final ClientRequest REQUEST = ClientRequest.create(
+                    HttpMethod.GET, URI.create("http://localhost/api/v1/employee"))
+            .build();
+
+    private final AtomicInteger exchanges = new AtomicInteger();
+
+    private static ApiV1Config.CircuitBreaker config(Duration openDuration) {
+        ApiV1Config.CircuitBreaker config = new ApiV1Config.CircuitBreaker();
+        config.setFailureRateThreshold(0.5);
+        config.setSlidingWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setOpenDuration(openDuration);
+        config.setHalfOpenTrials(2);
+        return config;
+    }
+
+    @Test
+    public void testOpensOnFailureRateAndFailsFast() {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMinutes(1)));
+
+        exchange(circuitBreaker, HttpStatus.OK);
+        exchange(circuitBreaker, HttpStatus.INTERNAL_SERVER_ERROR);
+        exchange(circuitBreaker, HttpStatus.OK);
+        Assertions.assertEquals(State.CLOSED, circuitBreaker.getState());
+        exchange(circuitBreaker, HttpStatus.TOO_MANY_REQUESTS);
+        Assertions.assertEquals(State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.isCallPermitted());
+
+        UpstreamUnavailableException exception = Assertions.assertThrows(
+                UpstreamUnavailableException.class, () -> exchange(circuitBreaker, HttpStatus.OK));
+        Assertions.assertTrue(exception.getRetryAfter().isPresent());
+        Assertions.assertEquals(4, exchanges.get());
+        Assertions.assertEquals(1, circuitBreaker.getRejected());
+        Assertions.assertEquals(1, circuitBreaker.getOpened());
+    }
+
+    @Test
+    public void testClientErrorsAndFewCallsDoNotOpen() {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMinutes(1)));
+
+        exchange(circuitBreaker, HttpStatus.SERVICE_UNAVAILABLE);
+        exchange(circuitBreaker, HttpStatus.SERVICE_UNAVAILABLE);
+        exchange(circuitBreaker, HttpStatus.NOT_FOUND);
+        Assertions.assertEquals(State.CLOSED, circuitBreaker.getState());
+        exchange(circuitBreaker, HttpStatus.NOT_FOUND);
+        Assertions.assertEquals(State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testSuccessfulTrialsCloseTheCircuit() throws InterruptedException {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMillis(50)));
+        open(circuitBreaker);
+
+        Thread.sleep(100);
+        Assertions.assertTrue(circuitBreaker.isCallPermitted());
+        exchange(circuitBreaker, HttpStatus.OK);
+        Assertions.assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        exchange(circuitBreaker, HttpStatus.OK);
+        Assertions.assertEquals(State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testFailedTrialOpensTheCircuitAgain() throws InterruptedException {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMillis(50)));
+        open(circuitBreaker);
+
+        Thread.sleep(100);
+        exchange(circuitBreaker, HttpStatus.BAD_GATEWAY);
+        Assertions.assertEquals(State.OPEN, circuitBreaker.getState());
+        Assertions.assertEquals(2, circuitBreaker.getOpened());
+    }
+
+    @Test
+    public void testTrialsBeyondTheLimitAreRejected() throws InterruptedException {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMillis(50)));
+        open(circuitBreaker);
+        Thread.sleep(100);
+
+        ExchangeFunction pending = request -> Mono.never();
+        circuitBreaker.filter(REQUEST, pending).subscribe();
+        circuitBreaker.filter(REQUEST, pending).subscribe().dispose();
+        circuitBreaker.filter(REQUEST, pending).subscribe();
+
+        Assertions.assertThrows(
+                UpstreamUnavailableException.class,
+                () -> circuitBreaker.filter(REQUEST, pending).block());
+        Assertions.assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testRetryAfterExtendsOpenDuration() {
+        ApiV1CircuitBreaker circuitBreaker = new ApiV1CircuitBreaker(config(Duration.ofMillis(50)));
+
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker
+                    .filter(
+                            REQUEST,
+                            request -> Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                                    .header(HttpHeaders.RETRY_AFTER, "60")
+                                    .build()))
+                    .block();
+        }
+
+        Assertions.assertEquals(State.OPEN, circuitBreaker.getState());
+        Assertions.assertTrue(
+                circuitBreaker.rejection().getRetryAfter().orElseThrow().compareTo(Duration.ofSeconds(50)) > 0);
+    }
+
+    private void open(ApiV1CircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            exchange(circuitBreaker, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        Assertions.assertEquals(State.OPEN, circuitBreaker.getState());
+    }
+
+    private void exchange(ApiV1CircuitBreaker circuitBreaker, HttpStatus status) {
+        circuitBreaker
+                .filter(REQUEST, request -> {
+                    exchanges.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status).build());
+                })
+                .block();
+    }
+}
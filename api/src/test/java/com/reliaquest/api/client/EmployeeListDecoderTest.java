@@ -0,0 +1,100 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+public class EmployeeListDecoderTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final EmployeeListDecoder decoder = new EmployeeListDecoder();
+
+    @Test
+    public void testDecodeBareArray() throws Exception {
+        List<MockEmployee> expected = employees(3);
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(expected);
+
+        Assertions.assertEquals(
+                expected,
+                decoder.decode(chunked(body, body.length)).collectList().block());
+    }
+
+    @Test
+    public void testDecodeReportsParseTimePerBuffer() throws Exception {
+        List<MockEmployee> expected = employees(3);
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(expected);
+        List<Long> decodeNanos = new ArrayList<>();
+
+        Assertions.assertEquals(
+                expected,
+                decoder.decode(chunked(body, 8), decodeNanos::add).collectList().block());
+        // one per buffer, and one for the end of input
+        Assertions.assertEquals((body.length + 7) / 8 + 1, decodeNanos.size());
+    }
+
+    @Test
+    public void testDecodeResponseEnvelopeSplitAtEveryByte() throws Exception {
+        List<MockEmployee> expected = employees(3);
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(Response.handledWith(expected));
+
+        for (int chunkSize = 1; chunkSize <= 16; chunkSize++) {
+            Assertions.assertEquals(
+                    expected,
+                    decoder.decode(chunked(body, chunkSize)).collectList().block(),
+                    "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testDecodeIgnoresNestedArraysOutsideData() {
+        String body =
+                "{\"meta\":{\"pages\":[{\"id\":\"x\"}]},\"data\":[],\"status\":\"Successfully processed request.\"}";
+
+        Assertions.assertEquals(
+                List.of(),
+                decoder.decode(chunked(body.getBytes(StandardCharsets.UTF_8), 7))
+                        .collectList()
+                        .block());
+    }
+
+    @Test
+    public void testDecodeTruncatedBodyFails() throws Exception {
+        byte[] body = OBJECT_MAPPER.writeValueAsBytes(employees(2));
+        byte[] truncated = new byte[body.length - 5];
+        System.arraycopy(body, 0, truncated, 0, truncated.length);
+
+        Assertions.assertThrows(
+                RuntimeException.class,
+                () -> decoder.decode(chunked(truncated, 10)).collectList().block());
+    }
+
+    private static Flux<DataBuffer> chunked(byte[] body, int chunkSize) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, body.length - offset);
+            DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(length);
+            buffer.write(body, offset, length);
+            buffers.add(buffer);
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static List<MockEmployee> employees(int count) {
+        List<MockEmployee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(new MockEmployee(
+                    UUID.randomUUID(), "name " + i, 1000 * i, 20 + i, "title", "e" + i + "@company.com"));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,122 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.client.UpstreamScheduler.Priority;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class UpstreamSchedulerTest {
+
+    private static ApiV1Config.Scheduler config(int maxConcurrentRequests, Duration maxWait) {
+        ApiV1Config.Scheduler config = new ApiV1Config.Scheduler();
+        config.setMaxConcurrentRequests(maxConcurrentRequests);
+        config.setMaxQueueSize(10);
+        config.setMaxWait(maxWait);
+        config.setInitialBackoff(Duration.ofMillis(50));
+        config.setMaxBackoff(Duration.ofMillis(200));
+        return config;
+    }
+
+    @Test
+    public void testHigherPriorityRequestsAreDispatchedFirst() throws Exception {
+        UpstreamScheduler scheduler = new UpstreamScheduler(config(1, Duration.ofSeconds(5)));
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        CountDownLatch blockerRunning = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            executor.submit(() -> scheduler
+                    .schedule(
+                            Priority.BULK,
+                            () -> Mono.fromRunnable(() -> {
+                                blockerRunning.countDown();
+                                await(releaseBlocker);
+                            }))
+                    .block());
+            blockerRunning.await(5, TimeUnit.SECONDS);
+
+            executor.submit(() -> scheduler
+                    .schedule(Priority.BULK, () -> Mono.fromCallable(() -> order.add(Priority.BULK)))
+                    .block());
+            waitForQueueDepth(scheduler, 1);
+            executor.submit(() -> scheduler
+                    .schedule(Priority.LOOKUP, () -> Mono.fromCallable(() -> order.add(Priority.LOOKUP)))
+                    .block());
+            waitForQueueDepth(scheduler, 2);
+            executor.submit(() -> scheduler
+                    .schedule(Priority.WRITE, () -> Mono.fromCallable(() -> order.add(Priority.WRITE)))
+                    .block());
+            waitForQueueDepth(scheduler, 3);
+
+            releaseBlocker.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of(Priority.WRITE, Priority.LOOKUP, Priority.BULK), order);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRateLimitedRequestIsRetriedAfterBackoff() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(config(2, Duration.ofSeconds(5)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = scheduler
+                .schedule(
+                        Priority.LOOKUP,
+                        () -> Mono.fromCallable(() -> {
+                            if (attempts.incrementAndGet() == 1) {
+                                throw new UpstreamRateLimitedException("429", Duration.ofMillis(100));
+                            }
+                            return "ok";
+                        }))
+                .block();
+
+        Assertions.assertEquals("ok", result);
+        Assertions.assertEquals(2, attempts.get());
+        UpstreamScheduler.Stats stats = scheduler.stats();
+        Assertions.assertEquals(1, stats.rateLimited());
+        Assertions.assertTrue(stats.maxWait().toMillis() >= 90, "second dispatch should wait for the backoff");
+    }
+
+    @Test
+    public void testRequestFailsOnceMaxWaitIsExceeded() {
+        UpstreamScheduler scheduler = new UpstreamScheduler(config(1, Duration.ofMillis(200)));
+
+        Assertions.assertThrows(UpstreamRateLimitedException.class, () -> scheduler
+                .schedule(
+                        Priority.WRITE,
+                        () -> Mono.error(new UpstreamRateLimitedException("429", Duration.ofSeconds(60))))
+                .block());
+        Assertions.assertThrows(UpstreamRateLimitedException.class, () -> scheduler
+                .schedule(Priority.WRITE, () -> Mono.just("never dispatched"))
+                .block());
+        Assertions.assertEquals(2, scheduler.stats().rejected());
+    }
+
+    private static void waitForQueueDepth(UpstreamScheduler scheduler, int depth) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.stats().queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.TitleAggregate;
+import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.server.model.MockEmployee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeQueryControllerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApiV1Service apiV1Service;
+
+    @Spy
+    private EndpointMetrics endpointMetrics = new EndpointMetrics(meterRegistry);
+
+    @InjectMocks
+    private EmployeeQueryController employeeQueryController;
+
+    private static MockEmployee employee(String name, int salary, int age, String title) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(age)
+                .title(title)
+                .build();
+    }
+
+    private final MockEmployee tiger = employee("Tiger Nixon", 320, 61, "Architect");
+    private final MockEmployee bill = employee("Bill Bob", 170, 25, "Engineer");
+    private final MockEmployee jill = employee("Jill Jenkins", 230, 33, "Engineer");
+    private final MockEmployee ann = employee("Ann Lee", 90, 22, "Engineer");
+
+    private EmployeeSnapshot snapshot() {
+        return EmployeeSnapshot.of(List.of(tiger, bill, jill, ann), Instant.now());
+    }
+
+    @Test
+    public void testQueryEmployees() {
+        EmployeeSnapshot snapshot = snapshot();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot);
+
+        ResponseEntity<List<MockEmployee>> response =
+                employeeQueryController.queryEmployees(100, 400, null, 40, null, "salary", "desc", 5);
+
+        Assertions.assertEquals(List.of(jill, bill), response.getBody());
+        Assertions.assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    public void testQueryEmployees_ByTitleSortedByAgeWithLimit() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot());
+
+        List<MockEmployee> employees = employeeQueryController
+                .queryEmployees(null, null, null, null, "Engineer", "age", null, 2)
+                .getBody();
+
+        Assertions.assertEquals(List.of(ann, bill), employees);
+    }
+
+    @Test
+    public void testQueryEmployees_WithInvalidParameters() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> employeeQueryController.queryEmployees(null, null, null, null, null, "name", null, null));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> employeeQueryController.queryEmployees(null, null, null, null, null, "salary", "sideways", null));
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> employeeQueryController.queryEmployees(null, null, null, null, null, null, null, 0));
+    }
+
+    @Test
+    public void testQueryEmployees_WithError() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenThrow(new RuntimeException());
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> employeeQueryController.queryEmployees(null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    public void testQueryEmployees_WithUpstreamUnavailable() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot())
+                .thenThrow(new UpstreamUnavailableException("V1 employee API is failing", null));
+        Assertions.assertThrows(
+                UpstreamUnavailableException.class,
+                () -> employeeQueryController.queryEmployees(null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    public void testAggregateEmployeesByTitle() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot());
+
+        List<TitleAggregate> aggregates = employeeQueryController
+                .aggregateEmployeesByTitle(null, null, null, 40, null)
+                .getBody();
+
+        Assertions.assertEquals(List.of(new TitleAggregate("Engineer", 3, 90, 230, 490 / 3.0)), aggregates);
+    }
+}
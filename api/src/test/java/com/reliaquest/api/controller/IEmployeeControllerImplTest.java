@@ -1,115 +1,256 @@
 package com.reliaquest.api.controller;
 
+import com.reliaquest.api.cache.EmployeeSnapshot;
 import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
 import com.reliaquest.api.service.ApiV1Service;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
-import org.junit.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.UUID;
-
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 
 @ExtendWith(MockitoExtension.class)
 public class IEmployeeControllerImplTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private ApiV1Service apiV1Service;
 
+    @Spy
+    private EndpointMetrics endpointMetrics = new EndpointMetrics(meterRegistry);
+
     @InjectMocks
     private IEmployeeControllerImpl iEmployeeController;
 
     @Test
-    public void testGetAllEmployees(){
+    public void testGetAllEmployees() {
         List<MockEmployee> mockEmployeeList = new ArrayList<>(50);
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenReturn(mockEmployeeList);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(mockEmployeeList, Instant.now());
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot);
 
-        List<MockEmployee> actualMockEmployeeList = iEmployeeController.getAllEmployees().getBody();
+        ResponseEntity<List<MockEmployee>> response = iEmployeeController.getAllEmployees();
+        List<MockEmployee> actualMockEmployeeList = response.getBody();
         Assertions.assertNotNull(actualMockEmployeeList);
         Assertions.assertEquals(mockEmployeeList.size(), actualMockEmployeeList.size());
+        Assertions.assertEquals(snapshot.getETag(), response.getHeaders().getETag());
     }
 
     @Test
-    public void testGetAllEmployees_withError(){
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenThrow(new RuntimeException());
-        Assertions.assertThrows(EmployeeNotFoundException.class,
-                () -> iEmployeeController.getAllEmployees(), "Employees not found");
+    public void testGetAllEmployees_withError() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenThrow(new RuntimeException());
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class, () -> iEmployeeController.getAllEmployees(), "Employees not found");
     }
 
     @Test
-    public void testGetEmployeesByNameSearch(){
+    public void testGetEmployeesByNameSearch() {
         MockEmployee mockEmployee = new MockEmployee();
+        mockEmployee.setId(UUID.randomUUID());
         mockEmployee.setName("abc");
         List<MockEmployee> mockEmployeeList = Arrays.asList(mockEmployee);
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenReturn(mockEmployeeList);
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot())
+                .thenReturn(EmployeeSnapshot.of(mockEmployeeList, Instant.now()));
 
-        List<MockEmployee> actualMockEmployeeList = iEmployeeController.getEmployeesByNameSearch("a").getBody();
+        List<MockEmployee> actualMockEmployeeList =
+                iEmployeeController.getEmployeesByNameSearch("a").getBody();
         Assertions.assertEquals(1, actualMockEmployeeList.size());
         Assertions.assertEquals("abc", actualMockEmployeeList.get(0).getName());
     }
 
     @Test
-    public void testGetEmployeesByNameSearch_WithError(){
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenThrow(new RuntimeException());
-        Assertions.assertThrows(EmployeeNotFoundException.class,
-                () -> iEmployeeController.getEmployeesByNameSearch("a"), "Any employee does not match the provided criteria");
+    public void testGetEmployeesByNameSearch_WithError() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshot()).thenThrow(new RuntimeException());
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> iEmployeeController.getEmployeesByNameSearch("a"),
+                "Any employee does not match the provided criteria");
     }
 
     @Test
-    public void testGetEmployeeById(){
+    public void testGetEmployeeById() {
         UUID id = UUID.randomUUID();
         MockEmployee mockEmployee = new MockEmployee();
         mockEmployee.setId(id);
         org.mockito.Mockito.when(apiV1Service.getEmployeeById(id)).thenReturn(mockEmployee);
 
-        MockEmployee actualMockEmployee = iEmployeeController.getEmployeeById(id.toString()).getBody();
+        MockEmployee actualMockEmployee =
+                iEmployeeController.getEmployeeById(id.toString()).getBody();
         Assertions.assertNotNull(actualMockEmployee);
         Assertions.assertEquals(id, actualMockEmployee.getId());
     }
 
     @Test
-    public void testGetEmployeeById_WithError(){
+    public void testGetEmployeeById_WithError() {
         UUID id = UUID.randomUUID();
         org.mockito.Mockito.when(apiV1Service.getEmployeeById(id)).thenThrow(new RuntimeException());
-        Assertions.assertThrows(EmployeeNotFoundException.class,
-                () -> iEmployeeController.getEmployeeById(id.toString()), String.format("Employee not found for id %s", id));
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> iEmployeeController.getEmployeeById(id.toString()),
+                String.format("Employee not found for id %s", id));
     }
 
     @Test
-    public void testGetHighestSalaryOfEmployees(){
+    public void testGetEmployeeById_WithUpstreamRateLimited() {
+        UUID id = UUID.randomUUID();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeById(id))
+                .thenThrow(new UpstreamRateLimitedException(
+                        "V1 employee API is rate limiting requests", Duration.ofSeconds(30)));
+        Assertions.assertThrows(
+                UpstreamRateLimitedException.class, () -> iEmployeeController.getEmployeeById(id.toString()));
+    }
+
+    @Test
+    public void testGetEmployeeById_WithUpstreamUnavailableServesLastSnapshot() {
+        MockEmployee mockEmployee = new MockEmployee();
+        mockEmployee.setId(UUID.randomUUID());
+        mockEmployee.setName("abc");
+        EmployeeSnapshot snapshot =
+                EmployeeSnapshot.of(List.of(mockEmployee), Instant.now().minusSeconds(300));
+        org.mockito.Mockito.when(apiV1Service.getEmployeeById(mockEmployee.getId()))
+                .thenThrow(new UpstreamUnavailableException("V1 employee API is failing", Duration.ofSeconds(10)));
+        org.mockito.Mockito.when(apiV1Service.getLastKnownSnapshot()).thenReturn(Optional.of(snapshot));
+        org.mockito.Mockito.when(apiV1Service.getStaleness(snapshot)).thenReturn(Optional.of(Duration.ofSeconds(300)));
+
+        ResponseEntity<MockEmployee> response =
+                iEmployeeController.getEmployeeById(mockEmployee.getId().toString());
+        Assertions.assertEquals(mockEmployee, response.getBody());
+        Assertions.assertEquals("300", response.getHeaders().getFirst(HttpHeaders.AGE));
+        Assertions.assertEquals("true", response.getHeaders().getFirst(SnapshotResponses.STALE_HEADER));
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.WARNING));
+    }
+
+    @Test
+    public void testGetEmployeeById_WithUpstreamUnavailableAndNotInLastSnapshot() {
+        UUID id = UUID.randomUUID();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeById(id))
+                .thenThrow(new UpstreamUnavailableException("V1 employee API is failing", Duration.ofSeconds(10)));
+        org.mockito.Mockito.when(apiV1Service.getLastKnownSnapshot())
+                .thenReturn(Optional.of(EmployeeSnapshot.of(List.of(), Instant.now())));
+        Assertions.assertThrows(
+                UpstreamUnavailableException.class, () -> iEmployeeController.getEmployeeById(id.toString()));
+    }
+
+    @Test
+    public void testGetEmployeeById_recordsOutcome() {
+        UUID id = UUID.randomUUID();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeById(id))
+                .thenReturn(new MockEmployee())
+                .thenThrow(new IllegalStateException())
+                .thenThrow(new UpstreamRateLimitedException("V1 employee API is rate limiting requests", null));
+        iEmployeeController.getEmployeeById(id.toString());
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class, () -> iEmployeeController.getEmployeeById(id.toString()));
+        Assertions.assertThrows(
+                UpstreamRateLimitedException.class, () -> iEmployeeController.getEmployeeById(id.toString()));
+
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v2.requests")
+                        .tags("endpoint", "getEmployeeById", "outcome", "success", "exception", "none")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v2.requests")
+                        .tags(
+                                "endpoint",
+                                "getEmployeeById",
+                                "outcome",
+                                "not_found",
+                                "exception",
+                                "IllegalStateException")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v2.requests")
+                        .tags("endpoint", "getEmployeeById", "outcome", "rate_limited")
+                        .timer()
+                        .count());
+    }
+
+    @Test
+    public void testGetHighestSalaryOfEmployees() {
+        MockEmployee mockEmployee = new MockEmployee();
+        mockEmployee.setId(UUID.randomUUID());
+        mockEmployee.setSalary(20000);
+        org.mockito.Mockito.when(apiV1Service.getSalarySnapshot())
+                .thenReturn(EmployeeSnapshot.of(List.of(mockEmployee), Instant.now()));
+
+        Integer highestSalary =
+                iEmployeeController.getHighestSalaryOfEmployees().getBody();
+        Assertions.assertNotNull(highestSalary);
+        Assertions.assertEquals(20000, highestSalary.intValue());
+    }
+
+    @Test
+    public void testGetHighestSalaryOfEmployees_WithNoEmployees() {
+        org.mockito.Mockito.when(apiV1Service.getSalarySnapshot())
+                .thenReturn(EmployeeSnapshot.of(List.of(), Instant.now()));
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> iEmployeeController.getHighestSalaryOfEmployees(),
+                "Employees not found");
+    }
+
+    @Test
+    public void testGetHighestSalaryOfEmployees_WithError() {
+        org.mockito.Mockito.when(apiV1Service.getSalarySnapshot()).thenThrow(new RuntimeException());
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> iEmployeeController.getHighestSalaryOfEmployees(),
+                "Employees not found");
+    }
+
+    @Test
+    public void testGetTopTenHighestEarningEmployeeNames() {
         MockEmployee mockEmployee1 = new MockEmployee();
+        mockEmployee1.setId(UUID.randomUUID());
         mockEmployee1.setName("a");
-        mockEmployee1.setSalary(10000);
+        mockEmployee1.setSalary(20000);
 
         MockEmployee mockEmployee2 = new MockEmployee();
-        mockEmployee1.setName("b");
-        mockEmployee1.setSalary(20000);
+        mockEmployee2.setId(UUID.randomUUID());
+        mockEmployee2.setName("b");
+        mockEmployee2.setSalary(10000);
 
-        List<MockEmployee> mockEmployeeList = Arrays.asList(mockEmployee1, mockEmployee2);
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenReturn(mockEmployeeList);
+        org.mockito.Mockito.when(apiV1Service.getSalarySnapshot())
+                .thenReturn(EmployeeSnapshot.of(Arrays.asList(mockEmployee1, mockEmployee2), Instant.now()));
 
-        Integer highestSalary = iEmployeeController.getHighestSalaryOfEmployees().getBody();
-        Assertions.assertNotNull(highestSalary);
-        Assertions.assertEquals(20000, highestSalary.intValue());
+        List<String> names =
+                iEmployeeController.getTopTenHighestEarningEmployeeNames().getBody();
+        Assertions.assertEquals(Arrays.asList("a", "b"), names);
     }
 
     @Test
-    public void testGetHighestSalaryOfEmployees_WithError(){
-        org.mockito.Mockito.when(apiV1Service.getAllEmployeeList()).thenThrow(new RuntimeException());
-        Assertions.assertThrows(EmployeeNotFoundException.class,
-                () -> iEmployeeController.getHighestSalaryOfEmployees(), "Employees not found");
+    public void testGetTopHighestEarningEmployeeNames_WithInvalidLimit() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> iEmployeeController.getTopHighestEarningEmployeeNames(0));
     }
 
     @Test
-    public void testCreateEmployee(){
+    public void testCreateEmployee() {
         CreateMockEmployeeInput input = new CreateMockEmployeeInput();
         input.setName("abc");
 
@@ -117,21 +258,24 @@ public class IEmployeeControllerImplTest {
         mockEmployee.setName("abc");
         org.mockito.Mockito.when(apiV1Service.createEmployee(input)).thenReturn(mockEmployee);
 
-        MockEmployee actualMockEmployee = iEmployeeController.createEmployee(input).getBody();
+        MockEmployee actualMockEmployee =
+                iEmployeeController.createEmployee(input).getBody();
         Assertions.assertNotNull(actualMockEmployee);
         Assertions.assertEquals("abc", actualMockEmployee.getName());
     }
 
     @Test
-    public void testCreateEmployee_WithError(){
+    public void testCreateEmployee_WithError() {
         CreateMockEmployeeInput input = new CreateMockEmployeeInput();
         org.mockito.Mockito.when(apiV1Service.createEmployee(input)).thenThrow(new RuntimeException());
-        Assertions.assertThrows(IllegalArgumentException.class,
-                () -> iEmployeeController.createEmployee(input), "Request was unsuccessful, please try again");
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> iEmployeeController.createEmployee(input),
+                "Request was unsuccessful, please try again");
     }
 
     @Test
-    public void testDeleteEmployeeById(){
+    public void testDeleteEmployeeById() {
         UUID id = UUID.randomUUID();
         MockEmployee mockEmployee = new MockEmployee();
         mockEmployee.setId(id);
@@ -142,10 +286,10 @@ public class IEmployeeControllerImplTest {
         DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
         deleteMockEmployeeInput.setName("abc");
 
-        String deletedEmployeeName = iEmployeeController.deleteEmployeeById(id.toString()).getBody();
+        String deletedEmployeeName =
+                iEmployeeController.deleteEmployeeById(id.toString()).getBody();
 
         Assertions.assertNotNull(deletedEmployeeName);
         Assertions.assertEquals("abc", deletedEmployeeName);
     }
-
 }
@@ -0,0 +1,149 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeControllerTest {
+
+    @Mock
+    private ApiV1Service apiV1Service;
+
+    @Spy
+    private EndpointMetrics endpointMetrics = new EndpointMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    private ReactiveEmployeeController reactiveEmployeeController;
+
+    @Test
+    public void testGetHighestSalaryAndTopTenFromSnapshot() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee("a", 100), employee("b", 300)), Instant.now());
+        org.mockito.Mockito.when(apiV1Service.getSalarySnapshotAsync()).thenReturn(Mono.just(snapshot));
+
+        Assertions.assertEquals(
+                300,
+                reactiveEmployeeController.getHighestSalaryOfEmployees().block().getBody());
+        Assertions.assertEquals(
+                List.of("b", "a"),
+                reactiveEmployeeController
+                        .getTopTenHighestEarningEmployeeNames()
+                        .block()
+                        .getBody());
+    }
+
+    @Test
+    public void testGetAllEmployees_withError() {
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshotAsync())
+                .thenReturn(Mono.error(new RuntimeException()));
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> reactiveEmployeeController.getAllEmployees().block());
+    }
+
+    @Test
+    public void testGetEmployeeById_WithInvalidId() {
+        Assertions.assertThrows(
+                EmployeeNotFoundException.class,
+                () -> reactiveEmployeeController.getEmployeeById("not-a-uuid").block());
+    }
+
+    @Test
+    public void testGetEmployeeById_WithUpstreamRateLimited() {
+        UUID id = UUID.randomUUID();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeByIdAsync(id))
+                .thenReturn(Mono.error(new UpstreamRateLimitedException(
+                        "V1 employee API is rate limiting requests", Duration.ofSeconds(30))));
+        Assertions.assertThrows(
+                UpstreamRateLimitedException.class,
+                () -> reactiveEmployeeController.getEmployeeById(id.toString()).block());
+    }
+
+    @Test
+    public void testGetEmployeeById_WithUpstreamTimeout() {
+        UUID id = UUID.randomUUID();
+        org.mockito.Mockito.when(apiV1Service.getEmployeeByIdAsync(id))
+                .thenReturn(Mono.error(new UpstreamTimeoutException("getEmployeeById", Duration.ofSeconds(5))));
+        Assertions.assertThrows(
+                UpstreamTimeoutException.class,
+                () -> reactiveEmployeeController.getEmployeeById(id.toString()).block());
+    }
+
+    @Test
+    public void testGetAllEmployees_markedStale() {
+        EmployeeSnapshot snapshot =
+                EmployeeSnapshot.of(List.of(employee("a", 100)), Instant.now().minusSeconds(120));
+        org.mockito.Mockito.when(apiV1Service.getEmployeeSnapshotAsync()).thenReturn(Mono.just(snapshot));
+        org.mockito.Mockito.when(apiV1Service.getStaleness(snapshot)).thenReturn(Optional.of(Duration.ofSeconds(120)));
+
+        ResponseEntity<List<MockEmployee>> response =
+                reactiveEmployeeController.getAllEmployees().block();
+        Assertions.assertEquals(1, response.getBody().size());
+        Assertions.assertEquals(snapshot.getETag(), response.getHeaders().getETag());
+        Assertions.assertEquals("120", response.getHeaders().getFirst(HttpHeaders.AGE));
+        Assertions.assertEquals("true", response.getHeaders().getFirst(SnapshotResponses.STALE_HEADER));
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.WARNING));
+    }
+
+    @Test
+    public void testGetEmployeeById_WithUpstreamUnavailableServesLastSnapshot() {
+        MockEmployee mockEmployee = employee("abc", 100);
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(mockEmployee), Instant.now());
+        org.mockito.Mockito.when(apiV1Service.getEmployeeByIdAsync(mockEmployee.getId()))
+                .thenReturn(Mono.error(new UpstreamUnavailableException("V1 employee API is failing", null)));
+        org.mockito.Mockito.when(apiV1Service.getLastKnownSnapshot()).thenReturn(Optional.of(snapshot));
+
+        ResponseEntity<MockEmployee> response = reactiveEmployeeController
+                .getEmployeeById(mockEmployee.getId().toString())
+                .block();
+        Assertions.assertEquals(mockEmployee, response.getBody());
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.WARNING));
+    }
+
+    @Test
+    public void testDeleteEmployeeById() {
+        MockEmployee mockEmployee = employee("abc", 100);
+        DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
+        deleteMockEmployeeInput.setName("abc");
+        org.mockito.Mockito.when(apiV1Service.getEmployeeByIdAsync(mockEmployee.getId()))
+                .thenReturn(Mono.just(mockEmployee));
+        org.mockito.Mockito.when(apiV1Service.deleteEmployeeAsync(deleteMockEmployeeInput))
+                .thenReturn(Mono.empty());
+
+        Assertions.assertEquals(
+                "abc",
+                reactiveEmployeeController
+                        .deleteEmployeeById(mockEmployee.getId().toString())
+                        .block()
+                        .getBody());
+    }
+
+    private static MockEmployee employee(String name, int salary) {
+        MockEmployee employee = new MockEmployee();
+        employee.setId(UUID.randomUUID());
+        employee.setName(name);
+        employee.setSalary(salary);
+        return employee;
+    }
+}
@@ -1,41 +1,61 @@
 package com.reliaquest.api.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import com.reliaquest.server.model.BulkItemResult;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
-import org.junit.Test;
-import org.junit.jupiter.api.AfterAll;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.reactive.function.client.WebClient;
-import static org.assertj.core.api.Assertions.assertThat;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
 public class ApiV1ServiceTest {
 
-    private static MockWebServer mockBackEnd;
+    private MockWebServer mockBackEnd;
 
-    private static final  ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    @BeforeAll
-    static void setUp() throws IOException {
+    @BeforeEach
+    void setUp() throws IOException {
         mockBackEnd = new MockWebServer();
         mockBackEnd.start();
     }
 
-    @AfterAll
-    static void tearDown() throws IOException {
+    @AfterEach
+    void tearDown() throws IOException {
         mockBackEnd.shutdown();
     }
 
@@ -43,7 +63,7 @@ public class ApiV1ServiceTest {
     public void testGetAllEmployeeList() throws JsonProcessingException, InterruptedException {
         WebClient testWebClient = WebClient.create(mockBackEnd.url("/").url().toString());
         ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
-        //Here we can create actual list of mock objects as per the response of "http://localhost:8112/api/v1/employee"
+        // Here we can create actual list of mock objects as per the response of "http://localhost:8112/api/v1/employee"
         List<MockEmployee> expectedMockEmployeeList = new ArrayList<>(50);
         String response = OBJECT_MAPPER.writeValueAsString(expectedMockEmployeeList);
 
@@ -56,6 +76,149 @@ public class ApiV1ServiceTest {
         Assertions.assertEquals(expectedMockEmployeeList.size(), actualMockEmployeeList.size());
         RecordedRequest recordedRequest = mockBackEnd.takeRequest();
         Assertions.assertEquals("GET", recordedRequest.getMethod());
+        Assertions.assertEquals("/?limit=10000", recordedRequest.getPath());
+    }
+
+    @Test
+    public void testFetchAllEmployeeListFollowsCursor() throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Config apiV1Config = new ApiV1Config();
+        apiV1Config.setPageSize(1);
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, apiV1Config);
+        MockEmployee first = new MockEmployee();
+        first.setId(UUID.randomUUID());
+        first.setSalary(100);
+        MockEmployee second = new MockEmployee();
+        second.setId(UUID.randomUUID());
+        second.setSalary(200);
+
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(List.of(first))))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("X-Next-Cursor", "MQ"));
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(List.of(second))))
+                .addHeader("Content-Type", "application/json"));
+
+        List<MockEmployee> employees = apiV1Service.fetchAllEmployeeList();
+        Assertions.assertEquals(List.of(first, second), employees);
+
+        Assertions.assertEquals(
+                "/api/v1/employee?limit=1", mockBackEnd.takeRequest().getPath());
+        Assertions.assertEquals(
+                "/api/v1/employee?limit=1&cursor=MQ", mockBackEnd.takeRequest().getPath());
+    }
+
+    @Test
+    public void testFetchAllEmployeeListReusesListWhenNotModified()
+            throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient = WebClient.create(mockBackEnd.url("/").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        MockEmployee employee = new MockEmployee();
+        employee.setId(UUID.randomUUID());
+
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(List.of(employee))))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("ETag", "W/\"abc.7\""));
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "W/\"abc.7\""));
+
+        List<MockEmployee> first = apiV1Service.fetchAllEmployeeList();
+        List<MockEmployee> second = apiV1Service.fetchAllEmployeeList();
+        Assertions.assertEquals(1, first.size());
+        Assertions.assertSame(first, second);
+
+        Assertions.assertNull(mockBackEnd.takeRequest().getHeader("If-None-Match"));
+        Assertions.assertEquals("W/\"abc.7\"", mockBackEnd.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testSalarySnapshotListsOnlySalaryFieldsUntilTheSnapshotIsLoaded() throws Exception {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        MockEmployee tiger = new MockEmployee();
+        tiger.setId(UUID.randomUUID());
+        tiger.setName("Tiger Nixon");
+        tiger.setSalary(320800);
+        tiger.setAge(61);
+        tiger.setTitle("Vice Chair Executive Principal of Chief Operations Implementation Specialist");
+        MockEmployee bill = new MockEmployee();
+        bill.setId(UUID.randomUUID());
+        bill.setName("Bill Bob");
+        bill.setSalary(89750);
+        String fullListing = OBJECT_MAPPER.writeValueAsString(Response.handledWith(List.of(tiger, bill)));
+        String salaryListing = OBJECT_MAPPER.writeValueAsString(Response.handledWith(List.of(
+                Map.of("id", tiger.getId(), "employee_name", "Tiger Nixon", "employee_salary", 320800),
+                Map.of("id", bill.getId(), "employee_name", "Bill Bob", "employee_salary", 89750))));
+        // the projected listing and the background refresh of the full one race each other
+        mockBackEnd.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setBody(request.getPath().contains("fields=") ? salaryListing : fullListing)
+                        .addHeader("Content-Type", "application/json");
+            }
+        });
+
+        EmployeeSnapshot salaries = apiV1Service.getSalarySnapshot();
+        Assertions.assertEquals(OptionalInt.of(320800), salaries.highestSalary());
+        Assertions.assertEquals(
+                List.of("Tiger Nixon", "Bill Bob"),
+                salaries.topEarners(10).stream().map(MockEmployee::getName).toList());
+
+        Set<String> paths = Set.of(
+                mockBackEnd.takeRequest(5, TimeUnit.SECONDS).getPath(),
+                mockBackEnd.takeRequest(5, TimeUnit.SECONDS).getPath());
+        Assertions.assertEquals(
+                Set.of(
+                        "/api/v1/employee?limit=10000&fields=id,employee_name,employee_salary",
+                        "/api/v1/employee?limit=10000"),
+                paths);
+
+        // once the full snapshot is loaded it serves the salary endpoints too
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (apiV1Service.getLastKnownSnapshot().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertSame(apiV1Service.getLastKnownSnapshot().orElseThrow(), apiV1Service.getSalarySnapshot());
+        Assertions.assertEquals(2, mockBackEnd.getRequestCount());
+    }
+
+    @Test
+    public void testFetchChanges() throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        MockEmployee employee = new MockEmployee();
+        employee.setId(UUID.randomUUID());
+        MockEmployeeChanges changes = new MockEmployeeChanges(
+                List.of(new MockEmployeeChange(8, MockEmployeeChange.Type.CREATE, employee)), 8);
+
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(changes)))
+                .addHeader("Content-Type", "application/json"));
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(410).addHeader("Content-Type", "application/json"));
+
+        Optional<MockEmployeeChanges> fetched =
+                apiV1Service.fetchChanges(7, 100, Duration.ofSeconds(1)).block();
+        Assertions.assertEquals(8, fetched.orElseThrow().latestSequence());
+        Assertions.assertEquals(
+                employee.getId(), fetched.get().changes().get(0).employee().getId());
+        Assertions.assertEquals(
+                Optional.empty(),
+                apiV1Service.fetchChanges(1, 100, Duration.ofSeconds(1)).block());
+
+        Assertions.assertEquals(
+                "/api/v1/employee/changes?since=7&limit=100&waitSeconds=1",
+                mockBackEnd.takeRequest().getPath());
+        mockBackEnd.takeRequest();
     }
 
     @Test
@@ -63,17 +226,241 @@ public class ApiV1ServiceTest {
         WebClient testWebClient = WebClient.create(mockBackEnd.url("/").url().toString());
         ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
 
-        MockResponse mockResponse = new MockResponse()
-                .setResponseCode(500)
-                .addHeader("Content-Type", "application/json");
+        MockResponse mockResponse =
+                new MockResponse().setResponseCode(500).addHeader("Content-Type", "application/json");
 
         mockBackEnd.enqueue(mockResponse);
         Exception exception = Assertions.assertThrows(RuntimeException.class, apiV1Service::getAllEmployeeList);
-        Assertions.assertEquals("V1 employee API didn't return successful response, status code : 500", exception.getMessage());
+        Assertions.assertEquals(
+                "V1 employee API didn't return successful response, status code : 500", exception.getMessage());
         RecordedRequest recordedRequest = mockBackEnd.takeRequest();
         Assertions.assertEquals("GET", recordedRequest.getMethod());
     }
 
+    @Test
+    public void testGetEmployeeById() throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        MockEmployee expectedMockEmployee = new MockEmployee();
+        expectedMockEmployee.setId(UUID.randomUUID());
+        expectedMockEmployee.setName("abc");
+        String response = OBJECT_MAPPER.writeValueAsString(Response.handledWith(expectedMockEmployee));
+
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(response)
+                .addHeader("Content-Type", "application/json"));
+
+        MockEmployee actualMockEmployee = apiV1Service.getEmployeeById(expectedMockEmployee.getId());
+        assertThat(actualMockEmployee).usingRecursiveComparison().isEqualTo(expectedMockEmployee);
+
+        RecordedRequest recordedRequest = mockBackEnd.takeRequest();
+        Assertions.assertEquals("GET", recordedRequest.getMethod());
+        Assertions.assertEquals("/api/v1/employee/" + expectedMockEmployee.getId(), recordedRequest.getPath());
+    }
+
+    @Test
+    public void testGetEmployeeById_errorInResponse() throws InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        UUID id = UUID.randomUUID();
+
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(404).addHeader("Content-Type", "application/json"));
+
+        Exception exception = Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.getEmployeeById(id));
+        Assertions.assertEquals(
+                "Exception occurred while fetching employee, status code : 404", exception.getMessage());
+        RecordedRequest recordedRequest = mockBackEnd.takeRequest();
+        Assertions.assertEquals("GET", recordedRequest.getMethod());
+    }
+
+    @Test
+    public void testGetEmployeeById_recordsMetrics() throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, new ApiV1Config(), meterRegistry);
+        MockEmployee expectedMockEmployee = new MockEmployee();
+        expectedMockEmployee.setId(UUID.randomUUID());
+        String response = OBJECT_MAPPER.writeValueAsString(Response.handledWith(expectedMockEmployee));
+
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(response)
+                .addHeader("Content-Type", "application/json"));
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(404).addHeader("Content-Type", "application/json"));
+
+        apiV1Service.getEmployeeById(expectedMockEmployee.getId());
+        Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.getEmployeeById(UUID.randomUUID()));
+
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.calls")
+                        .tags("operation", "getEmployeeById", "outcome", "success")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.calls")
+                        .tags("operation", "getEmployeeById", "outcome", "error")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.requests")
+                        .tags("operation", "getEmployeeById", "status", "200")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.requests")
+                        .tags("operation", "getEmployeeById", "status", "404")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                response.length(),
+                meterRegistry
+                        .get("api.v1.response.size")
+                        .tags("operation", "getEmployeeById")
+                        .summary()
+                        .totalAmount());
+        Assertions.assertEquals(
+                2,
+                meterRegistry
+                        .get("api.v1.scheduler.dispatched")
+                        .functionCounter()
+                        .count());
+        mockBackEnd.takeRequest();
+        mockBackEnd.takeRequest();
+    }
+
+    @Test
+    public void testGetEmployeeById_retriedAfterRateLimit() throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
+        MockEmployee expectedMockEmployee = new MockEmployee();
+        expectedMockEmployee.setId(UUID.randomUUID());
+
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "1"));
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(expectedMockEmployee)))
+                .addHeader("Content-Type", "application/json"));
+
+        MockEmployee actualMockEmployee = apiV1Service.getEmployeeById(expectedMockEmployee.getId());
+        Assertions.assertEquals(expectedMockEmployee.getId(), actualMockEmployee.getId());
+        Assertions.assertEquals(1, apiV1Service.getUpstreamSchedulerStats().rateLimited());
+        mockBackEnd.takeRequest();
+        mockBackEnd.takeRequest();
+    }
+
+    @Test
+    public void testGetEmployeeById_failsPastDeadline() throws InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiV1Config apiV1Config = new ApiV1Config();
+        apiV1Config.getDeadlines().setGetEmployeeById(Duration.ofMillis(200));
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, apiV1Config, meterRegistry);
+
+        mockBackEnd.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        UUID id = UUID.randomUUID();
+        Exception exception =
+                Assertions.assertThrows(UpstreamTimeoutException.class, () -> apiV1Service.getEmployeeById(id));
+        Assertions.assertEquals(
+                "V1 employee API did not complete getEmployeeById within 200 ms", exception.getMessage());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.calls")
+                        .tags("operation", "getEmployeeById", "outcome", "cancelled")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(0, apiV1Service.getUpstreamSchedulerStats().inFlight());
+        mockBackEnd.takeRequest();
+    }
+
+    @Test
+    public void testGetEmployeeById_hedgedWhenFirstAttemptIsSlow()
+            throws JsonProcessingException, InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiV1Config apiV1Config = new ApiV1Config();
+        apiV1Config.getDeadlines().setGetEmployeeById(Duration.ofSeconds(2));
+        apiV1Config.getHedging().setEnabled(true);
+        apiV1Config.getHedging().setMinDelay(Duration.ofMillis(50));
+        apiV1Config.getHedging().setMaxDelay(Duration.ofMillis(50));
+        apiV1Config.getHedging().setMaxHedgeRatio(1);
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, apiV1Config, meterRegistry);
+        MockEmployee expectedMockEmployee = new MockEmployee();
+        expectedMockEmployee.setId(UUID.randomUUID());
+
+        mockBackEnd.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        mockBackEnd.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(expectedMockEmployee)))
+                .addHeader("Content-Type", "application/json"));
+
+        MockEmployee actualMockEmployee = apiV1Service.getEmployeeById(expectedMockEmployee.getId());
+        Assertions.assertEquals(expectedMockEmployee.getId(), actualMockEmployee.getId());
+        Assertions.assertEquals(
+                1, meterRegistry.get("api.v1.hedges.sent").functionCounter().count());
+        Assertions.assertEquals(
+                1, meterRegistry.get("api.v1.hedges.won").functionCounter().count());
+        Assertions.assertEquals(
+                "/api/v1/employee/" + expectedMockEmployee.getId(),
+                mockBackEnd.takeRequest().getPath());
+        Assertions.assertEquals(
+                "/api/v1/employee/" + expectedMockEmployee.getId(),
+                mockBackEnd.takeRequest().getPath());
+    }
+
+    @Test
+    public void testGetEmployeeById_failsFastWhileCircuitIsOpen() throws InterruptedException {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ApiV1Config apiV1Config = new ApiV1Config();
+        apiV1Config.getCircuitBreaker().setMinimumCalls(2);
+        apiV1Config.getCircuitBreaker().setSlidingWindowSize(2);
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, apiV1Config, meterRegistry);
+
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(500));
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(500));
+
+        Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.getEmployeeById(UUID.randomUUID()));
+        Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.getEmployeeById(UUID.randomUUID()));
+        mockBackEnd.takeRequest();
+        mockBackEnd.takeRequest();
+        int requestCount = mockBackEnd.getRequestCount();
+
+        UUID id = UUID.randomUUID();
+        Exception exception =
+                Assertions.assertThrows(UpstreamUnavailableException.class, () -> apiV1Service.getEmployeeById(id));
+        Assertions.assertEquals(
+                "V1 employee API is failing, calls are rejected until it recovers", exception.getMessage());
+        Assertions.assertEquals(requestCount, mockBackEnd.getRequestCount());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("api.v1.calls")
+                        .tags("operation", "getEmployeeById", "outcome", "unavailable")
+                        .timer()
+                        .count());
+        Assertions.assertEquals(
+                2, meterRegistry.get("api.v1.circuit.state").gauge().value());
+        Assertions.assertEquals(2, apiV1Service.getUpstreamSchedulerStats().dispatched());
+    }
+
     @Test
     public void testCreateEmployee() throws JsonProcessingException, InterruptedException {
         WebClient testWebClient = WebClient.create(mockBackEnd.url("/").url().toString());
@@ -84,7 +471,7 @@ public class ApiV1ServiceTest {
         MockEmployee expectedmMockEmployee = new MockEmployee();
         expectedmMockEmployee.setName("abc");
         expectedmMockEmployee.setSalary(50000);
-        String response = OBJECT_MAPPER.writeValueAsString(expectedmMockEmployee);
+        String response = OBJECT_MAPPER.writeValueAsString(Response.handledWith(expectedmMockEmployee));
 
         mockBackEnd.enqueue(new MockResponse()
                 .setResponseCode(200)
@@ -92,9 +479,7 @@ public class ApiV1ServiceTest {
                 .addHeader("Content-Type", "application/json"));
 
         MockEmployee actualMockEmployee = apiV1Service.createEmployee(employeeInput);
-        assertThat(actualMockEmployee)
-                .usingRecursiveComparison()
-                .isEqualTo(expectedmMockEmployee);
+        assertThat(actualMockEmployee).usingRecursiveComparison().isEqualTo(expectedmMockEmployee);
 
         RecordedRequest recordedRequest = mockBackEnd.takeRequest();
         Assertions.assertEquals("POST", recordedRequest.getMethod());
@@ -106,20 +491,21 @@ public class ApiV1ServiceTest {
         ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
         CreateMockEmployeeInput employeeInput = new CreateMockEmployeeInput();
 
-        MockResponse mockResponse = new MockResponse()
-                .setResponseCode(500)
-                .addHeader("Content-Type", "application/json");
+        MockResponse mockResponse =
+                new MockResponse().setResponseCode(500).addHeader("Content-Type", "application/json");
 
         mockBackEnd.enqueue(mockResponse);
 
-        Exception exception = Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.createEmployee(employeeInput));
-        Assertions.assertEquals("Exception occurred while creating employee, status code : 500", exception.getMessage());
+        Exception exception =
+                Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.createEmployee(employeeInput));
+        Assertions.assertEquals(
+                "Exception occurred while creating employee, status code : 500", exception.getMessage());
         RecordedRequest recordedRequest = mockBackEnd.takeRequest();
         Assertions.assertEquals("POST", recordedRequest.getMethod());
     }
 
     @Test
-    public void testDeleteEmployee() throws InterruptedException {
+    public void testDeleteEmployee() throws JsonProcessingException, InterruptedException {
         WebClient testWebClient = WebClient.create(mockBackEnd.url("/").url().toString());
         ApiV1Service apiV1Service = new ApiV1Service(testWebClient);
 
@@ -128,7 +514,7 @@ public class ApiV1ServiceTest {
 
         mockBackEnd.enqueue(new MockResponse()
                 .setResponseCode(200)
-                .setBody(Boolean.TRUE.toString())
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(true)))
                 .addHeader("Content-Type", "application/json"));
 
         apiV1Service.deleteEmployee(deleteMockEmployeeInput);
@@ -144,13 +530,51 @@ public class ApiV1ServiceTest {
         DeleteMockEmployeeInput deleteMockEmployeeInput = new DeleteMockEmployeeInput();
         deleteMockEmployeeInput.setName("abc");
 
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(500).addHeader("Content-Type", "application/json"));
+
+        Exception exception = Assertions.assertThrows(
+                RuntimeException.class, () -> apiV1Service.deleteEmployee(deleteMockEmployeeInput));
+        Assertions.assertEquals(
+                "Exception occurred while deleting employee, status code : 500", exception.getMessage());
+        RecordedRequest recordedRequest = mockBackEnd.takeRequest();
+        Assertions.assertEquals("DELETE", recordedRequest.getMethod());
+    }
+
+    @Test
+    public void testConcurrentCreatesAreSentAsOneBulkRequest() throws Exception {
+        WebClient testWebClient =
+                WebClient.create(mockBackEnd.url("/api/v1/employee").url().toString());
+        ApiV1Config apiV1Config = new ApiV1Config();
+        apiV1Config.getBatching().setMaxBatchSize(2);
+        apiV1Config.getBatching().setWindow(Duration.ofMinutes(1));
+        ApiV1Service apiV1Service = new ApiV1Service(testWebClient, apiV1Config);
+        CreateMockEmployeeInput first = new CreateMockEmployeeInput();
+        first.setName("abc");
+        CreateMockEmployeeInput second = new CreateMockEmployeeInput();
+        second.setName("def");
+        MockEmployee created = new MockEmployee();
+        created.setName("abc");
+
         mockBackEnd.enqueue(new MockResponse()
-                .setResponseCode(500)
+                .setResponseCode(200)
+                .setBody(OBJECT_MAPPER.writeValueAsString(Response.handledWith(
+                        List.of(BulkItemResult.succeeded(created), BulkItemResult.failed("name must not be blank")))))
                 .addHeader("Content-Type", "application/json"));
 
-        Exception exception = Assertions.assertThrows(RuntimeException.class, () -> apiV1Service.deleteEmployee(deleteMockEmployeeInput));
-        Assertions.assertEquals("Exception occurred while deleting employee, status code : 500", exception.getMessage());
+        CompletableFuture<MockEmployee> firstResult =
+                apiV1Service.createEmployeeAsync(first).toFuture();
+        CompletableFuture<MockEmployee> secondResult =
+                apiV1Service.createEmployeeAsync(second).toFuture();
+
+        Assertions.assertEquals("abc", firstResult.get(5, TimeUnit.SECONDS).getName());
+        ExecutionException exception =
+                Assertions.assertThrows(ExecutionException.class, () -> secondResult.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(
+                "Exception occurred while creating employee : name must not be blank",
+                exception.getCause().getMessage());
+
         RecordedRequest recordedRequest = mockBackEnd.takeRequest();
-        Assertions.assertEquals("DELETE", recordedRequest.getMethod());
+        Assertions.assertEquals("POST", recordedRequest.getMethod());
+        Assertions.assertEquals("/api/v1/employee/bulk", recordedRequest.getPath());
     }
 }
@@ -0,0 +1,95 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.config.ApiV1Config;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeFollowerTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private ApiV1Service apiV1Service;
+
+    private final ApiV1Config.Changes config = new ApiV1Config.Changes();
+
+    @Test
+    public void testChangesAreAppliedToSnapshot() {
+        MockEmployee kept = employee("kept");
+        MockEmployee deleted = employee("deleted");
+        MockEmployee created = employee("created");
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(kept, deleted), NOW.minusSeconds(60));
+        Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot);
+        Mockito.when(apiV1Service.getChangeSequence(snapshot)).thenReturn(OptionalLong.of(10));
+        Mockito.when(apiV1Service.fetchChanges(10, config.getBatchSize(), config.getPollWait()))
+                .thenReturn(Mono.just(Optional.of(new MockEmployeeChanges(
+                        List.of(
+                                new MockEmployeeChange(11, MockEmployeeChange.Type.CREATE, created),
+                                new MockEmployeeChange(12, MockEmployeeChange.Type.DELETE, deleted)),
+                        12))));
+        Mockito.when(apiV1Service.fetchChanges(12, config.getBatchSize(), config.getPollWait()))
+                .thenReturn(Mono.just(Optional.of(new MockEmployeeChanges(List.of(), 12))));
+
+        EmployeeChangeFollower follower = newFollower();
+        Assertions.assertEquals(Duration.ZERO, follower.pollOnce());
+        Assertions.assertEquals(Duration.ZERO, follower.pollOnce());
+
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertTrue(snapshot.findById(created.getId()).isPresent());
+        Assertions.assertTrue(snapshot.findById(deleted.getId()).isEmpty());
+        Assertions.assertEquals(NOW, snapshot.getFetchedAt());
+    }
+
+    @Test
+    public void testSnapshotIsRebuiltWhenFeedNoLongerRetainsChanges() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee("abc")), NOW);
+        Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot);
+        Mockito.when(apiV1Service.getChangeSequence(snapshot)).thenReturn(OptionalLong.of(10));
+        Mockito.when(apiV1Service.fetchChanges(10, config.getBatchSize(), config.getPollWait()))
+                .thenReturn(Mono.just(Optional.empty()));
+
+        newFollower().pollOnce();
+
+        Mockito.verify(apiV1Service).refreshEmployeeSnapshot();
+    }
+
+    @Test
+    public void testFollowerWaitsForSnapshotWithChangeSequence() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(employee("abc")), NOW);
+        Mockito.when(apiV1Service.getEmployeeSnapshot()).thenReturn(snapshot);
+        Mockito.when(apiV1Service.getChangeSequence(snapshot)).thenReturn(OptionalLong.empty());
+
+        Assertions.assertEquals(config.getRetryBackoff(), newFollower().pollOnce());
+        Mockito.verify(apiV1Service, Mockito.never()).fetchChanges(Mockito.anyLong(), Mockito.anyInt(), Mockito.any());
+    }
+
+    private EmployeeChangeFollower newFollower() {
+        return new EmployeeChangeFollower(apiV1Service, config, Clock.fixed(NOW, ZoneOffset.UTC), false);
+    }
+
+    private static MockEmployee employee(String name) {
+        MockEmployee employee = new MockEmployee();
+        employee.setId(UUID.randomUUID());
+        employee.setName(name);
+        employee.setSalary(100);
+        return employee;
+    }
+}
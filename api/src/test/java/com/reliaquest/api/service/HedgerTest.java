@@ -0,0 +1,140 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.config.ApiV1Config;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class HedgerTest {
+
+    @Test
+    public void testSlowFirstAttemptIsHedged() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(20), 1));
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+
+        String result = hedger.execute(attempt -> {
+                    attempt.sent();
+                    if (attempt.isHedge()) {
+                        return Mono.just("hedge");
+                    }
+                    return Mono.<String>never().doOnCancel(() -> firstCancelled.set(true));
+                })
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("hedge", result);
+        Assertions.assertTrue(firstCancelled.get());
+        Assertions.assertEquals(1, hedger.getSent());
+        Assertions.assertEquals(1, hedger.getWon());
+    }
+
+    @Test
+    public void testFailedHedgeDoesNotFailTheCall() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(20), 1));
+
+        String result = hedger.execute(attempt -> {
+                    attempt.sent();
+                    if (attempt.isHedge()) {
+                        return Mono.error(new RuntimeException("status code : 503"));
+                    }
+                    return Mono.delay(Duration.ofMillis(200)).thenReturn("employee");
+                })
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("employee", result);
+        Assertions.assertEquals(1, hedger.getSent());
+        Assertions.assertEquals(0, hedger.getWon());
+    }
+
+    @Test
+    public void testFirstAttemptErrorFailsTheCall() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(20), 1));
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, () -> hedger.execute(attempt -> {
+                    attempt.sent();
+                    if (attempt.isHedge()) {
+                        return Mono.<String>never();
+                    }
+                    return Mono.delay(Duration.ofMillis(100))
+                            .then(Mono.<String>error(new RuntimeException("status code : 404")));
+                })
+                .block(Duration.ofSeconds(5)));
+
+        Assertions.assertEquals("status code : 404", exception.getMessage());
+        Assertions.assertEquals(1, hedger.getSent());
+    }
+
+    @Test
+    public void testFastFirstAttemptIsNotHedged() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(50), 1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = hedger.execute(attempt -> {
+                    attempts.incrementAndGet();
+                    attempt.sent();
+                    return Mono.just("first");
+                })
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("first", result);
+        Assertions.assertEquals(1, attempts.get());
+        Assertions.assertEquals(0, hedger.getSent());
+    }
+
+    @Test
+    public void testAttemptNotYetSentIsNotHedged() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(10), 1));
+
+        String result = hedger.execute(
+                        attempt -> Mono.delay(Duration.ofMillis(100)).thenReturn("first"))
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("first", result);
+        Assertions.assertEquals(0, hedger.getSent());
+    }
+
+    @Test
+    public void testHedgesAreLimitedToTheirShareOfCalls() {
+        Hedger hedger = new Hedger(hedging(Duration.ofMillis(10), 0.5));
+
+        for (int i = 0; i < 4; i++) {
+            hedger.execute(attempt -> {
+                        attempt.sent();
+                        return Mono.delay(Duration.ofMillis(attempt.isHedge() ? 200 : 100))
+                                .thenReturn("employee");
+                    })
+                    .block(Duration.ofSeconds(5));
+        }
+
+        Assertions.assertEquals(2, hedger.getSent());
+        Assertions.assertEquals(0, hedger.getWon());
+    }
+
+    @Test
+    public void testDelayIsPercentileOfRecentLatencies() {
+        ApiV1Config.Hedging config = hedging(Duration.ofSeconds(1), 1);
+        config.setMinDelay(Duration.ofMillis(1));
+        config.setPercentile(0.9);
+        config.setWindow(100);
+        Hedger hedger = new Hedger(config);
+        Assertions.assertEquals(Duration.ofSeconds(1), hedger.getDelay());
+
+        // the delay is recomputed every 50 recordings, over the last 100: 21 to 120 ms
+        for (int i = 1; i <= 120; i++) {
+            hedger.record(Duration.ofMillis(i).toNanos());
+        }
+
+        Assertions.assertEquals(Duration.ofMillis(110), hedger.getDelay());
+    }
+
+    private static ApiV1Config.Hedging hedging(Duration delay, double maxHedgeRatio) {
+        ApiV1Config.Hedging config = new ApiV1Config.Hedging();
+        config.setEnabled(true);
+        config.setMinDelay(delay);
+        config.setMaxDelay(delay);
+        config.setMaxHedgeRatio(maxHedgeRatio);
+        return config;
+    }
+}
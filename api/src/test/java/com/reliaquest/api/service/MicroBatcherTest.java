@@ -0,0 +1,94 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class MicroBatcherTest {
+
+    @Test
+    public void testFullBatchIsSentAsOneCall() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>(
+                3,
+                Duration.ofMinutes(1),
+                Schedulers.parallel(),
+                item -> Mono.error(new AssertionError("single call")),
+                items -> {
+                    batches.add(items);
+                    return Mono.just(
+                            items.stream().map(item -> "employee-" + item).toList());
+                });
+
+        List<Mono<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batcher.submit(i));
+        }
+        List<String> employees = Mono.zip(results, values -> List.of(values).stream()
+                        .map(String.class::cast)
+                        .toList())
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(List.of("employee-0", "employee-1", "employee-2"), employees);
+        Assertions.assertEquals(List.of(List.of(0, 1, 2)), batches);
+    }
+
+    @Test
+    public void testLoneItemUsesSingleCallAfterWindow() {
+        AtomicInteger batchCalls = new AtomicInteger();
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>(
+                100, Duration.ofMillis(10), Schedulers.parallel(), item -> Mono.just("employee-" + item), items -> {
+                    batchCalls.incrementAndGet();
+                    return Mono.just(List.of());
+                });
+
+        Assertions.assertEquals("employee-7", batcher.submit(7).block(Duration.ofSeconds(5)));
+        Assertions.assertEquals(0, batchCalls.get());
+    }
+
+    @Test
+    public void testBatchErrorIsSharedByEveryCaller() {
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>(
+                2,
+                Duration.ofMinutes(1),
+                Schedulers.parallel(),
+                item -> Mono.just("employee-" + item),
+                items -> Mono.error(new RuntimeException("status code : 429")));
+
+        CompletableFuture<String> first = batcher.submit(1).toFuture();
+        CompletableFuture<String> second = batcher.submit(2).toFuture();
+
+        for (CompletableFuture<String> result : List.of(first, second)) {
+            ExecutionException exception =
+                    Assertions.assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals("status code : 429", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testResultCountMismatchFailsTheBatch() {
+        MicroBatcher<Integer, String> batcher = new MicroBatcher<>(
+                2,
+                Duration.ofMinutes(1),
+                Schedulers.parallel(),
+                item -> Mono.just("employee-" + item),
+                items -> Mono.just(List.of("employee-1")));
+
+        CompletableFuture<String> first = batcher.submit(1).toFuture();
+        CompletableFuture<String> second = batcher.submit(2).toFuture();
+
+        ExecutionException exception =
+                Assertions.assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+        Assertions.assertTrue(second.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,88 @@
+package com.reliaquest.api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class RequestCoalescerTest {
+
+    @Test
+    public void testConcurrentCallsForSameKeyShareOneLoad() throws Exception {
+        RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> coalescer
+                        .execute(
+                                "id",
+                                key -> Mono.fromCallable(() -> {
+                                    loads.incrementAndGet();
+                                    await(release);
+                                    return "employee-" + key;
+                                }))
+                        .block()));
+            }
+            while (coalescer.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+            // give the other callers time to join the in-flight call
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Assertions.assertEquals("employee-id", result.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, loads.get());
+            Assertions.assertEquals(0, coalescer.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsSharedAndNotCached() {
+        RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, () -> coalescer
+                .execute("id", key -> Mono.<String>error(new RuntimeException("status code : 500")))
+                .block());
+        Assertions.assertEquals("status code : 500", exception.getMessage());
+
+        Assertions.assertEquals(
+                "ok", coalescer.execute("id", key -> Mono.just("ok")).block());
+    }
+
+    @Test
+    public void testDifferentKeysAreNotCoalesced() {
+        RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        coalescer
+                .execute("a", key -> Mono.fromCallable(() -> key + loads.incrementAndGet()))
+                .block();
+        coalescer
+                .execute("b", key -> Mono.fromCallable(() -> key + loads.incrementAndGet()))
+                .block();
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
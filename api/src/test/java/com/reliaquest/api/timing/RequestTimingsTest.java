@@ -0,0 +1,70 @@
+package com.reliaquest.api.timing;
+
+import com.reliaquest.api.timing.RequestTimings.Stage;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RequestTimingsTest {
+
+    @Test
+    public void testServerTimingListsRecordedStagesInOrder() {
+        RequestTimings timings = new RequestTimings("GET /api/v2/employee");
+        timings.record(Stage.AGGREGATE, 250_000);
+        timings.record(Stage.UPSTREAM, 12_000_000);
+        timings.record(Stage.UPSTREAM, 3_000_000);
+
+        String serverTiming = timings.responseStarted();
+
+        Assertions.assertTrue(
+                serverTiming.startsWith("upstream;dur=15.000;desc=\"Upstream round trip until response headers\", "
+                        + "aggregate;dur=0.250;desc=\"In-memory search and aggregation\", total;dur="),
+                serverTiming);
+    }
+
+    @Test
+    public void testSpanIsRecordedOnce() {
+        RequestTimings timings = new RequestTimings("GET /api/v2/employee");
+        RequestTimings.Span span = timings.start(Stage.QUEUE);
+        span.end();
+        long recorded = timings.nanos(Stage.QUEUE);
+        span.end();
+
+        Assertions.assertTrue(recorded > 0);
+        Assertions.assertEquals(recorded, timings.nanos(Stage.QUEUE));
+    }
+
+    @Test
+    public void testIncludeAddsSharedStages() {
+        RequestTimings listing = RequestTimings.shared("employee listing");
+        listing.record(Stage.DECODE, 2_000_000);
+        RequestTimings timings = new RequestTimings("GET /api/v2/employee");
+        timings.record(Stage.DECODE, 1_000_000);
+
+        timings.include(listing);
+        RequestTimings.NONE.include(listing);
+
+        Assertions.assertEquals(3_000_000, timings.nanos(Stage.DECODE));
+        Assertions.assertEquals(0, RequestTimings.NONE.nanos(Stage.DECODE));
+    }
+
+    @Test
+    public void testFilterBindsTimingsWhileHandlingV2Requests() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter();
+        AtomicReference<RequestTimings> seen = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v2/employee/highestSalary");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(RequestTimings.current()));
+
+        Assertions.assertSame(RequestTimings.of(request), seen.get());
+        Assertions.assertNotSame(RequestTimings.NONE, seen.get());
+        Assertions.assertSame(RequestTimings.NONE, RequestTimings.current());
+
+        MockHttpServletRequest actuatorRequest = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        filter.doFilter(
+                actuatorRequest, new MockHttpServletResponse(), (req, res) -> seen.set(RequestTimings.current()));
+        Assertions.assertSame(RequestTimings.NONE, seen.get());
+    }
+}
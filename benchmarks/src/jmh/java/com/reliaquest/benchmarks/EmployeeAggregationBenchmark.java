@@ -0,0 +1,108 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeSnapshot;
+import com.reliaquest.api.cache.TitleAggregate;
+import com.reliaquest.api.controller.EmployeeQueryController;
+import com.reliaquest.api.controller.EndpointMetrics;
+import com.reliaquest.api.controller.IEmployeeControllerImpl;
+import com.reliaquest.api.service.ApiV1Service;
+import com.reliaquest.server.model.MockEmployee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The search, highest salary and top ten endpoints of {@link IEmployeeControllerImpl}, and the range query and
+ * per-title aggregate of {@link EmployeeQueryController}, answered from a snapshot of {@code size} employees. The
+ * service is stubbed to return that snapshot, so no upstream request is made. {@code buildSnapshot} is the indexing
+ * cost paid on every refresh of the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeAggregationBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    // Common in generated last names, so it matches a share of employees at every size
+    @Param({"son"})
+    private String searchString;
+
+    private List<MockEmployee> employees;
+
+    private IEmployeeControllerImpl controller;
+
+    private EmployeeQueryController queryController;
+
+    @Setup
+    public void setUp() {
+        employees = EmployeeDataSets.employees(size);
+        final var snapshot = EmployeeSnapshot.of(employees, Instant.now());
+        final var apiV1Service = new ApiV1Service(WebClient.create()) {
+            @Override
+            public EmployeeSnapshot getEmployeeSnapshot() {
+                return snapshot;
+            }
+
+            // the snapshot outlives its ttl during a run, which would add staleness headers partway through
+            @Override
+            public Optional<Duration> getStaleness(EmployeeSnapshot snapshot) {
+                return Optional.empty();
+            }
+        };
+        final var endpointMetrics = new EndpointMetrics(new SimpleMeterRegistry());
+        controller = new IEmployeeControllerImpl(apiV1Service, endpointMetrics);
+        queryController = new EmployeeQueryController(apiV1Service, endpointMetrics);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<MockEmployee>> searchByName() {
+        return controller.getEmployeesByNameSearch(searchString);
+    }
+
+    @Benchmark
+    public ResponseEntity<Integer> highestSalary() {
+        return controller.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<String>> topTenEarnerNames() {
+        return controller.getTopTenHighestEarningEmployeeNames();
+    }
+
+    // salaries are drawn from 30,000 to 500,000 and ages from 16 to 70, so about 1% of employees match
+    @Benchmark
+    public ResponseEntity<List<MockEmployee>> salaryAndAgeRangeQuery() {
+        return queryController.queryEmployees(100000, 120000, null, 29, null, "salary", "desc", 100);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<TitleAggregate>> averageSalaryByTitle() {
+        return queryController.aggregateEmployeesByTitle(200000, null, null, null, null);
+    }
+
+    @Benchmark
+    public EmployeeSnapshot buildSnapshot() {
+        return EmployeeSnapshot.of(employees, Instant.now());
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.config.BulkMockEmployeeGenerator;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seeded employee data sets shared by the benchmarks, so every run and every benchmark sees the same employees for a
+ * given size. Names get the employee's position appended to make them unique, as deletes go by name.
+ */
+final class EmployeeDataSets {
+
+    static final long SEED = 42;
+
+    private static final Map<Integer, List<MockEmployee>> DATA_SETS = new ConcurrentHashMap<>();
+
+    private EmployeeDataSets() {}
+
+    /**
+     * @return the data set of {@code size} employees; callers must not modify it or its employees
+     */
+    static List<MockEmployee> employees(int size) {
+        return DATA_SETS.computeIfAbsent(size, EmployeeDataSets::generate);
+    }
+
+    private static List<MockEmployee> generate(int size) {
+        final var generated = new BulkMockEmployeeGenerator(SEED, Locale.US).generate(size);
+        final var employees = new ArrayList<MockEmployee>(size);
+        for (int i = 0; i < size; i++) {
+            final var employee = generated.get(i);
+            employees.add(
+                    employee.toBuilder().name(employee.getName() + " " + i).build());
+        }
+        return List.copyOf(employees);
+    }
+}
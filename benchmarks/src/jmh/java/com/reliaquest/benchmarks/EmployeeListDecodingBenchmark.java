@@ -0,0 +1,96 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.EmployeeListDecoder;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Decoding of the v1 employee list, the body behind {@code ApiV1Service.getAllEmployeeList()}. The payload arrives in
+ * 8 KiB chunks, about what Reactor Netty hands over at a time.
+ * <ul>
+ *     <li>{@code decodeStreaming} feeds the chunks to {@link EmployeeListDecoder} as they arrive;</li>
+ *     <li>{@code joinAndRead} is the path the decoder replaced: the chunks joined into one buffer, then read with an
+ *     {@link ObjectMapper} built for the call;</li>
+ *     <li>{@code readWholeBody} binds the whole body in one go with a shared mapper, as a reference point.</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare allocation per decode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeListDecodingBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final TypeReference<Response<List<MockEmployee>>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private final EmployeeListDecoder decoder = new EmployeeListDecoder();
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = OBJECT_MAPPER.writeValueAsBytes(Response.handledWith(EmployeeDataSets.employees(size)));
+    }
+
+    @Benchmark
+    public List<MockEmployee> decodeStreaming() {
+        return decoder.decode(chunks()).collectList().block();
+    }
+
+    @Benchmark
+    public List<MockEmployee> joinAndRead() throws IOException {
+        final var joined = DataBufferUtils.join(chunks()).block();
+        final var objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try (final var body = joined.asInputStream(true)) {
+            return objectMapper.readValue(body, RESPONSE_TYPE).data();
+        }
+    }
+
+    @Benchmark
+    public List<MockEmployee> readWholeBody() throws IOException {
+        return OBJECT_MAPPER.readValue(body, RESPONSE_TYPE).data();
+    }
+
+    // Buffers are consumed by reading, so each decode gets fresh ones over the same bytes
+    private Flux<DataBuffer> chunks() {
+        final var chunks = (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return Flux.range(0, chunks).map(chunk -> {
+            final var offset = chunk * CHUNK_SIZE;
+            final var length = Math.min(CHUNK_SIZE, body.length - offset);
+            return DefaultDataBufferFactory.sharedInstance.wrap(
+                    ByteBuffer.wrap(body, offset, length).slice());
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.EmployeeTable;
+import com.reliaquest.api.cache.NameNgramIndex;
+import com.reliaquest.api.cache.SalaryIndex;
+import com.reliaquest.server.model.MockEmployee;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * The cached employee set held as {@code objects}, one {@link MockEmployee} per employee in an id map with
+ * {@link SalaryIndex} and {@link NameNgramIndex} over them, against the same employees in an {@link EmployeeTable}.
+ * <ul>
+ *     <li>the retained heap of each layout is measured once per fork across a full GC, and reported with the results
+ *     as the {@code retainedBytes} and {@code retainedBytesPerEmployee} secondary metrics;</li>
+ *     <li>{@code build} indexes an already decoded listing;</li>
+ *     <li>{@code refresh} decodes a new copy of the listing and indexes it while the previous one stays reachable, as
+ *     the snapshot cache does; run it with {@code -prof gc} to compare allocation and GC time.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeSnapshotFootprintBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"objects", "table"})
+    private String layout;
+
+    private List<MockEmployee> employees;
+
+    private Function<List<MockEmployee>, Object> indexer;
+
+    private Object current;
+
+    private long retainedBytes;
+
+    @Setup
+    public void setUp() {
+        employees = EmployeeDataSets.employees(size);
+        indexer = "table".equals(layout) ? EmployeeTable::of : ObjectLayout::new;
+
+        final var before = usedHeapAfterGc();
+        current = indexer.apply(decoded(employees));
+        retainedBytes = usedHeapAfterGc() - before;
+    }
+
+    @Benchmark
+    public Object build(Footprint footprint) {
+        footprint.record(retainedBytes, size);
+        return indexer.apply(employees);
+    }
+
+    @Benchmark
+    public Object refresh(Footprint footprint) {
+        footprint.record(retainedBytes, size);
+        current = indexer.apply(decoded(employees));
+        return current;
+    }
+
+    /**
+     * Carries the retained heap measured at setup into the results, where JMH reports it next to the score instead of
+     * in the log. JMH zeroes the counters as each iteration starts, so every call sets them again, and sums them over
+     * the measurement iterations, so each iteration carries its share.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double retainedBytes;
+
+        public double retainedBytesPerEmployee;
+
+        private int iterations;
+
+        @Setup
+        public void setUp(BenchmarkParams params) {
+            iterations = params.getMeasurement().getCount();
+        }
+
+        void record(long retained, int employees) {
+            retainedBytes = (double) retained / iterations;
+            retainedBytesPerEmployee = retainedBytes / employees;
+        }
+    }
+
+    /**
+     * @return copies of the employees with their own strings, as the list decoder would produce them
+     */
+    private static List<MockEmployee> decoded(List<MockEmployee> employees) {
+        final var decoded = new ArrayList<MockEmployee>(employees.size());
+        for (final var employee : employees) {
+            decoded.add(employee.toBuilder()
+                    .id(new UUID(
+                            employee.getId().getMostSignificantBits(),
+                            employee.getId().getLeastSignificantBits()))
+                    .name(copy(employee.getName()))
+                    .title(copy(employee.getTitle()))
+                    .email(copy(employee.getEmail()))
+                    .build());
+        }
+        return decoded;
+    }
+
+    private static String copy(String value) {
+        return value == null ? null : new String(value.toCharArray());
+    }
+
+    private static long usedHeapAfterGc() {
+        final var memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * The shape the snapshot had before the table: the employees by id, plus the per-object indexes.
+     */
+    private static final class ObjectLayout {
+
+        private final Map<UUID, MockEmployee> employeesById;
+        private final SalaryIndex salaryIndex;
+        private final NameNgramIndex nameIndex = new NameNgramIndex();
+
+        private ObjectLayout(List<MockEmployee> employees) {
+            employeesById = new ConcurrentHashMap<>(Math.max(16, employees.size() * 4 / 3 + 1));
+            employees.forEach(employee -> employeesById.put(employee.getId(), employee));
+            salaryIndex = SalaryIndex.of(employeesById.values());
+            employeesById.values().forEach(employee -> nameIndex.add(employee.getId(), employee.getName()));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.EmployeeLogRecord;
+import com.reliaquest.server.persistence.EmployeeWriteAheadLog;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Records per second through the {@link EmployeeWriteAheadLog} alone, without HTTP, from 16 writers doing three creates
+ * to one delete. Run with {@code -t 64} for more writers.
+ * <p>
+ * {@code directory} is where the segments go, a fresh temporary directory when empty. Point it at the disk under test
+ * with {@code -p directory=...}, as the temporary directory may be a tmpfs where fsync costs nothing. Compaction is
+ * off so only appends are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class EmployeeWriteAheadLogBenchmark {
+
+    @Param({"batch", "never"})
+    private String sync;
+
+    @Param({"1", "256"})
+    private int batchSize;
+
+    @Param({"0", "2"})
+    private long batchDelayMillis;
+
+    @Param({""})
+    private String directory;
+
+    private final AtomicLong writers = new AtomicLong();
+
+    private Path logDirectory;
+
+    private MockEmployeeStore store;
+
+    private EmployeeWriteAheadLog writeAheadLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDirectory = directory.isEmpty()
+                ? Files.createTempDirectory("employee-wal")
+                : Files.createTempDirectory(Files.createDirectories(Path.of(directory)), "employee-wal");
+        store = new MockEmployeeStore(List.of());
+        writeAheadLog = new EmployeeWriteAheadLog(
+                store,
+                logDirectory.resolve("wal").toString(),
+                logDirectory.resolve("employees.snapshot").toString(),
+                sync,
+                batchSize,
+                Duration.ofMillis(batchDelayMillis),
+                Long.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException, IOException {
+        writeAheadLog.destroy();
+        try (Stream<Path> files = Files.walk(logDirectory)) {
+            for (final var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private long writer;
+
+        private long next;
+
+        @Setup(Level.Trial)
+        public void setUp(EmployeeWriteAheadLogBenchmark benchmark) {
+            writer = benchmark.writers.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public EmployeeLogRecord append(Writer writer) {
+        final var record = writer.next++;
+        if (record % 4 == 3) {
+            // the employee created three records ago
+            final var name = name(writer.writer, record - 3);
+            return writeAheadLog.append(() ->
+                    store.removeByName(name).map(EmployeeLogRecord::deleted).orElse(null));
+        }
+        final var employee = MockEmployee.builder()
+                .id(new UUID(writer.writer, record))
+                .name(name(writer.writer, record))
+                .salary(100_000)
+                .age(35)
+                .title("Engineer")
+                .email("writer" + writer.writer + "." + record + "@company.com")
+                .build();
+        return writeAheadLog.append(() -> {
+            store.add(employee);
+            return EmployeeLogRecord.created(employee);
+        });
+    }
+
+    private static String name(long writer, long record) {
+        return "Writer " + writer + " employee " + record;
+    }
+}
@@ -0,0 +1,73 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON binding of {@link MockEmployee}, whose property names go through its {@code PrefixNamingStrategy}. The single
+ * employee benchmarks are what each by-id and write request pays; {@code writeList} is the v1 listing body for
+ * {@code size} employees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MockEmployeeJsonBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private final ObjectWriter employeeWriter = OBJECT_MAPPER.writerFor(MockEmployee.class);
+
+    private final ObjectReader employeeReader = OBJECT_MAPPER.readerFor(MockEmployee.class);
+
+    private Response<List<MockEmployee>> listResponse;
+
+    private MockEmployee employee;
+
+    private byte[] employeeJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var employees = EmployeeDataSets.employees(size);
+        listResponse = Response.handledWith(employees);
+        employee = employees.get(employees.size() / 2);
+        employeeJson = employeeWriter.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public byte[] writeEmployee() throws IOException {
+        return employeeWriter.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public MockEmployee readEmployee() throws IOException {
+        return employeeReader.readValue(employeeJson);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return OBJECT_MAPPER.writeValueAsBytes(listResponse);
+    }
+}
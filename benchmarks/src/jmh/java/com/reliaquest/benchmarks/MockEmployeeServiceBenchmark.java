@@ -0,0 +1,94 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.EmployeeWriteAheadLog;
+import com.reliaquest.server.service.MockEmployeeChangeFeed;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.datafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link MockEmployeeService} lookups and deletes against a store of {@code size} employees, with the write-ahead log
+ * disabled. Employees are visited in a shuffled order so lookups do not walk the store in insertion order.
+ * <p>
+ * {@code deleteByName} puts each deleted employee straight back into the store, so the store keeps its size; the
+ * re-add is part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MockEmployeeServiceBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    private MockEmployeeStore store;
+
+    private MockEmployeeService service;
+
+    private MockEmployee[] shuffled;
+
+    private DeleteMockEmployeeInput[] deleteInputs;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var employees = EmployeeDataSets.employees(size);
+        store = new MockEmployeeStore(employees);
+        final var writeAheadLog = new EmployeeWriteAheadLog(store, "", "", "never", 1, Duration.ZERO, 0);
+        service =
+                new MockEmployeeService(new Faker(Locale.US), store, writeAheadLog, new MockEmployeeChangeFeed(10_000));
+
+        final var order = new ArrayList<>(employees);
+        Collections.shuffle(order, new Random(EmployeeDataSets.SEED));
+        shuffled = order.toArray(MockEmployee[]::new);
+        deleteInputs = new DeleteMockEmployeeInput[shuffled.length];
+        for (int i = 0; i < shuffled.length; i++) {
+            deleteInputs[i] = new DeleteMockEmployeeInput();
+            deleteInputs[i].setName(shuffled[i].getName());
+        }
+    }
+
+    @Benchmark
+    public Optional<MockEmployee> findById() {
+        return service.findById(shuffled[nextIndex()].getId());
+    }
+
+    @Benchmark
+    public boolean deleteByName() {
+        final var index = nextIndex();
+        final var deleted = service.delete(deleteInputs[index]);
+        store.add(shuffled[index]);
+        return deleted;
+    }
+
+    private int nextIndex() {
+        final var index = next;
+        next = index + 1 == shuffled.length ? 0 : index + 1;
+        return index;
+    }
+}
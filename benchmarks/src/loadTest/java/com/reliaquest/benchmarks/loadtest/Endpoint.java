@@ -0,0 +1,39 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * v2 endpoints the load test can drive, named in {@code loadTest.mix} by {@link #key()}.
+ */
+enum Endpoint {
+    LIST("list", "GET /"),
+    SEARCH("search", "GET /search/{searchString}"),
+    BY_ID("byId", "GET /{id}"),
+    HIGHEST_SALARY("highestSalary", "GET /highestSalary"),
+    TOP_TEN("topTen", "GET /topTenHighestEarningEmployeeNames"),
+    CREATE("create", "POST /"),
+    DELETE("delete", "DELETE /{id}");
+
+    private final String key;
+    private final String route;
+
+    Endpoint(String key, String route) {
+        this.key = key;
+        this.route = route;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String route() {
+        return route;
+    }
+
+    static Endpoint fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equalsIgnoreCase(key.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint in loadTest.mix: " + key));
+    }
+}
@@ -0,0 +1,94 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcomes of the requests sent to one endpoint. Latency is recorded for successful responses only, measured from the
+ * moment the request was due to be sent, so time spent queued behind a slow generator or a full connection pool is
+ * included.
+ */
+final class EndpointStats {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    void sent() {
+        sent.increment();
+    }
+
+    void completed(int status, long latencyMicros) {
+        if (status >= 200 && status < 300) {
+            latency.record(latencyMicros);
+        } else if (status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            rateLimited.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void failed(Throwable error) {
+        if (error instanceof HttpTimeoutException || error.getCause() instanceof HttpTimeoutException) {
+            timeouts.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    /**
+     * The arrival found {@code maxInFlight} requests outstanding and was not sent.
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    /**
+     * The arrival had nothing to act on, e.g. a delete with no employee left to delete.
+     */
+    void skipped() {
+        skipped.increment();
+    }
+
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    long sentCount() {
+        return sent.sum();
+    }
+
+    long succeededCount() {
+        return latency.count();
+    }
+
+    long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    long errorCount() {
+        return errors.sum();
+    }
+
+    long timeoutCount() {
+        return timeouts.sum();
+    }
+
+    long failureCount() {
+        return failures.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    long skippedCount() {
+        return skipped.sum();
+    }
+}
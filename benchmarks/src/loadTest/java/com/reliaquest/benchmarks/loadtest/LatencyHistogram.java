@@ -0,0 +1,110 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent log-linear histogram of latencies in microseconds. Values below 32 get a bucket each; every power of two
+ * above is split into 16 equal buckets, so a reported percentile is within about 6% of the recorded value.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int LINEAR_BITS = 5;
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        final var value = Math.max(0, micros);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        max.accumulate(value);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    /**
+     * @return the upper bound of the bucket holding the value at quantile {@code q}, capped at the recorded maximum
+     */
+    long percentileMicros(double q) {
+        final var total = count();
+        if (total == 0) {
+            return 0;
+        }
+        final var rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), maxMicros());
+            }
+        }
+        return maxMicros();
+    }
+
+    /**
+     * Counts per power of two of microseconds, from the first to the last one holding a value.
+     */
+    List<Bucket> powerOfTwoBuckets() {
+        final var buckets = new ArrayList<Bucket>();
+        buckets.add(new Bucket(0, LINEAR_BUCKETS, sum(0, LINEAR_BUCKETS)));
+        for (int magnitude = LINEAR_BITS; magnitude < Long.SIZE - 1; magnitude++) {
+            final var first = LINEAR_BUCKETS + (magnitude - LINEAR_BITS) * SUB_BUCKETS;
+            buckets.add(new Bucket(1L << magnitude, 1L << (magnitude + 1), sum(first, first + SUB_BUCKETS)));
+        }
+        var from = 0;
+        while (from < buckets.size() && buckets.get(from).count() == 0) {
+            from++;
+        }
+        var to = buckets.size();
+        while (to > from && buckets.get(to - 1).count() == 0) {
+            to--;
+        }
+        return buckets.subList(from, to);
+    }
+
+    private long sum(int fromBucket, int toBucket) {
+        long sum = 0;
+        for (int bucket = fromBucket; bucket < toBucket; bucket++) {
+            sum += counts.get(bucket);
+        }
+        return sum;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        final var magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final var subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (magnitude - LINEAR_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final var magnitude = LINEAR_BITS + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+        final var subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Values from {@code fromMicros} inclusive to {@code toMicros} exclusive.
+     */
+    record Bucket(long fromMicros, long toMicros, long count) {}
+}
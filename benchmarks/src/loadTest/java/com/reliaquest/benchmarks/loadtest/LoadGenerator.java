@@ -0,0 +1,182 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests start at a fixed rate on one dispatcher thread, independent of how long earlier
+ * ones take, so a slow server builds up outstanding requests instead of quietly lowering the load.
+ * <p>
+ * Lookups and searches draw on one half of the employees listed at startup, deletes consume the other half, so a
+ * lookup never races a delete of the same employee.
+ */
+final class LoadGenerator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final List<MockEmployee> lookupEmployees;
+    private final ArrayDeque<UUID> deletableIds = new ArrayDeque<>();
+    private final Semaphore inFlight;
+
+    LoadGenerator(HttpClient httpClient, URI baseUri, LoadTestSettings settings, List<MockEmployee> employees) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.seed());
+        this.endpoints = settings.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        var total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += settings.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        final var half = employees.size() / 2;
+        this.lookupEmployees = List.copyOf(employees.subList(0, Math.max(1, half)));
+        employees
+                .subList(lookupEmployees.size(), employees.size())
+                .forEach(employee -> deletableIds.add(employee.getId()));
+        this.inFlight = new Semaphore(settings.maxInFlight());
+    }
+
+    /**
+     * Sends requests at the configured rate for {@code duration}, then waits for the outstanding ones to complete.
+     */
+    Map<Endpoint, EndpointStats> run(Duration duration) throws InterruptedException {
+        final var stats = new EnumMap<Endpoint, EndpointStats>(Endpoint.class);
+        for (final var endpoint : endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        final var start = System.nanoTime();
+        final var arrivals = (long) (duration.toNanos() / 1e9 * settings.rate());
+        for (long arrival = 0; arrival < arrivals; arrival++) {
+            final var due = start + (long) (arrival * 1e9 / settings.rate());
+            parkUntil(due);
+            final var endpoint = nextEndpoint();
+            final var endpointStats = stats.get(endpoint);
+            if (!inFlight.tryAcquire()) {
+                endpointStats.dropped();
+                continue;
+            }
+            final var request = newRequest(endpoint);
+            if (request == null) {
+                endpointStats.skipped();
+                inFlight.release();
+            } else {
+                endpointStats.sent();
+                httpClient
+                        .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            final var latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+                            if (error != null) {
+                                endpointStats.failed(error);
+                            } else {
+                                endpointStats.completed(response.statusCode(), latencyMicros);
+                            }
+                            inFlight.release();
+                        });
+            }
+        }
+        final var drainTimeout = settings.timeout().plusSeconds(5);
+        if (!inFlight.tryAcquire(settings.maxInFlight(), drainTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("Requests still outstanding " + drainTimeout + " after the run ended");
+        }
+        inFlight.release(settings.maxInFlight());
+        return stats;
+    }
+
+    private Endpoint nextEndpoint() {
+        final var pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < endpoints.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + pick + " outside the mix");
+    }
+
+    /**
+     * @return the next request for {@code endpoint}, or {@code null} when there is nothing left for it to act on
+     */
+    private HttpRequest newRequest(Endpoint endpoint) {
+        return switch (endpoint) {
+            case LIST -> get("");
+            case SEARCH -> get("/search/"
+                    + URLEncoder.encode(searchString(), StandardCharsets.UTF_8).replace("+", "%20"));
+            case BY_ID -> get("/" + randomLookupEmployee().getId());
+            case HIGHEST_SALARY -> get("/highestSalary");
+            case TOP_TEN -> get("/topTenHighestEarningEmployeeNames");
+            case CREATE -> request("")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(createBody()))
+                    .build();
+            case DELETE -> {
+                final var id = deletableIds.poll();
+                yield id == null ? null : request("/" + id).DELETE().build();
+            }
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(settings.timeout());
+    }
+
+    private MockEmployee randomLookupEmployee() {
+        return lookupEmployees.get(random.nextInt(lookupEmployees.size()));
+    }
+
+    // The first few letters of a last name, which usually match several employees
+    private String searchString() {
+        final var name = randomLookupEmployee().getName();
+        final var lastName = name.substring(name.lastIndexOf(' ') + 1);
+        return lastName.substring(0, Math.min(4, lastName.length()));
+    }
+
+    private byte[] createBody() {
+        final var input = new CreateMockEmployeeInput();
+        input.setName("Load Test " + random.nextInt(1_000_000));
+        input.setSalary(30_000 + random.nextInt(470_000));
+        input.setAge(16 + random.nextInt(54));
+        input.setTitle("Load Tester");
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(input);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
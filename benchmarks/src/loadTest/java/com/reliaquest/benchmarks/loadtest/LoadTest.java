@@ -0,0 +1,145 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.ApiApplication;
+import com.reliaquest.server.ServerApplication;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Starts the mock server and the API application in this JVM on ephemeral ports, drives the v2 API with
+ * {@link LoadGenerator} for a warmup and then a measured run, and reports the measured run. Neither application reads
+ * its {@code application.yml}: both jars carry one under the same name, so every property is set here instead.
+ * <p>
+ * Run with {@code ./gradlew benchmarks:loadTest}; see {@link LoadTestSettings} for the {@code -PloadTest.*} options.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER =
+            new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final TypeReference<List<MockEmployee>> EMPLOYEE_LIST = new TypeReference<>() {};
+
+    private static final int LISTING_ATTEMPTS = 10;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        final var settings = LoadTestSettings.fromSystemProperties();
+        final var upstreamCalls = new UpstreamCallCounter();
+        try (final var server = startServer(settings, upstreamCalls);
+                final var api = startApi(settings, port(server))) {
+            final var baseUri = URI.create("http://localhost:" + port(api) + "/api/v2/employee");
+            final var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(settings.timeout())
+                    .executor(Executors.newCachedThreadPool())
+                    .build();
+
+            final var employees = new ArrayList<>(listEmployees(httpClient, baseUri));
+            Collections.shuffle(employees, new Random(settings.seed()));
+            final var generator = new LoadGenerator(httpClient, baseUri, settings, employees);
+
+            System.out.printf("Warming up for %s at %.1f requests/s%n", settings.warmup(), settings.rate());
+            generator.run(settings.warmup());
+            upstreamCalls.reset();
+
+            System.out.printf("Measuring for %s at %.1f requests/s%n", settings.duration(), settings.rate());
+            final var stats = generator.run(settings.duration());
+            final var report = LoadTestReport.of(settings, stats, upstreamCalls.snapshot());
+            report.print(System.out);
+            report.write(settings.report());
+            System.out.printf("%nReport written to %s%n", settings.report().toAbsolutePath());
+        }
+        // the HTTP client's threads would otherwise keep the JVM alive
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startServer(
+            LoadTestSettings settings, UpstreamCallCounter upstreamCalls) {
+        final var properties = commonProperties("loadtest-server");
+        properties.put("mock.employees.max", settings.employees());
+        properties.put("mock.employees.generator", "bulk");
+        properties.put("mock.employees.seed", settings.seed());
+        if (settings.upstreamLimit() == null) {
+            properties.put("mock.rate-limit.enabled", false);
+        } else {
+            final var limit = settings.upstreamLimit().split("/");
+            if (limit.length != 2) {
+                throw new IllegalArgumentException(
+                        "loadTest.upstreamLimit looks like <requests>/<period>, got " + settings.upstreamLimit());
+            }
+            properties.put("mock.rate-limit.limit", limit[0].trim());
+            properties.put("mock.rate-limit.period", limit[1].trim());
+        }
+        properties.putAll(settings.serverProperties());
+        return new SpringApplicationBuilder(ServerApplication.class)
+                .properties(properties)
+                .initializers(context -> ((GenericApplicationContext) context)
+                        .registerBean("upstreamCallCounter", UpstreamCallCounter.class, () -> upstreamCalls))
+                .run();
+    }
+
+    private static ConfigurableApplicationContext startApi(LoadTestSettings settings, int serverPort) {
+        final var properties = commonProperties("loadtest-api");
+        properties.put("webclient.api.v1.endpoint", "http://localhost:" + serverPort + "/api/v1/employee");
+        properties.putAll(settings.apiProperties());
+        return new SpringApplicationBuilder(ApiApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private static Map<String, Object> commonProperties(String name) {
+        final var properties = new TreeMap<String, Object>();
+        properties.put("spring.config.name", name);
+        properties.put("spring.application.name", name);
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("server.port", 0);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.reliaquest", "WARN");
+        return properties;
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Lists the employees through the v2 API, which also loads its snapshot before the warmup starts. Retried while a
+     * tight upstream limit rejects the listing.
+     */
+    private static List<MockEmployee> listEmployees(HttpClient httpClient, URI baseUri)
+            throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(baseUri).GET().build();
+        for (int attempt = 1; ; attempt++) {
+            final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                final var employees = OBJECT_MAPPER.readValue(response.body(), EMPLOYEE_LIST);
+                if (employees.isEmpty()) {
+                    throw new IllegalStateException("The mock server has no employees to load test with");
+                }
+                return employees;
+            }
+            if (attempt == LISTING_ATTEMPTS) {
+                throw new IllegalStateException("Listing employees failed with status " + response.statusCode());
+            }
+            Thread.sleep(1_000);
+        }
+    }
+}
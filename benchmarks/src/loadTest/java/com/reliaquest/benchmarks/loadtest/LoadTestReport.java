@@ -0,0 +1,150 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reliaquest.benchmarks.loadtest.UpstreamCallCounter.UpstreamCalls;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of the measured part of a load test run. Error and 429 rates are shares of the requests sent; latencies are
+ * in milliseconds.
+ */
+record LoadTestReport(
+        double rate,
+        Duration duration,
+        int employees,
+        String upstreamLimit,
+        Map<String, EndpointReport> endpoints,
+        Map<String, UpstreamCalls> upstreamCalls,
+        double upstreamCallsPerRequest) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    static LoadTestReport of(
+            LoadTestSettings settings, Map<Endpoint, EndpointStats> stats, Map<String, UpstreamCalls> upstreamCalls) {
+        final var endpoints = new LinkedHashMap<String, EndpointReport>();
+        stats.forEach((endpoint, endpointStats) ->
+                endpoints.put(endpoint.key(), EndpointReport.of(endpoint, endpointStats, settings.duration())));
+        final var sent =
+                endpoints.values().stream().mapToLong(EndpointReport::sent).sum();
+        final var calls =
+                upstreamCalls.values().stream().mapToLong(UpstreamCalls::calls).sum();
+        return new LoadTestReport(
+                settings.rate(),
+                settings.duration(),
+                settings.employees(),
+                settings.upstreamLimit(),
+                endpoints,
+                upstreamCalls,
+                sent == 0 ? 0 : (double) calls / sent);
+    }
+
+    void print(PrintStream out) {
+        out.printf(
+                "%nLoad test: %.1f requests/s for %s over %d employees, upstream limit %s%n%n",
+                rate, duration, employees, upstreamLimit == null ? "off" : upstreamLimit);
+        out.printf(
+                "%-14s %8s %9s %8s %8s %8s %8s %8s %7s %7s %7s%n",
+                "endpoint", "sent", "ok/s", "p50", "p90", "p99", "p99.9", "max", "err%", "429%", "dropped");
+        endpoints.forEach((key, endpoint) -> out.printf(
+                "%-14s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7.2f %7.2f %7d%n",
+                key,
+                endpoint.sent(),
+                endpoint.succeededPerSecond(),
+                endpoint.latencyMillis().get("p50"),
+                endpoint.latencyMillis().get("p90"),
+                endpoint.latencyMillis().get("p99"),
+                endpoint.latencyMillis().get("p99.9"),
+                endpoint.latencyMillis().get("max"),
+                endpoint.errorRate() * 100,
+                endpoint.rateLimitedRate() * 100,
+                endpoint.dropped()));
+
+        endpoints.forEach((key, endpoint) -> {
+            out.printf("%nLatency histogram of %s (%s), milliseconds:%n", key, endpoint.route());
+            final var largest = endpoint.histogram().stream()
+                    .mapToLong(LatencyHistogram.Bucket::count)
+                    .max()
+                    .orElse(1);
+            for (final var bucket : endpoint.histogram()) {
+                out.printf(
+                        "  %9.3f - %9.3f | %-40s %d%n",
+                        bucket.fromMicros() / 1000.0,
+                        bucket.toMicros() / 1000.0,
+                        "#".repeat((int) Math.ceil(40.0 * bucket.count() / largest)),
+                        bucket.count());
+            }
+        });
+
+        out.printf("%nUpstream calls (%.2f per request sent):%n", upstreamCallsPerRequest);
+        upstreamCalls.forEach((route, calls) ->
+                out.printf("  %-40s %8d calls %8d rate limited%n", route, calls.calls(), calls.rateLimited()));
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        OBJECT_MAPPER.writeValue(path.toFile(), this);
+    }
+
+    /**
+     * @param errorRate share of requests answered with an error other than 429, timed out or failed to send
+     */
+    record EndpointReport(
+            String route,
+            long sent,
+            long succeeded,
+            double succeededPerSecond,
+            long rateLimited,
+            long errors,
+            long timeouts,
+            long failures,
+            long dropped,
+            long skipped,
+            double errorRate,
+            double rateLimitedRate,
+            Map<String, Double> latencyMillis,
+            List<LatencyHistogram.Bucket> histogram) {
+
+        static EndpointReport of(Endpoint endpoint, EndpointStats stats, Duration duration) {
+            final var sent = stats.sentCount();
+            final var failed = stats.errorCount() + stats.timeoutCount() + stats.failureCount();
+            final var latency = stats.latency();
+            final var latencyMillis = new LinkedHashMap<String, Double>();
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                latencyMillis.put(PERCENTILE_NAMES[i], latency.percentileMicros(PERCENTILES[i]) / 1000.0);
+            }
+            latencyMillis.put("max", latency.maxMicros() / 1000.0);
+            return new EndpointReport(
+                    endpoint.route(),
+                    sent,
+                    stats.succeededCount(),
+                    stats.succeededCount() / (duration.toNanos() / 1e9),
+                    stats.rateLimitedCount(),
+                    stats.errorCount(),
+                    stats.timeoutCount(),
+                    stats.failureCount(),
+                    stats.droppedCount(),
+                    stats.skippedCount(),
+                    sent == 0 ? 0 : (double) failed / sent,
+                    sent == 0 ? 0 : (double) stats.rateLimitedCount() / sent,
+                    latencyMillis,
+                    latency.powerOfTwoBuckets());
+        }
+    }
+}
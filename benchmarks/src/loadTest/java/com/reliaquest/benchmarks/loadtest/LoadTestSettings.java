@@ -0,0 +1,92 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Load test settings, read from {@code loadTest.*} system properties. {@code loadTest.server.<property>} and
+ * {@code loadTest.api.<property>} are passed on to the mock server and the API application respectively.
+ *
+ * @param rate requests started per second, whether or not earlier ones have completed
+ * @param mix relative weight of each endpoint among the requests
+ * @param upstreamLimit mock server rate limit as {@code <requests>/<period>}, e.g. {@code 100/1s}; {@code null} turns
+ *     the limiter off
+ * @param maxInFlight requests allowed outstanding at once; arrivals beyond it are counted as dropped, not sent
+ */
+record LoadTestSettings(
+        double rate,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        int employees,
+        String upstreamLimit,
+        long seed,
+        Duration timeout,
+        int maxInFlight,
+        Path report,
+        Map<String, String> serverProperties,
+        Map<String, String> apiProperties) {
+
+    static final String DEFAULT_MIX = "list:1,search:4,byId:4,highestSalary:2,topTen:2,create:1,delete:1";
+
+    LoadTestSettings {
+        if (rate <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("loadTest.rate and loadTest.maxInFlight must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadTest.mix needs at least one endpoint with a positive weight");
+        }
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        final var limit = System.getProperty("loadTest.upstreamLimit", "");
+        return new LoadTestSettings(
+                Double.parseDouble(System.getProperty("loadTest.rate", "200")),
+                duration("loadTest.warmup", "10s"),
+                duration("loadTest.duration", "30s"),
+                parseMix(System.getProperty("loadTest.mix", DEFAULT_MIX)),
+                Integer.parseInt(System.getProperty("loadTest.employees", "10000")),
+                limit.isBlank() ? null : limit,
+                Long.parseLong(System.getProperty("loadTest.seed", "42")),
+                duration("loadTest.timeout", "10s"),
+                Integer.parseInt(System.getProperty("loadTest.maxInFlight", "5000")),
+                Path.of(System.getProperty("loadTest.report", "build/results/loadtest/report.json")),
+                prefixed("loadTest.server."),
+                prefixed("loadTest.api."));
+    }
+
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        final var weights = new EnumMap<Endpoint, Integer>(Endpoint.class);
+        for (final var entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            final var parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("loadTest.mix entries look like endpoint:weight, got " + entry);
+            }
+            final var weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in loadTest.mix: " + entry);
+            }
+            weights.put(Endpoint.fromKey(parts[0]), weight);
+        }
+        return weights;
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private static Map<String, String> prefixed(String prefix) {
+        final var properties = new TreeMap<String, String>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(prefix))
+                .forEach(name -> properties.put(name.substring(prefix.length()), System.getProperty(name)));
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+package com.reliaquest.benchmarks.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter registered in the mock server that counts the requests the API application makes to it, by method and route,
+ * along with how many of them were rate limited.
+ */
+final class UpstreamCallCounter extends OncePerRequestFilter {
+
+    private static final String BASE_PATH = "/api/v1/employee";
+    private static final Pattern ID_SEGMENT =
+            Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+
+    private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final var route = request.getMethod() + " " + route(request.getRequestURI());
+            final var routeCounts = counts.computeIfAbsent(route, ignored -> new Counts());
+            routeCounts.calls.increment();
+            if (response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                routeCounts.rateLimited.increment();
+            }
+        }
+    }
+
+    void reset() {
+        counts.clear();
+    }
+
+    Map<String, UpstreamCalls> snapshot() {
+        final var snapshot = new TreeMap<String, UpstreamCalls>();
+        counts.forEach((route, routeCounts) ->
+                snapshot.put(route, new UpstreamCalls(routeCounts.calls.sum(), routeCounts.rateLimited.sum())));
+        return snapshot;
+    }
+
+    private static String route(String uri) {
+        final var path = uri.startsWith(BASE_PATH) ? uri.substring(BASE_PATH.length()) : uri;
+        final var route = ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        return route.isEmpty() ? "/" : route;
+    }
+
+    record UpstreamCalls(long calls, long rateLimited) {}
+
+    private static final class Counts {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+    }
+}
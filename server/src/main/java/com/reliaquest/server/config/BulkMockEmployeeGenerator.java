@@ -0,0 +1,59 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import net.datafaker.Faker;
+
+/**
+ * Generates large employee data sets quickly and reproducibly. The range of employees is cut into a fixed number of
+ * chunks, each filled by its own {@link Faker} seeded from {@code seed} and the chunk index, so chunks can be filled
+ * in parallel on any number of cores and still yield the same employees, in the same order, for the same seed.
+ * Employees are built through their constructor rather than Datafaker's reflective schema transformer.
+ */
+public class BulkMockEmployeeGenerator {
+
+    private static final int CHUNKS = 64;
+    private static final int MIN_CHUNK_SIZE = 1_000;
+
+    private final long seed;
+    private final Locale locale;
+
+    public BulkMockEmployeeGenerator(long seed, Locale locale) {
+        this.seed = seed;
+        this.locale = locale;
+    }
+
+    public List<MockEmployee> generate(int count) {
+        final var employees = new MockEmployee[count];
+        final var chunkSize = Math.max(MIN_CHUNK_SIZE, (count + CHUNKS - 1) / CHUNKS);
+        final var chunks = (count + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final var random = new Random(seed * 31 + chunk);
+            final var faker = new Faker(locale, random);
+            final var end = Math.min(count, (chunk + 1) * chunkSize);
+            for (int i = chunk * chunkSize; i < end; i++) {
+                employees[i] = new MockEmployee(
+                        randomUuid(random),
+                        faker.name().fullName(),
+                        faker.number().numberBetween(30000, 500000),
+                        faker.number().numberBetween(16, 70),
+                        faker.job().title(),
+                        ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                                faker.twitter().userName().toLowerCase()));
+            }
+        });
+        return Arrays.asList(employees);
+    }
+
+    // version 4 layout, like UUID.randomUUID(), but drawn from the seeded generator
+    private static UUID randomUuid(Random random) {
+        final var mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final var leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,30 @@
+package com.reliaquest.server.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("mock.rate-limit")
+public class RateLimitConfig {
+    private boolean enabled = true;
+    private Algorithm algorithm = Algorithm.TOKEN_BUCKET;
+    // requests allowed per period; unset draws a random limit between 5 and 10 at startup
+    private Integer limit;
+    // unset draws a random period between 30 and 90 seconds at startup
+    private Duration period;
+    // whether each client gets its own budget, keyed by X-Client-Id or else the remote address
+    private boolean perClient = false;
+    // clients tracked at once before idle ones are evicted
+    private int maxClients = 10_000;
+    // draws the random limit and period from the seed below, so load tests see the same limits on every run
+    private boolean deterministic = false;
+    private long seed = 42;
+
+    public enum Algorithm {
+        TOKEN_BUCKET,
+        SLIDING_WINDOW
+    }
+}
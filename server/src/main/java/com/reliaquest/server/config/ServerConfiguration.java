@@ -1,13 +1,22 @@
 package com.reliaquest.server.config;
 
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import com.reliaquest.server.persistence.EmployeeSnapshotFile;
+import com.reliaquest.server.persistence.EmployeeWriteAheadLog;
+import com.reliaquest.server.web.RateLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import net.datafaker.transformations.Field;
@@ -21,20 +30,99 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    private final RateLimitConfig rateLimitConfig;
+
+    private final MeterRegistry meterRegistry;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * Initial data set; MockEmployeeStore copies it into its indexes and serves CRUD operations from there.
+     * mock.employees.generator=bulk switches to seeded, parallel generation for large data sets.
+     * When mock.employees.snapshot.path is set, an existing snapshot is loaded instead of generating, and a freshly
+     * generated set is saved there so ids survive restarts. Creates and deletes logged to mock.employees.wal.path since
+     * that snapshot are replayed over it.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public List<MockEmployee> mockEmployees(
+            Faker faker,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.generator:schema}") String generator,
+            @Value("${mock.employees.seed:42}") long seed,
+            @Value("${mock.employees.snapshot.path:}") String snapshotPath,
+            @Value("${mock.employees.wal.path:}") String writeAheadLogPath) {
+        final var snapshot = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        if (snapshot != null && Files.exists(snapshot)) {
+            return replayWriteAheadLog(writeAheadLogPath, loadSnapshot(snapshot));
+        }
+        final var started = System.nanoTime();
+        final List<MockEmployee> mockEmployees;
+        if ("bulk".equalsIgnoreCase(generator)) {
+            mockEmployees = new BulkMockEmployeeGenerator(seed, Locale.getDefault()).generate(maxEmployees);
+        } else {
+            mockEmployees = schemaMockEmployees(faker, maxEmployees);
+        }
+        log.info(
+                "Generated {} employees with the {} generator in {} ms",
+                mockEmployees.size(),
+                generator,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        final var replayed = replayWriteAheadLog(writeAheadLogPath, mockEmployees);
+        if (snapshot != null) {
+            saveSnapshot(snapshot, replayed);
+        }
+        return replayed;
+    }
+
+    private static List<MockEmployee> replayWriteAheadLog(String writeAheadLogPath, List<MockEmployee> mockEmployees) {
+        if (writeAheadLogPath.isBlank()) {
+            return mockEmployees;
+        }
+        try {
+            return EmployeeWriteAheadLog.replay(Path.of(writeAheadLogPath), mockEmployees);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay write-ahead log " + writeAheadLogPath, e);
+        }
+    }
+
+    private static List<MockEmployee> loadSnapshot(Path snapshot) {
+        final var started = System.nanoTime();
+        try {
+            final var mockEmployees = EmployeeSnapshotFile.read(snapshot);
+            log.info(
+                    "Loaded {} employees from snapshot {} in {} ms",
+                    mockEmployees.size(),
+                    snapshot,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return mockEmployees;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load employee snapshot " + snapshot, e);
+        }
+    }
+
+    private static void saveSnapshot(Path snapshot, List<MockEmployee> mockEmployees) {
+        final var started = System.nanoTime();
+        try {
+            EmployeeSnapshotFile.write(snapshot, mockEmployees);
+            log.info(
+                    "Saved {} employees to snapshot {} in {} ms",
+                    mockEmployees.size(),
+                    snapshot,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            log.error("Failed to save employee snapshot {}", snapshot, e);
+        }
+    }
+
+    private static List<MockEmployee> schemaMockEmployees(Faker faker, int maxEmployees) {
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
                 Field.field("id", UUID::randomUUID),
@@ -54,6 +142,9 @@ public class ServerConfiguration implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        if (rateLimitConfig.isEnabled()) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimitConfig, meterRegistry))
+                    .addPathPatterns("/api/**");
+        }
     }
 }
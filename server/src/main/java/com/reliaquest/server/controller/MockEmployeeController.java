@@ -1,14 +1,24 @@
 package com.reliaquest.server.controller;
 
+import com.reliaquest.server.model.BulkItemResult;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.model.MockEmployeeField;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,18 +27,93 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String CHANGE_SEQUENCE_HEADER = "X-Change-Sequence";
+
+    static final int MAX_PAGE_SIZE = 10_000;
+    static final int MAX_BULK_SIZE = 1_000;
+    static final Duration MAX_CHANGES_WAIT = Duration.ofSeconds(60);
+
     private final MockEmployeeService mockEmployeeService;
 
+    private final Validator validator;
+
+    /**
+     * Without parameters, returns every employee. With {@code limit}, returns at most that many in insertion order
+     * and, when more remain, the cursor of the next page in the {@value #NEXT_CURSOR_HEADER} header. With
+     * {@code fields}, each employee is reduced to the listed fields.
+     * <p>
+     * Responses carry the entity tag of the whole employee set; a request whose {@code If-None-Match} still matches
+     * gets 304 Not Modified without a body. The {@value #CHANGE_SEQUENCE_HEADER} header holds the change feed
+     * sequence the listing is at least as new as, to follow {@link #getChanges} from.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<?>>> getEmployees(
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "fields", required = false) List<String> fields,
+            WebRequest webRequest) {
+        if (limit != null && (limit <= 0 || limit > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Taken before the employees so the tag is never newer than the body it is sent with
+        final var eTag = mockEmployeeService.getMockEmployeesETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        final List<MockEmployee> employees;
+        final var changeSequence = mockEmployeeService.getChangeSequence();
+        final var response = ResponseEntity.ok().header(CHANGE_SEQUENCE_HEADER, Long.toString(changeSequence));
+        if (limit == null && cursor == null) {
+            employees = mockEmployeeService.getMockEmployees();
+        } else {
+            final var page = mockEmployeeService.getMockEmployeePage(cursor, limit == null ? MAX_PAGE_SIZE : limit);
+            employees = page.employees();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+        }
+        if (fields == null || fields.isEmpty()) {
+            return response.body(Response.<List<?>>handledWith(employees));
+        }
+        final var projection =
+                fields.stream().map(MockEmployeeField::fromName).distinct().toList();
+        return response.body(Response.<List<?>>handledWith(employees.stream()
+                .map(employee -> MockEmployeeField.project(employee, projection))
+                .toList()));
+    }
+
+    /**
+     * Long-polls the change feed: returns up to {@code limit} creates and deletes after {@code since}, waiting up to
+     * {@code waitSeconds} for one when there are none yet. Answers 410 Gone when changes after {@code since} are no
+     * longer retained; the client then resyncs from a full listing.
+     */
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<Response<MockEmployeeChanges>>> getChanges(
+            @RequestParam("since") long since,
+            @RequestParam(name = "limit", defaultValue = "1000") int limit,
+            @RequestParam(name = "waitSeconds", defaultValue = "0") int waitSeconds) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (waitSeconds < 0 || waitSeconds > MAX_CHANGES_WAIT.toSeconds()) {
+            throw new IllegalArgumentException("waitSeconds must be between 0 and " + MAX_CHANGES_WAIT.toSeconds());
+        }
+        return mockEmployeeService
+                .pollChanges(since, limit, Duration.ofSeconds(waitSeconds))
+                .thenApply(changes -> changes.map(value -> ResponseEntity.ok(Response.handledWith(value)))
+                        .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                                .body(Response.error("Changes after " + since + " are no longer retained"))));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +133,50 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /**
+     * Creates each employee as {@link #createEmployee} would. Items are validated and applied one by one, so an
+     * invalid item fails on its own and the result list answers the inputs position by position.
+     */
+    @PostMapping("/bulk")
+    public Response<List<BulkItemResult<MockEmployee>>> createEmployees(
+            @RequestBody List<CreateMockEmployeeInput> inputs) {
+        return Response.handledWith(applyEach(inputs, mockEmployeeService::create));
+    }
+
+    /**
+     * Deletes each employee as {@link #deleteEmployee} would, answering the inputs position by position.
+     */
+    @DeleteMapping("/bulk")
+    public Response<List<BulkItemResult<Boolean>>> deleteEmployees(@RequestBody List<DeleteMockEmployeeInput> inputs) {
+        return Response.handledWith(applyEach(inputs, mockEmployeeService::delete));
+    }
+
+    private <I, R> List<BulkItemResult<R>> applyEach(List<I> inputs, Function<I, R> operation) {
+        if (inputs.isEmpty() || inputs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("bulk requests take between 1 and " + MAX_BULK_SIZE + " items");
+        }
+        final var results = new ArrayList<BulkItemResult<R>>(inputs.size());
+        for (final var input : inputs) {
+            if (input == null) {
+                results.add(BulkItemResult.failed("item must not be null"));
+                continue;
+            }
+            final var violations = validator.validate(input);
+            if (!violations.isEmpty()) {
+                results.add(BulkItemResult.failed(violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+                continue;
+            }
+            try {
+                results.add(BulkItemResult.succeeded(operation.apply(input)));
+            } catch (RuntimeException e) {
+                log.error("Bulk item failed: {}", input, e);
+                results.add(BulkItemResult.failed(e.getMessage()));
+            }
+        }
+        return results;
+    }
 }
@@ -0,0 +1,19 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk request, in the position of the item it answers: either {@code data} or the
+ * {@code error} that item failed with.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult<T>(T data, String error) {
+
+    public static <T> BulkItemResult<T> succeeded(T data) {
+        return new BulkItemResult<>(data, null);
+    }
+
+    public static <T> BulkItemResult<T> failed(String error) {
+        return new BulkItemResult<>(null, error);
+    }
+}
@@ -3,7 +3,6 @@ package com.reliaquest.server.model;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import java.util.UUID;
-
 import lombok.*;
 
 @Data
@@ -0,0 +1,12 @@
+package com.reliaquest.server.model;
+
+/**
+ * One create or delete from the employee change feed. A delete carries the employee as it was when removed.
+ */
+public record MockEmployeeChange(long sequence, Type type, MockEmployee employee) {
+
+    public enum Type {
+        CREATE,
+        DELETE
+    }
+}
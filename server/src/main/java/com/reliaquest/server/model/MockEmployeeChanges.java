@@ -0,0 +1,8 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * @param latestSequence sequence to poll from next; changes holds everything up to it, or the first page of it
+ */
+public record MockEmployeeChanges(List<MockEmployeeChange> changes, long latestSequence) {}
@@ -0,0 +1,48 @@
+package com.reliaquest.server.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fields that can be requested through {@code fields=} on the employee listing. Each is accepted by its JSON name
+ * ({@code employee_salary}) or its property name ({@code salary}), and projected under its JSON name so projected
+ * rows still bind to {@link MockEmployee}.
+ */
+public enum MockEmployeeField {
+    ID("id", MockEmployee::getId),
+    NAME("name", MockEmployee::getName),
+    SALARY("salary", MockEmployee::getSalary),
+    AGE("age", MockEmployee::getAge),
+    TITLE("title", MockEmployee::getTitle),
+    EMAIL("email", MockEmployee::getEmail);
+
+    private final String propertyName;
+    private final String jsonName;
+    private final Function<MockEmployee, Object> accessor;
+
+    MockEmployeeField(String propertyName, Function<MockEmployee, Object> accessor) {
+        this.propertyName = propertyName;
+        this.jsonName = new MockEmployee.PrefixNamingStrategy().translate(propertyName);
+        this.accessor = accessor;
+    }
+
+    public static MockEmployeeField fromName(String name) {
+        final var trimmed = name.trim();
+        return Arrays.stream(values())
+                .filter(field ->
+                        field.propertyName.equalsIgnoreCase(trimmed) || field.jsonName.equalsIgnoreCase(trimmed))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown employee field: " + name));
+    }
+
+    public static Map<String, Object> project(MockEmployee mockEmployee, List<MockEmployeeField> fields) {
+        final var row = new LinkedHashMap<String, Object>(fields.size() * 2);
+        for (MockEmployeeField field : fields) {
+            row.put(field.jsonName, field.accessor.apply(mockEmployee));
+        }
+        return row;
+    }
+}
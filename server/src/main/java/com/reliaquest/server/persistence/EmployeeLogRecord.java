@@ -0,0 +1,132 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import lombok.NonNull;
+
+/**
+ * One create or delete in the {@link EmployeeWriteAheadLog}. A delete carries only the id of the removed employee.
+ * <pre>
+ * frame   length:int crc32c:int payload
+ * payload type:byte idMsb:long idLsb:long
+ *         [create only] salary:int age:int (length:int utf8)x3 for name, title and email
+ * </pre>
+ */
+public record EmployeeLogRecord(@NonNull Type type, @NonNull MockEmployee employee) {
+
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final int MISSING_INT = Integer.MIN_VALUE;
+
+    public enum Type {
+        CREATE,
+        DELETE
+    }
+
+    public static EmployeeLogRecord created(@NonNull MockEmployee employee) {
+        return new EmployeeLogRecord(Type.CREATE, employee);
+    }
+
+    public static EmployeeLogRecord deleted(@NonNull MockEmployee employee) {
+        return new EmployeeLogRecord(Type.DELETE, employee);
+    }
+
+    ByteBuffer encode() {
+        final var name = bytes(employee.getName());
+        final var title = bytes(employee.getTitle());
+        final var email = bytes(employee.getEmail());
+        final var payloadSize = type == Type.CREATE ? 17 + 8 + 12 + length(name) + length(title) + length(email) : 17;
+        final var buffer = ByteBuffer.allocate(FRAME_HEADER_SIZE + payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(payloadSize).putInt(0);
+        buffer.put((byte) type.ordinal())
+                .putLong(employee.getId().getMostSignificantBits())
+                .putLong(employee.getId().getLeastSignificantBits());
+        if (type == Type.CREATE) {
+            buffer.putInt(employee.getSalary() == null ? MISSING_INT : employee.getSalary())
+                    .putInt(employee.getAge() == null ? MISSING_INT : employee.getAge());
+            putString(buffer, name);
+            putString(buffer, title);
+            putString(buffer, email);
+        }
+        final var crc = new CRC32C();
+        crc.update(buffer.array(), FRAME_HEADER_SIZE, payloadSize);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes the frame at the buffer's position and advances past it.
+     *
+     * @return the record, or {@code null} when the remaining bytes hold no complete, intact frame, as after a crash
+     * mid-append
+     */
+    static EmployeeLogRecord decode(ByteBuffer buffer) {
+        if (buffer.remaining() < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        final var start = buffer.position();
+        final var payloadSize = buffer.getInt(start);
+        final var expectedCrc = buffer.getInt(start + 4);
+        if (payloadSize < 17 || payloadSize > buffer.remaining() - FRAME_HEADER_SIZE) {
+            return null;
+        }
+        final var crc = new CRC32C();
+        crc.update(buffer.slice(start + FRAME_HEADER_SIZE, payloadSize));
+        if ((int) crc.getValue() != expectedCrc) {
+            return null;
+        }
+        buffer.position(start + FRAME_HEADER_SIZE);
+        final var typeOrdinal = buffer.get();
+        if (typeOrdinal < 0 || typeOrdinal >= Type.values().length) {
+            return null;
+        }
+        final var type = Type.values()[typeOrdinal];
+        final var id = new UUID(buffer.getLong(), buffer.getLong());
+        final MockEmployee employee;
+        if (type == Type.CREATE) {
+            final var salary = buffer.getInt();
+            final var age = buffer.getInt();
+            employee = new MockEmployee(
+                    id,
+                    getString(buffer),
+                    salary == MISSING_INT ? null : salary,
+                    age == MISSING_INT ? null : age,
+                    getString(buffer),
+                    getString(buffer));
+        } else {
+            employee = MockEmployee.builder().id(id).build();
+        }
+        buffer.position(start + FRAME_HEADER_SIZE + payloadSize);
+        return new EmployeeLogRecord(type, employee);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
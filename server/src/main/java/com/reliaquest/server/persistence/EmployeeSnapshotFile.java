@@ -0,0 +1,222 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.NonNull;
+
+/**
+ * Compact binary snapshot of the employee set.
+ * <pre>
+ * header  magic:int version:int count:int recordSize:int heapOffset:long heapLength:long
+ * records count x [idMsb:long idLsb:long salary:int age:int
+ *                  nameOffset:int nameLength:int titleOffset:int titleLength:int emailOffset:int emailLength:int]
+ * heap    UTF-8 bytes of every distinct string, referenced by offset from the records
+ * </pre>
+ * Records are fixed width so they can be read straight out of a memory-mapped file. A missing integer is stored as
+ * {@link Integer#MIN_VALUE} and a missing string with length {@code -1}. Identical strings, titles in particular, are
+ * stored once in the heap.
+ */
+public final class EmployeeSnapshotFile {
+
+    static final int MAGIC = 0x52514553; // "RQES"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_SIZE = 48;
+
+    private static final int MISSING_INT = Integer.MIN_VALUE;
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+
+    private EmployeeSnapshotFile() {}
+
+    /**
+     * Writes to a temporary file next to {@code path} and moves it into place, so a crash mid-write never leaves a
+     * truncated snapshot behind.
+     */
+    public static void write(@NonNull Path path, @NonNull Collection<MockEmployee> employees) throws IOException {
+        final var heap = new StringHeap();
+        final var records = new int[employees.size() * 6];
+        var index = 0;
+        for (MockEmployee employee : employees) {
+            index = heap.add(employee.getName(), records, index);
+            index = heap.add(employee.getTitle(), records, index);
+            index = heap.add(employee.getEmail(), records, index);
+        }
+
+        final var parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final var temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            final var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            final long heapOffset = HEADER_SIZE + (long) RECORD_SIZE * employees.size();
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(employees.size())
+                    .putInt(RECORD_SIZE)
+                    .putLong(heapOffset)
+                    .putLong(heap.length());
+            writeFully(channel, header.flip());
+
+            final var buffer = ByteBuffer.allocateDirect(RECORD_SIZE * WRITE_BUFFER_RECORDS)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            var record = 0;
+            for (MockEmployee employee : employees) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putLong(employee.getId().getMostSignificantBits())
+                        .putLong(employee.getId().getLeastSignificantBits())
+                        .putInt(employee.getSalary() == null ? MISSING_INT : employee.getSalary())
+                        .putInt(employee.getAge() == null ? MISSING_INT : employee.getAge());
+                for (int i = 0; i < 6; i++) {
+                    buffer.putInt(records[record * 6 + i]);
+                }
+                record++;
+            }
+            writeFully(channel, buffer.flip());
+            for (byte[] bytes : heap.chunks()) {
+                writeFully(channel, ByteBuffer.wrap(bytes));
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static List<MockEmployee> read(@NonNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Employee snapshot larger than 2 GiB: " + path);
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.limit() < HEADER_SIZE || mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not an employee snapshot: " + path);
+            }
+            if (mapped.getInt(4) != VERSION || mapped.getInt(12) != RECORD_SIZE) {
+                throw new IOException("Unsupported employee snapshot version " + mapped.getInt(4) + ": " + path);
+            }
+            final var count = mapped.getInt(8);
+            final var heapOffset = Math.toIntExact(mapped.getLong(16));
+            final var heapLength = mapped.getLong(24);
+            if (heapOffset != HEADER_SIZE + (long) RECORD_SIZE * count || heapOffset + heapLength != mapped.limit()) {
+                throw new IOException("Truncated employee snapshot: " + path);
+            }
+
+            final var employees = new ArrayList<MockEmployee>(count);
+            final var titles = new HashMap<Integer, String>();
+            for (int i = 0; i < count; i++) {
+                final var at = HEADER_SIZE + i * RECORD_SIZE;
+                final var salary = mapped.getInt(at + 16);
+                final var age = mapped.getInt(at + 20);
+                final var titleOffset = mapped.getInt(at + 32);
+                final var titleLength = mapped.getInt(at + 36);
+                employees.add(new MockEmployee(
+                        new UUID(mapped.getLong(at), mapped.getLong(at + 8)),
+                        string(mapped, heapOffset, mapped.getInt(at + 24), mapped.getInt(at + 28)),
+                        salary == MISSING_INT ? null : salary,
+                        age == MISSING_INT ? null : age,
+                        titleLength < 0
+                                ? null
+                                : titles.computeIfAbsent(
+                                        titleOffset, offset -> string(mapped, heapOffset, offset, titleLength)),
+                        string(mapped, heapOffset, mapped.getInt(at + 40), mapped.getInt(at + 44))));
+            }
+            return employees;
+        }
+    }
+
+    private static String string(ByteBuffer mapped, int heapOffset, int offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        mapped.get(heapOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Deduplicating string heap, built in memory before the file is written.
+     */
+    private static final class StringHeap {
+
+        private static final int CHUNK_SIZE = 1 << 20;
+
+        private final Map<String, int[]> locations = new HashMap<>();
+        private final List<byte[]> chunks = new ArrayList<>();
+        private byte[] current = new byte[CHUNK_SIZE];
+        private int currentLength;
+        private int length;
+
+        /**
+         * Stores the offset and length of {@code value} at {@code records[index]} and {@code records[index + 1]}.
+         */
+        int add(String value, int[] records, int index) {
+            if (value == null) {
+                records[index] = 0;
+                records[index + 1] = -1;
+                return index + 2;
+            }
+            final var location = locations.computeIfAbsent(value, this::append);
+            records[index] = location[0];
+            records[index + 1] = location[1];
+            return index + 2;
+        }
+
+        long length() {
+            return length;
+        }
+
+        List<byte[]> chunks() {
+            final var all = new ArrayList<>(chunks);
+            if (currentLength > 0) {
+                final var last = new byte[currentLength];
+                System.arraycopy(current, 0, last, 0, currentLength);
+                all.add(last);
+            }
+            return all;
+        }
+
+        private int[] append(String value) {
+            final var bytes = value.getBytes(StandardCharsets.UTF_8);
+            final var location = new int[] {length, bytes.length};
+            var written = 0;
+            while (written < bytes.length) {
+                if (currentLength == current.length) {
+                    chunks.add(current);
+                    current = new byte[CHUNK_SIZE];
+                    currentLength = 0;
+                }
+                final var copied = Math.min(bytes.length - written, current.length - currentLength);
+                System.arraycopy(bytes, written, current, currentLength, copied);
+                written += copied;
+                currentLength += copied;
+            }
+            length = Math.addExact(length, bytes.length);
+            return location;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the live employee set back to the snapshot on graceful shutdown, so employees created or deleted while the
+ * server ran keep their ids across restarts. Skipped after the write-ahead log has failed, as the store then holds
+ * writes that callers were told had failed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "mock.employees.snapshot.path")
+public class EmployeeSnapshotOnShutdown implements DisposableBean {
+
+    private final MockEmployeeStore mockEmployeeStore;
+
+    private final EmployeeWriteAheadLog writeAheadLog;
+
+    @Value("${mock.employees.snapshot.path}")
+    private Path snapshotPath;
+
+    @Override
+    public void destroy() {
+        if (writeAheadLog.hasFailed()) {
+            log.warn("Not saving employee snapshot {}, the write-ahead log failed", snapshotPath);
+            return;
+        }
+        final var employees = mockEmployeeStore.findAll();
+        try {
+            EmployeeSnapshotFile.write(snapshotPath, employees);
+            log.info("Saved {} employees to snapshot {}", employees.size(), snapshotPath);
+        } catch (IOException e) {
+            log.error("Failed to save employee snapshot {}", snapshotPath, e);
+        }
+    }
+}
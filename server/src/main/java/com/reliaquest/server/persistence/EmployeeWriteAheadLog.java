@@ -0,0 +1,469 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only log of employee creates and deletes, replayed over the snapshot at startup.
+ * <p>
+ * Mutations are applied to the store and queued for the log under one lock, so the log order always matches the
+ * order in which the store changed. A single writer thread drains the queue and writes each batch with one gathering
+ * write; with {@code sync=batch} it then fsyncs once for the whole batch before releasing the callers (group commit).
+ * A batch closes when it holds {@code batch-size} records or {@code batch-delay} has passed since its first record.
+ * {@code sync=never} releases callers once the bytes are handed to the OS, without waiting for a batch to fill.
+ * Before releasing them the writer hands each acknowledged record to its append's {@code onDurable}, in log order, so
+ * the change feed never shows followers a record that a failed write could still take back.
+ * <p>
+ * The log is split into numbered segments. After {@code compact-after} records the writer starts a new segment, then
+ * the store is written to the snapshot and the older segments are deleted. Replay is idempotent, creates are upserts
+ * and deletes of missing ids are ignored, so a crash between those steps only replays records the snapshot already
+ * holds.
+ * <p>
+ * A failed write or fsync fails its batch and stops the log. The store already holds the batch's mutations, and
+ * readers may have seen them, so they are not rolled back; they never reach the change feed, and the segment is
+ * truncated to the last acknowledged batch and further appends are refused. The process keeps serving reads and
+ * {@link EmployeeWriteAheadLogHealthIndicator} reports it down, so the operator decides when to restart; the snapshot
+ * is not saved on that shutdown, and the next start replays exactly what callers were told is durable. Should the truncation fail too, the torn tail is
+ * left to replay, which stops reading that segment at the first bad frame and goes on with the next one.
+ * <p>
+ * Disabled when {@code mock.employees.wal.path} is not set: appends then apply the mutation and hand its record to
+ * {@code onDurable} right away, still under the append lock so records are handed over in store order.
+ */
+@Slf4j
+@Component
+public class EmployeeWriteAheadLog implements DisposableBean {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{12})\\.log");
+
+    public enum Sync {
+        BATCH,
+        NEVER
+    }
+
+    private final MockEmployeeStore mockEmployeeStore;
+    private final Path directory;
+    private final Path snapshotPath;
+    private final Sync sync;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    private final long compactAfter;
+    private final SegmentOpener segmentOpener;
+
+    private final Object appendLock = new Object();
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile boolean running = true;
+    private volatile Exception failure;
+    private Thread writer;
+    private ExecutorService compactor;
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private long generation;
+    private long recordsInSegment;
+
+    @Autowired
+    public EmployeeWriteAheadLog(
+            MockEmployeeStore mockEmployeeStore,
+            @Value("${mock.employees.wal.path:}") String path,
+            @Value("${mock.employees.snapshot.path:}") String snapshotPath,
+            @Value("${mock.employees.wal.sync:batch}") String sync,
+            @Value("${mock.employees.wal.batch-size:256}") int batchSize,
+            @Value("${mock.employees.wal.batch-delay:0ms}") Duration batchDelay,
+            @Value("${mock.employees.wal.compact-after:100000}") long compactAfter) {
+        this(
+                mockEmployeeStore,
+                path,
+                snapshotPath,
+                sync,
+                batchSize,
+                batchDelay,
+                compactAfter,
+                EmployeeWriteAheadLog::createSegment);
+    }
+
+    EmployeeWriteAheadLog(
+            MockEmployeeStore mockEmployeeStore,
+            String path,
+            String snapshotPath,
+            String sync,
+            int batchSize,
+            Duration batchDelay,
+            long compactAfter,
+            SegmentOpener segmentOpener) {
+        this.segmentOpener = segmentOpener;
+        this.mockEmployeeStore = mockEmployeeStore;
+        this.directory = path.isBlank() ? null : Path.of(path);
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.sync = Sync.valueOf(sync.toUpperCase(Locale.ROOT));
+        this.batchSize = Math.max(1, batchSize);
+        // Waiting for a batch to fill only pays off when it saves an fsync
+        this.batchDelayNanos = this.sync == Sync.BATCH ? batchDelay.toNanos() : 0;
+        this.compactAfter = compactAfter;
+        if (directory == null) {
+            return;
+        }
+        if (this.snapshotPath == null) {
+            throw new IllegalStateException("mock.employees.wal.path requires mock.employees.snapshot.path");
+        }
+        try {
+            Files.createDirectories(directory);
+            // Never append to an existing segment, its tail may be torn
+            generation = segments(directory).stream()
+                            .mapToLong(EmployeeWriteAheadLog::generationOf)
+                            .max()
+                            .orElse(0)
+                    + 1;
+            channel = openSegment(generation);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + directory, e);
+        }
+        compactor = Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, "employee-wal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer = new Thread(this::writeLoop, "employee-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Whether a failed write stopped the log, leaving the store with mutations that were never logged.
+     */
+    public boolean hasFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return the error of the write that stopped the log, if one did
+     */
+    public Optional<Exception> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * Applies {@code mutation} to the store and logs the record it returns, blocking until the record is durable
+     * under the configured sync policy.
+     *
+     * @param mutation changes the store and returns what to log, or {@code null} when nothing changed
+     * @return the record returned by {@code mutation}
+     */
+    public EmployeeLogRecord append(Supplier<EmployeeLogRecord> mutation) {
+        return append(mutation, record -> {});
+    }
+
+    /**
+     * As {@link #append(Supplier)}, also passing the record to {@code onDurable} once it is durable and before this
+     * returns. Records are passed one at a time and in log order, which is the order in which the store changed.
+     */
+    public EmployeeLogRecord append(Supplier<EmployeeLogRecord> mutation, Consumer<EmployeeLogRecord> onDurable) {
+        if (!isEnabled()) {
+            synchronized (appendLock) {
+                final var record = mutation.get();
+                if (record != null) {
+                    onDurable.accept(record);
+                }
+                return record;
+            }
+        }
+        final Pending pending;
+        synchronized (appendLock) {
+            if (failure != null) {
+                throw new IllegalStateException("Write-ahead log stopped after a failed write", failure);
+            }
+            if (!running) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            final var record = mutation.get();
+            if (record == null) {
+                return null;
+            }
+            pending = new Pending(record, record.encode(), onDurable, new CompletableFuture<>());
+            queue.add(pending);
+        }
+        try {
+            pending.durable().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof IOException io
+                    ? new UncheckedIOException("Failed to write employee log record", io)
+                    : e;
+        }
+        return pending.record();
+    }
+
+    /**
+     * Replays every segment in {@code directory} over {@code employees}, oldest first.
+     */
+    public static List<MockEmployee> replay(Path directory, List<MockEmployee> employees) throws IOException {
+        final var segments = segments(directory);
+        if (segments.isEmpty()) {
+            return employees;
+        }
+        final var byId = new LinkedHashMap<UUID, MockEmployee>(employees.size() * 2);
+        employees.forEach(employee -> byId.put(employee.getId(), employee));
+        long replayed = 0;
+        for (final var segment : segments) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                EmployeeLogRecord record;
+                while ((record = EmployeeLogRecord.decode(buffer)) != null) {
+                    if (record.type() == EmployeeLogRecord.Type.CREATE) {
+                        byId.put(record.employee().getId(), record.employee());
+                    } else {
+                        byId.remove(record.employee().getId());
+                    }
+                    replayed++;
+                }
+                if (buffer.hasRemaining()) {
+                    log.warn(
+                            "Ignoring {} bytes of torn or corrupt records at the end of {}",
+                            buffer.remaining(),
+                            segment);
+                }
+            }
+        }
+        log.info("Replayed {} log records from {} segments in {}", replayed, segments.size(), directory);
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (appendLock) {
+            running = false;
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        compactor.shutdown();
+        compactor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void writeLoop() {
+        final var batch = new ArrayList<Pending>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                final var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            log.error("Failed to close write-ahead log segment {}", generation, e);
+        }
+    }
+
+    private void fillBatch(List<Pending> batch) throws InterruptedException {
+        final var deadline = System.nanoTime() + batchDelayNanos;
+        while (batch.size() < batchSize) {
+            final var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, batchSize - batch.size());
+                return;
+            }
+            final var next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        if (failure != null) {
+            // Queued behind the failed batch, and never written after it
+            batch.forEach(pending -> pending.durable().completeExceptionally(failure));
+            return;
+        }
+        long batchStart = -1;
+        try {
+            batchStart = channel.position();
+            final var buffers = new ByteBuffer[batch.size()];
+            long bytes = 0;
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = batch.get(i).bytes();
+                bytes += buffers[i].remaining();
+            }
+            while (bytes > 0) {
+                bytes -= channel.write(buffers);
+            }
+            if (sync == Sync.BATCH) {
+                channel.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error(
+                    "Failed to write {} employee log records, refusing further creates and deletes until restarted",
+                    batch.size(),
+                    e);
+            fail(e, batchStart);
+            batch.forEach(pending -> pending.durable().completeExceptionally(e));
+            return;
+        }
+        for (final var pending : batch) {
+            try {
+                pending.onDurable().accept(pending.record());
+            } catch (RuntimeException e) {
+                log.error("Failed to publish durable employee log record {}", pending.record(), e);
+            }
+            pending.durable().complete(null);
+        }
+        recordsInSegment += batch.size();
+        if (recordsInSegment >= compactAfter && compacting.compareAndSet(false, true)) {
+            rollSegment();
+        }
+    }
+
+    /*
+     * Refuses appends before the failed batch's callers hear of it, so none of them can retry into the log, then cuts
+     * the batch's bytes off the segment.
+     */
+    private void fail(Exception cause, long batchStart) {
+        synchronized (appendLock) {
+            failure = cause;
+        }
+        if (batchStart >= 0) {
+            try {
+                channel.truncate(batchStart);
+                channel.force(true);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to truncate write-ahead log segment {} to {} bytes", generation, batchStart, e);
+            }
+        }
+    }
+
+    /*
+     * Runs on the writer thread so no record can land in the old segment after it is closed. Every record in the old
+     * segment was applied to the store before it was queued, so the snapshot taken afterwards covers all of them.
+     */
+    private void rollSegment() {
+        final var closedGeneration = generation;
+        try {
+            final var next = openSegment(generation + 1);
+            channel.force(true);
+            channel.close();
+            channel = next;
+            generation++;
+            recordsInSegment = 0;
+        } catch (IOException e) {
+            log.error("Failed to start write-ahead log segment {}", generation + 1, e);
+            compacting.set(false);
+            return;
+        }
+        compactor.execute(() -> compact(closedGeneration));
+    }
+
+    private void compact(long upToGeneration) {
+        try {
+            if (failure != null) {
+                // The store may hold mutations that were never logged
+                return;
+            }
+            final var started = System.nanoTime();
+            final var employees = mockEmployeeStore.findAll();
+            EmployeeSnapshotFile.write(snapshotPath, employees);
+            for (final var segment : segments(directory)) {
+                if (generationOf(segment) <= upToGeneration) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+            log.info(
+                    "Compacted write-ahead log up to segment {} into a snapshot of {} employees in {} ms",
+                    upToGeneration,
+                    employees.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to compact write-ahead log up to segment {}", upToGeneration, e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private FileChannel openSegment(long segmentGeneration) throws IOException {
+        return segmentOpener.open(directory.resolve("wal-%012d.log".formatted(segmentGeneration)));
+    }
+
+    private static FileChannel createSegment(Path segment) throws IOException {
+        return FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file ->
+                            SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long generationOf(Path segment) {
+        final var matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a write-ahead log segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    interface SegmentOpener {
+
+        FileChannel open(Path segment) throws IOException;
+    }
+
+    private record Pending(
+            EmployeeLogRecord record,
+            ByteBuffer bytes,
+            Consumer<EmployeeLogRecord> onDurable,
+            CompletableFuture<Void> durable) {}
+}
@@ -0,0 +1,28 @@
+package com.reliaquest.server.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the application down once a failed write has stopped the write-ahead log. Creates and deletes are refused
+ * from then on while reads keep being served; restarting, which replays what was acknowledged, is left to the operator.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeWriteAheadLogHealthIndicator implements HealthIndicator {
+
+    private final EmployeeWriteAheadLog writeAheadLog;
+
+    @Override
+    public Health health() {
+        if (!writeAheadLog.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        return writeAheadLog
+                .getFailure()
+                .map(failure -> Health.down(failure).build())
+                .orElseGet(() -> Health.up().build());
+    }
+}
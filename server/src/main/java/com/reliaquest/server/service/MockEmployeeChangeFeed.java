@@ -0,0 +1,118 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.persistence.EmployeeLogRecord;
+import com.reliaquest.server.persistence.EmployeeWriteAheadLog;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded feed of employee creates and deletes with increasing sequence ids, kept in a ring of the most recent
+ * {@code mock.employees.changes.retained} changes.
+ * <p>
+ * Sequence ids start from the boot time in microseconds, so they keep increasing across restarts and a client
+ * holding a sequence from before a restart, or one that fell behind the ring, is told to resync from a full listing.
+ * Changes are published by {@link EmployeeWriteAheadLog} once they are durable, one at a time and in the order the
+ * store changed, so followers never see a change that a failed write takes back.
+ * <p>
+ * Readers take no lock: a change is written to its slot before the latest sequence is advanced past it, and a reader
+ * that finds a slot already reused by a newer change has fallen behind the ring and resyncs. Only waking long polls
+ * takes a lock, and only briefly.
+ */
+@Component
+public class MockEmployeeChangeFeed {
+
+    private final AtomicReferenceArray<MockEmployeeChange> ring;
+    private final long bootSequence = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    private volatile long latestSequence = bootSequence;
+    private final Object waitersLock = new Object();
+    private List<CompletableFuture<Void>> waiters = new ArrayList<>();
+
+    public MockEmployeeChangeFeed(@Value("${mock.employees.changes.retained:10000}") int retained) {
+        if (retained <= 0) {
+            throw new IllegalArgumentException("mock.employees.changes.retained must be positive");
+        }
+        this.ring = new AtomicReferenceArray<>(retained);
+    }
+
+    public long latestSequence() {
+        return latestSequence;
+    }
+
+    /**
+     * Publishes a change the store already made, waking pending polls. The write-ahead log already calls this one
+     * change at a time, so the lock is uncontended; readers never take it.
+     */
+    public synchronized void publish(EmployeeLogRecord record) {
+        final var type = record.type() == EmployeeLogRecord.Type.CREATE
+                ? MockEmployeeChange.Type.CREATE
+                : MockEmployeeChange.Type.DELETE;
+        final var sequence = latestSequence + 1;
+        ring.set(slot(sequence), new MockEmployeeChange(sequence, type, record.employee()));
+        latestSequence = sequence;
+        final List<CompletableFuture<Void>> woken;
+        synchronized (waitersLock) {
+            woken = waiters;
+            waiters = new ArrayList<>();
+        }
+        woken.forEach(waiter -> waiter.complete(null));
+    }
+
+    /**
+     * @return at most {@code limit} changes after {@code since}, or empty when changes after {@code since} are no
+     * longer retained and the caller has to resync
+     */
+    public Optional<MockEmployeeChanges> changesSince(long since, int limit) {
+        final var latest = latestSequence;
+        final var oldestRetained = Math.max(latest - ring.length() + 1, bootSequence + 1);
+        if (since > latest || since < oldestRetained - 1) {
+            return Optional.empty();
+        }
+        final var last = Math.min(latest, since + limit);
+        final var changes = new ArrayList<MockEmployeeChange>((int) (last - since));
+        for (long sequence = since + 1; sequence <= last; sequence++) {
+            final var change = ring.get(slot(sequence));
+            if (change.sequence() != sequence) {
+                // Overwritten by a change published while reading
+                return Optional.empty();
+            }
+            changes.add(change);
+        }
+        return Optional.of(new MockEmployeeChanges(changes, last));
+    }
+
+    /**
+     * Long-poll variant of {@link #changesSince(long, int)}: when nothing changed after {@code since}, completes on
+     * the next change or, with no changes, after {@code wait}.
+     */
+    public CompletableFuture<Optional<MockEmployeeChanges>> poll(long since, int limit, Duration wait) {
+        final var changes = changesSince(since, limit);
+        if (changes.isEmpty() || !changes.get().changes().isEmpty() || wait.isZero()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+        final var next = new CompletableFuture<Void>();
+        synchronized (waitersLock) {
+            // Polls that timed out stay registered until the next change; drop them as new ones arrive
+            waiters.removeIf(CompletableFuture::isDone);
+            waiters.add(next);
+        }
+        if (latestSequence > since) {
+            // Published after the read above, possibly before the waiter was registered
+            next.complete(null);
+        }
+        return next.completeOnTimeout(null, wait.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> changesSince(since, limit));
+    }
+
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) ring.length());
+    }
+}
@@ -4,11 +4,17 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.persistence.EmployeeLogRecord;
+import com.reliaquest.server.persistence.EmployeeWriteAheadLog;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,14 +28,52 @@ public class MockEmployeeService {
 
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployeeStore;
+
+    private final EmployeeWriteAheadLog writeAheadLog;
+
+    private final MockEmployeeChangeFeed changeFeed;
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployeeStore.findAll();
+    }
+
+    /**
+     * @param cursor opaque cursor returned with the previous page, or {@code null} for the first page
+     */
+    public MockEmployeePage getMockEmployeePage(String cursor, int limit) {
+        final var page = mockEmployeeStore.findPage(decodeCursor(cursor), limit);
+        final var nextCursor = page.nextSequence() == null ? null : encodeCursor(page.nextSequence());
+        return new MockEmployeePage(page.employees(), nextCursor);
+    }
+
+    /**
+     * Weak entity tag of the employee set, changed by every create and delete. It includes a per-instance id, so tags
+     * from before a restart never match.
+     */
+    public String getMockEmployeesETag() {
+        return "W/\"" + instanceId + "." + mockEmployeeStore.version() + "\"";
+    }
+
+    /**
+     * Sequence of the latest change; a listing taken after reading it reflects at least every change up to it.
+     */
+    public long getChangeSequence() {
+        return changeFeed.latestSequence();
+    }
+
+    /**
+     * @return changes after {@code since}, waiting up to {@code wait} for one; empty when the caller fell too far
+     * behind and has to resync from a full listing
+     */
+    public CompletableFuture<Optional<MockEmployeeChanges>> pollChanges(long since, int limit, Duration wait) {
+        return changeFeed.poll(since, limit, wait);
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployeeStore.findById(uuid);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -37,22 +81,47 @@ public class MockEmployeeService {
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
-        mockEmployees.add(mockEmployee);
+        writeAheadLog.append(
+                () -> {
+                    mockEmployeeStore.add(mockEmployee);
+                    return EmployeeLogRecord.created(mockEmployee);
+                },
+                changeFeed::publish);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
+        final var removed = writeAheadLog.append(
+                () -> mockEmployeeStore
+                        .removeByName(input.getName())
+                        .map(EmployeeLogRecord::deleted)
+                        .orElse(null),
+                changeFeed::publish);
+        if (removed != null) {
+            log.debug("Removed employee: {}", removed.employee());
             return true;
         }
 
         return false;
     }
+
+    private static String encodeCursor(long sequence) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public record MockEmployeePage(List<MockEmployee> employees, String nextCursor) {}
 }
@@ -0,0 +1,156 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Concurrent employee store backing {@link MockEmployeeService}.
+ * <ul>
+ *     <li>an id hash index answers {@link #findById(UUID)};</li>
+ *     <li>a case-insensitive name index answers {@link #removeByName(String)}, which removes the earliest inserted
+ *     employee with that name, like the list this store replaced;</li>
+ *     <li>a map ordered by insertion sequence keeps {@link #findAll()} and {@link #findPage(long, int)} in a stable
+ *     order, so a page boundary stays valid while employees are created and deleted.</li>
+ * </ul>
+ * Reads never lock. Writers do not lock either: removing the id entry is the point at which a delete wins, so two
+ * deletes racing for the same employee cannot both succeed. A name's entries are only touched inside the name map's
+ * compute calls for that name, which serialize the adds and deletes of one name: entries are queued in insertion
+ * order, so a delete takes the earliest from the head in O(1), and the queue is dropped once empty. Adds and deletes
+ * also pay O(log n) in the sequence map that keeps listings in a stable order.
+ * <p>
+ * {@link #version()} increases after every add and remove, so a reader that takes the version before reading sees
+ * content at least as new as that version.
+ */
+@Component
+public class MockEmployeeStore {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+    private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, MockEmployee> bySequence = new ConcurrentSkipListMap<>();
+    // Each queue is only read and changed inside byName's compute calls for its key
+    private final Map<String, ArrayDeque<Entry>> byName = new ConcurrentHashMap<>();
+
+    public MockEmployeeStore(List<MockEmployee> mockEmployees) {
+        mockEmployees.forEach(this::add);
+    }
+
+    public List<MockEmployee> findAll() {
+        return new ArrayList<>(bySequence.values());
+    }
+
+    /**
+     * @param afterSequence sequence of the last employee of the previous page, or {@code 0} for the first page
+     */
+    public Page findPage(long afterSequence, int limit) {
+        final var employees = new ArrayList<MockEmployee>(limit);
+        long lastSequence = afterSequence;
+        for (final var entry : bySequence.tailMap(afterSequence, false).entrySet()) {
+            if (employees.size() == limit) {
+                return new Page(employees, lastSequence);
+            }
+            employees.add(entry.getValue());
+            lastSequence = entry.getKey();
+        }
+        return new Page(employees, null);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID uuid) {
+        final var entry = byId.get(uuid);
+        return entry == null ? Optional.empty() : Optional.of(entry.employee());
+    }
+
+    public void add(@NonNull MockEmployee mockEmployee) {
+        final Entry replaced;
+        if (Objects.isNull(mockEmployee.getName())) {
+            replaced = index(new Entry(sequence.incrementAndGet(), mockEmployee));
+        } else {
+            final var replacedByName = new AtomicReference<Entry>();
+            byName.compute(nameKey(mockEmployee.getName()), (ignored, entries) -> {
+                final var indexed = entries == null ? new ArrayDeque<Entry>() : entries;
+                // Taken inside the compute, so each name's queue stays in sequence order
+                final var entry = new Entry(sequence.incrementAndGet(), mockEmployee);
+                indexed.addLast(entry);
+                replacedByName.set(index(entry));
+                return indexed;
+            });
+            replaced = replacedByName.get();
+        }
+        if (replaced != null && Objects.nonNull(replaced.employee().getName())) {
+            // Same id added again; rare, so the linear removal from its name's queue does not matter
+            byName.computeIfPresent(nameKey(replaced.employee().getName()), (ignored, entries) -> {
+                entries.remove(replaced);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+        version.incrementAndGet();
+    }
+
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        final var removed = new AtomicReference<MockEmployee>();
+        byName.computeIfPresent(nameKey(name), (ignored, entries) -> {
+            for (var first = entries.pollFirst(); first != null; first = entries.pollFirst()) {
+                if (byId.remove(first.employee().getId(), first)) {
+                    bySequence.remove(first.sequence());
+                    removed.set(first.employee());
+                    break;
+                }
+            }
+            // otherwise every distinct name ever deleted would keep an empty queue
+            return entries.isEmpty() ? null : entries;
+        });
+        if (removed.get() == null) {
+            return Optional.empty();
+        }
+        version.incrementAndGet();
+        return Optional.of(removed.get());
+    }
+
+    /**
+     * @return the entry previously held for the same id, already removed from every index but the name index
+     */
+    private Entry index(Entry entry) {
+        bySequence.put(entry.sequence(), entry.employee());
+        final var replaced = byId.put(entry.employee().getId(), entry);
+        if (replaced != null) {
+            bySequence.remove(replaced.sequence());
+        }
+        return replaced;
+    }
+
+    int indexedNames() {
+        return byName.size();
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param nextSequence where the following page starts, or {@code null} when this page is the last one
+     */
+    public record Page(List<MockEmployee> employees, Long nextSequence) {}
+
+    private record Entry(long sequence, MockEmployee employee) {}
+}
@@ -0,0 +1,117 @@
+package com.reliaquest.server.web;
+
+import com.reliaquest.server.config.RateLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects requests over the configured budget with 429 and a {@code Retry-After} header. Every response carries the
+ * limit and the remaining budget, so clients can pace themselves before they are rejected.
+ * <p>
+ * Decisions are counted in {@code mock.rate.limit.decisions}, tagged with an {@code outcome} of {@code allowed} or
+ * {@code rejected}.
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final RateLimitConfig config;
+    private final int limit;
+    private final Duration period;
+    private final LongSupplier nanoClock;
+    private final RateLimiter globalLimiter;
+    private final Map<String, RateLimiter> clientLimiters = new ConcurrentHashMap<>();
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public RateLimitInterceptor(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this(config, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitInterceptor(RateLimitConfig config, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.allowed = decisions(meterRegistry, "allowed");
+        this.rejected = decisions(meterRegistry, "rejected");
+        Gauge.builder("mock.rate.limit.clients", clientLimiters, Map::size)
+                .description("Clients with their own rate limit budget")
+                .register(meterRegistry);
+        final RandomGenerator random =
+                config.isDeterministic() ? new Random(config.getSeed()) : RandomGenerator.getDefault();
+        this.limit = config.getLimit() != null ? config.getLimit() : random.nextInt(5, 10);
+        this.period = config.getPeriod() != null ? config.getPeriod() : Duration.ofSeconds(random.nextInt(30, 90));
+        this.globalLimiter = config.isPerClient() ? null : newLimiter(nanoClock.getAsLong());
+        log.info(
+                "Rate limiting with {} at {} requests per {}{}",
+                config.getAlgorithm(),
+                limit,
+                period,
+                config.isPerClient() ? " per client" : "");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        final var now = nanoClock.getAsLong();
+        final var decision = limiterFor(request, now).tryAcquire(now);
+        response.setHeader(LIMIT_HEADER, Integer.toString(decision.limit()));
+        response.setHeader(REMAINING_HEADER, Integer.toString(decision.remaining()));
+        if (decision.allowed()) {
+            allowed.increment();
+            return true;
+        }
+        rejected.increment();
+        final var retryAfterSeconds = Math.max(
+                1, (decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        return false;
+    }
+
+    private RateLimiter limiterFor(HttpServletRequest request, long now) {
+        if (globalLimiter != null) {
+            return globalLimiter;
+        }
+        final var clientId = request.getHeader(CLIENT_ID_HEADER);
+        final var key = clientId == null || clientId.isBlank() ? request.getRemoteAddr() : clientId;
+        final var limiter = clientLimiters.get(key);
+        if (limiter != null) {
+            return limiter;
+        }
+        if (clientLimiters.size() >= config.getMaxClients()) {
+            // An idle limiter has its full budget again, so a client whose limiter is dropped loses nothing
+            clientLimiters.values().removeIf(candidate -> candidate.isIdle(now));
+        }
+        return clientLimiters.computeIfAbsent(key, ignored -> newLimiter(now));
+    }
+
+    private static Counter decisions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mock.rate.limit.decisions")
+                .description("Requests checked against the rate limit")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private RateLimiter newLimiter(long now) {
+        return switch (config.getAlgorithm()) {
+            case TOKEN_BUCKET -> new TokenBucketRateLimiter(limit, period, now);
+            case SLIDING_WINDOW -> new SlidingWindowRateLimiter(limit, period, now);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.reliaquest.server.web;
+
+/**
+ * Admission decision for one request. Implementations are lock-free and take the current time from the caller, in
+ * {@link System#nanoTime()} units.
+ */
+public interface RateLimiter {
+
+    Decision tryAcquire(long nowNanos);
+
+    /**
+     * @return whether the limiter is back to its full budget, so dropping it loses nothing
+     */
+    boolean isIdle(long nowNanos);
+
+    /**
+     * @param remaining requests still allowed right now after this one
+     * @param retryAfterNanos how long until a rejected request would be allowed, {@code 0} when allowed
+     */
+    record Decision(boolean allowed, int limit, int remaining, long retryAfterNanos) {}
+}
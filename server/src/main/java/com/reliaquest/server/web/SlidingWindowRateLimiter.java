@@ -0,0 +1,86 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sliding window counter allowing {@code limit} requests per {@code window}. It counts requests in the current fixed
+ * window and estimates the sliding count by weighting the previous window's count by how much of it still overlaps.
+ * The counts live in one immutable {@link Window}, replaced by compare-and-set.
+ */
+public class SlidingWindowRateLimiter implements RateLimiter {
+
+    private final int limit;
+    private final long window;
+    private final AtomicReference<Window> current;
+
+    public SlidingWindowRateLimiter(int limit, Duration window, long nowNanos) {
+        if (limit <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("limit and window must be positive");
+        }
+        this.limit = limit;
+        this.window = window.toNanos();
+        this.current = new AtomicReference<>(new Window(nowNanos, 0, 0));
+    }
+
+    @Override
+    public Decision tryAcquire(long nowNanos) {
+        while (true) {
+            final var observed = current.get();
+            final var rolled = roll(observed, nowNanos);
+            final var estimated = estimate(rolled, nowNanos);
+            if (estimated + 1 > limit) {
+                if (rolled != observed) {
+                    current.compareAndSet(observed, rolled);
+                }
+                return new Decision(false, limit, 0, retryAfter(rolled, nowNanos));
+            }
+            if (current.compareAndSet(observed, new Window(rolled.start(), rolled.count() + 1, rolled.previous()))) {
+                return new Decision(true, limit, (int) Math.floor(limit - estimated - 1), 0);
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long nowNanos) {
+        return nowNanos - current.get().start() >= 2 * window;
+    }
+
+    private Window roll(Window observed, long nowNanos) {
+        final var elapsedWindows = (nowNanos - observed.start()) / window;
+        if (elapsedWindows <= 0) {
+            return observed;
+        }
+        final var start = observed.start() + elapsedWindows * window;
+        return elapsedWindows == 1 ? new Window(start, 0, observed.count()) : new Window(start, 0, 0);
+    }
+
+    private double estimate(Window rolled, long nowNanos) {
+        final var overlap = 1.0 - (double) (nowNanos - rolled.start()) / window;
+        return rolled.previous() * overlap + rolled.count();
+    }
+
+    /*
+     * The estimate only falls as the previous window slides out, so solve previous * (1 - elapsed / window) + count
+     * + 1 <= limit for elapsed, in this window if count alone leaves room and in the next one otherwise.
+     */
+    private long retryAfter(Window rolled, long nowNanos) {
+        final long at;
+        if (rolled.count() + 1 <= limit) {
+            at = rolled.start() + elapsedUntilAllowed(rolled.previous(), rolled.count());
+        } else {
+            at = rolled.start() + window + elapsedUntilAllowed(rolled.count(), 0);
+        }
+        return Math.max(1, at - nowNanos);
+    }
+
+    private long elapsedUntilAllowed(int previous, int count) {
+        if (previous == 0) {
+            return 0;
+        }
+        final var fraction = 1.0 - (double) (limit - count - 1) / previous;
+        return (long) Math.ceil(Math.max(0, fraction) * window);
+    }
+
+    private record Window(long start, int count, int previous) {}
+}
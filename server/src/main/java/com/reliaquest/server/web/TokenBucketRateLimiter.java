@@ -0,0 +1,48 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket holding {@code capacity} tokens and refilling {@code capacity} per {@code period}, in its GCRA form:
+ * the whole state is the theoretical arrival time of the next request, so one compare-and-set decides each request.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private final int capacity;
+    private final long interval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucketRateLimiter(int capacity, Duration period, long nowNanos) {
+        if (capacity <= 0 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("capacity and period must be positive");
+        }
+        this.capacity = capacity;
+        this.interval = Math.max(1, period.toNanos() / capacity);
+        this.burstTolerance = interval * (capacity - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    @Override
+    public Decision tryAcquire(long nowNanos) {
+        while (true) {
+            final var arrival = theoreticalArrival.get();
+            final var base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            final var wait = base - burstTolerance - nowNanos;
+            if (wait > 0) {
+                return new Decision(false, capacity, 0, wait);
+            }
+            final var next = base + interval;
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                final var remaining = (burstTolerance - (next - interval - nowNanos)) / interval;
+                return new Decision(true, capacity, (int) remaining, 0);
+            }
+        }
+    }
+
+    @Override
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeLogRecordTest {
+
+    private static final MockEmployee TIGER = MockEmployee.builder()
+            .id(UUID.randomUUID())
+            .name("Tiger Nixon")
+            .salary(320_800)
+            .age(61)
+            .title("Architect")
+            .email("tnixon@company.com")
+            .build();
+
+    private static ByteBuffer frames(EmployeeLogRecord... records) {
+        int size = 0;
+        for (EmployeeLogRecord record : records) {
+            size += record.encode().remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (EmployeeLogRecord record : records) {
+            buffer.put(record.encode());
+        }
+        return buffer.flip();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        MockEmployee unicode =
+                TIGER.toBuilder().id(UUID.randomUUID()).name("Zoë Ørsted 日本").build();
+        MockEmployee nulls = MockEmployee.builder().id(UUID.randomUUID()).build();
+        EmployeeLogRecord deleted = EmployeeLogRecord.deleted(TIGER);
+        ByteBuffer buffer = frames(
+                EmployeeLogRecord.created(TIGER),
+                EmployeeLogRecord.created(unicode),
+                EmployeeLogRecord.created(nulls),
+                deleted);
+
+        Assertions.assertEquals(EmployeeLogRecord.created(TIGER), EmployeeLogRecord.decode(buffer));
+        Assertions.assertEquals(EmployeeLogRecord.created(unicode), EmployeeLogRecord.decode(buffer));
+        Assertions.assertEquals(EmployeeLogRecord.created(nulls), EmployeeLogRecord.decode(buffer));
+        // a delete carries only the id
+        Assertions.assertEquals(
+                EmployeeLogRecord.deleted(
+                        MockEmployee.builder().id(TIGER.getId()).build()),
+                EmployeeLogRecord.decode(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+        Assertions.assertNull(EmployeeLogRecord.decode(buffer));
+    }
+
+    @Test
+    public void testTornFrameIsNotDecoded() {
+        int first = EmployeeLogRecord.created(TIGER).encode().remaining();
+        ByteBuffer whole = frames(EmployeeLogRecord.created(TIGER), EmployeeLogRecord.deleted(TIGER));
+
+        for (int cut = first + 1; cut < whole.limit(); cut++) {
+            ByteBuffer torn = whole.duplicate().order(ByteOrder.LITTLE_ENDIAN).limit(cut);
+            Assertions.assertEquals(EmployeeLogRecord.created(TIGER), EmployeeLogRecord.decode(torn));
+            Assertions.assertNull(EmployeeLogRecord.decode(torn));
+            Assertions.assertEquals(first, torn.position());
+        }
+    }
+
+    @Test
+    public void testCorruptFrameIsNotDecoded() {
+        ByteBuffer buffer = frames(EmployeeLogRecord.created(TIGER));
+        int last = buffer.limit() - 1;
+        buffer.put(last, (byte) (buffer.get(last) ^ 1));
+
+        Assertions.assertNull(EmployeeLogRecord.decode(buffer));
+        Assertions.assertEquals(0, buffer.position());
+    }
+}
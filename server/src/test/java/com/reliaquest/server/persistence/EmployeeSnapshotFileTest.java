@@ -0,0 +1,145 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EmployeeSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static MockEmployee employee(String name, String title) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(120_000)
+                .age(41)
+                .title(title)
+                .email(name.toLowerCase().replace(' ', '.') + "@company.com")
+                .build();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path path = directory.resolve("employees.bin");
+        MockEmployee tiger = employee("Tiger Nixon", "Architect");
+        MockEmployee zoe = employee("Zoë Ørsted 日本", "Architect");
+        MockEmployee empty = MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name("")
+                .salary(0)
+                .age(-1)
+                .build();
+        MockEmployee nulls = MockEmployee.builder().id(UUID.randomUUID()).build();
+
+        EmployeeSnapshotFile.write(path, List.of(tiger, zoe, empty, nulls));
+        List<MockEmployee> read = EmployeeSnapshotFile.read(path);
+
+        Assertions.assertEquals(List.of(tiger, zoe, empty, nulls), read);
+        // titles are decoded once per heap offset
+        Assertions.assertSame(read.get(0).getTitle(), read.get(1).getTitle());
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    public void testIdenticalStringsAreStoredOnce() throws IOException {
+        Path path = directory.resolve("employees.bin");
+        List<MockEmployee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(MockEmployee.builder()
+                    .id(UUID.randomUUID())
+                    .name("Same")
+                    .title("Same")
+                    .build());
+        }
+
+        EmployeeSnapshotFile.write(path, employees);
+
+        long heapLength = header(path).getLong(24);
+        Assertions.assertEquals("Same".getBytes(StandardCharsets.UTF_8).length, heapLength);
+        Assertions.assertEquals(
+                EmployeeSnapshotFile.HEADER_SIZE + 100L * EmployeeSnapshotFile.RECORD_SIZE + heapLength,
+                Files.size(path));
+        Assertions.assertEquals(employees, EmployeeSnapshotFile.read(path));
+    }
+
+    @Test
+    public void testHeapSpanningSeveralChunks() throws IOException {
+        Path path = directory.resolve("employees.bin");
+        List<MockEmployee> employees = new ArrayList<>();
+        // about 3 MiB of distinct names, so some cross the heap's 1 MiB chunk boundaries
+        for (int i = 0; i < 3_000; i++) {
+            employees.add(employee("Employee " + i + " " + "x".repeat(1_000 + i % 7), "Title " + i % 10));
+        }
+
+        EmployeeSnapshotFile.write(path, employees);
+
+        Assertions.assertTrue(header(path).getLong(24) > 3L << 20);
+        Assertions.assertEquals(employees, EmployeeSnapshotFile.read(path));
+    }
+
+    @Test
+    public void testWriteReplacesExistingSnapshot() throws IOException {
+        Path path = directory.resolve("employees.bin");
+        EmployeeSnapshotFile.write(path, List.of(employee("Tiger Nixon", "Architect")));
+        MockEmployee bill = employee("Bill Bob", "Engineer");
+
+        EmployeeSnapshotFile.write(path, List.of(bill));
+
+        Assertions.assertEquals(List.of(bill), EmployeeSnapshotFile.read(path));
+        EmployeeSnapshotFile.write(path, List.of());
+        Assertions.assertTrue(EmployeeSnapshotFile.read(path).isEmpty());
+    }
+
+    @Test
+    public void testTruncatedSnapshotIsRejected() throws IOException {
+        Path path = directory.resolve("employees.bin");
+        EmployeeSnapshotFile.write(
+                path, List.of(employee("Tiger Nixon", "Architect"), employee("Bill Bob", "Engineer")));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        IOException exception = Assertions.assertThrows(IOException.class, () -> EmployeeSnapshotFile.read(path));
+        Assertions.assertTrue(exception.getMessage().startsWith("Truncated employee snapshot"));
+    }
+
+    @Test
+    public void testOtherFilesAreRejected() throws IOException {
+        Path shortFile = directory.resolve("short.bin");
+        Files.write(shortFile, new byte[] {1, 2, 3});
+        Path text = directory.resolve("employees.json");
+        Files.writeString(text, "[{\"id\":\"" + UUID.randomUUID() + "\",\"employee_name\":\"Tiger Nixon\"}]");
+
+        Assertions.assertTrue(Assertions.assertThrows(IOException.class, () -> EmployeeSnapshotFile.read(shortFile))
+                .getMessage()
+                .startsWith("Not an employee snapshot"));
+        Assertions.assertTrue(Assertions.assertThrows(IOException.class, () -> EmployeeSnapshotFile.read(text))
+                .getMessage()
+                .startsWith("Not an employee snapshot"));
+    }
+
+    private static ByteBuffer header(Path path) throws IOException {
+        ByteBuffer header =
+                ByteBuffer.allocate(EmployeeSnapshotFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.read(header);
+        }
+        return header.flip();
+    }
+}
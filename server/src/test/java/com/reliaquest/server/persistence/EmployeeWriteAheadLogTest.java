@@ -0,0 +1,385 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+
+public class EmployeeWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(100)
+                .age(30)
+                .title("Engineer")
+                .build();
+    }
+
+    private EmployeeWriteAheadLog writeAheadLog(
+            MockEmployeeStore store,
+            int batchSize,
+            long compactAfter,
+            EmployeeWriteAheadLog.SegmentOpener segmentOpener) {
+        return new EmployeeWriteAheadLog(
+                store,
+                directory.resolve("wal").toString(),
+                directory.resolve("employees.snapshot").toString(),
+                "batch",
+                batchSize,
+                Duration.ZERO,
+                compactAfter,
+                segmentOpener);
+    }
+
+    private static EmployeeLogRecord create(
+            EmployeeWriteAheadLog writeAheadLog, MockEmployeeStore store, MockEmployee employee) {
+        return writeAheadLog.append(() -> {
+            store.add(employee);
+            return EmployeeLogRecord.created(employee);
+        });
+    }
+
+    private static EmployeeLogRecord delete(EmployeeWriteAheadLog writeAheadLog, MockEmployeeStore store, String name) {
+        return writeAheadLog.append(
+                () -> store.removeByName(name).map(EmployeeLogRecord::deleted).orElse(null));
+    }
+
+    private static FileChannel newSegment(Path segment) throws IOException {
+        return FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static void writeSegment(Path segment, EmployeeLogRecord... records) throws IOException {
+        try (FileChannel channel = newSegment(segment)) {
+            for (EmployeeLogRecord record : records) {
+                channel.write(record.encode());
+            }
+        }
+    }
+
+    @Test
+    public void testAppendsAreReplayedOverTheSnapshot() throws Exception {
+        MockEmployee tiger = employee("Tiger Nixon");
+        MockEmployee bill = employee("Bill Bob");
+        MockEmployeeStore store = new MockEmployeeStore(List.of(tiger, bill));
+        EmployeeWriteAheadLog writeAheadLog = writeAheadLog(store, 256, 100_000, EmployeeWriteAheadLogTest::newSegment);
+
+        MockEmployee jill = employee("Jill Jenkins");
+        create(writeAheadLog, store, jill);
+        Assertions.assertEquals(EmployeeLogRecord.deleted(tiger), delete(writeAheadLog, store, "tiger nixon"));
+        Assertions.assertNull(delete(writeAheadLog, store, "Tiger Nixon"));
+        writeAheadLog.destroy();
+
+        Assertions.assertEquals(
+                List.of(bill, jill), EmployeeWriteAheadLog.replay(directory.resolve("wal"), List.of(tiger, bill)));
+        Assertions.assertEquals(
+                store.findAll(), EmployeeWriteAheadLog.replay(directory.resolve("wal"), List.of(tiger, bill)));
+    }
+
+    @Test
+    public void testReplayStopsAtTornTailAndGoesOnWithTheNextSegment() throws IOException {
+        MockEmployee tiger = employee("Tiger Nixon");
+        MockEmployee bill = employee("Bill Bob");
+        MockEmployee jill = employee("Jill Jenkins");
+        Path wal = Files.createDirectories(directory.resolve("wal"));
+        writeSegment(
+                wal.resolve("wal-000000000001.log"), EmployeeLogRecord.created(tiger), EmployeeLogRecord.created(bill));
+        try (FileChannel channel = FileChannel.open(wal.resolve("wal-000000000001.log"), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        writeSegment(wal.resolve("wal-000000000002.log"), EmployeeLogRecord.created(jill));
+
+        Assertions.assertEquals(List.of(tiger, jill), EmployeeWriteAheadLog.replay(wal, List.of()));
+    }
+
+    @Test
+    public void testGroupCommitReleasesCallersOnlyAfterFsync() throws Exception {
+        CountDownLatch releaseFsync = new CountDownLatch(1);
+        AtomicInteger fsyncs = new AtomicInteger();
+        MockEmployeeStore store = new MockEmployeeStore(List.of());
+        EmployeeWriteAheadLog writeAheadLog =
+                writeAheadLog(store, 256, 100_000, segment -> new ObservedChannel(newSegment(segment)) {
+                    @Override
+                    public void force(boolean metaData) throws IOException {
+                        fsyncs.incrementAndGet();
+                        await(releaseFsync);
+                        super.force(metaData);
+                    }
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger applied = new AtomicInteger();
+            List<EmployeeLogRecord> published = Collections.synchronizedList(new ArrayList<>());
+            List<CompletableFuture<EmployeeLogRecord>> appends = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                MockEmployee employee = employee("Employee " + i);
+                appends.add(CompletableFuture.supplyAsync(
+                        () -> writeAheadLog.append(
+                                () -> {
+                                    store.add(employee);
+                                    applied.incrementAndGet();
+                                    return EmployeeLogRecord.created(employee);
+                                },
+                                published::add),
+                        executor));
+                if (i == 0) {
+                    while (fsyncs.get() == 0) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }
+            while (applied.get() < 8) {
+                Thread.onSpinWait();
+            }
+            // give the last appends time to reach the queue behind the blocked fsync
+            Thread.sleep(100);
+
+            // every record is in the store, and the writer is in the first fsync, but no caller has been released
+            // and no record has been published
+            Assertions.assertEquals(8, store.size());
+            Assertions.assertEquals(1, fsyncs.get());
+            Assertions.assertTrue(appends.stream().noneMatch(CompletableFuture::isDone));
+            Assertions.assertTrue(published.isEmpty());
+
+            releaseFsync.countDown();
+            for (CompletableFuture<EmployeeLogRecord> append : appends) {
+                Assertions.assertNotNull(append.get(5, TimeUnit.SECONDS));
+            }
+            // the seven records queued during the first fsync were written and synced together
+            Assertions.assertEquals(2, fsyncs.get());
+            // published in the order the store changed, which the log keeps
+            Assertions.assertEquals(
+                    published,
+                    EmployeeWriteAheadLog.replay(directory.resolve("wal"), List.of()).stream()
+                            .map(EmployeeLogRecord::created)
+                            .toList());
+        } finally {
+            releaseFsync.countDown();
+            executor.shutdownNow();
+            writeAheadLog.destroy();
+        }
+        Assertions.assertEquals(
+                new HashSet<>(store.findAll()),
+                new HashSet<>(EmployeeWriteAheadLog.replay(directory.resolve("wal"), List.of())));
+    }
+
+    @Test
+    public void testFailedWriteIsCutFromTheSegmentAndStopsTheLog() throws Exception {
+        AtomicBoolean failWrites = new AtomicBoolean();
+        MockEmployeeStore store = new MockEmployeeStore(List.of());
+        EmployeeWriteAheadLog writeAheadLog =
+                writeAheadLog(store, 256, 100_000, segment -> new ObservedChannel(newSegment(segment)) {
+                    @Override
+                    public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+                        if (failWrites.get()) {
+                            // leave half a frame behind, as a full disk would
+                            ByteBuffer half = sources[offset].duplicate();
+                            half.limit(half.position() + half.remaining() / 2);
+                            super.write(half);
+                            throw new IOException("No space left on device");
+                        }
+                        return super.write(sources, offset, length);
+                    }
+                });
+        MockEmployee tiger = employee("Tiger Nixon");
+        create(writeAheadLog, store, tiger);
+        Path segment = directory.resolve("wal").resolve("wal-000000000001.log");
+        long acknowledged = Files.size(segment);
+        EmployeeWriteAheadLogHealthIndicator health = new EmployeeWriteAheadLogHealthIndicator(writeAheadLog);
+        Assertions.assertEquals(Status.UP, health.health().getStatus());
+
+        failWrites.set(true);
+        MockEmployee bill = employee("Bill Bob");
+        AtomicBoolean published = new AtomicBoolean();
+        Assertions.assertThrows(
+                UncheckedIOException.class,
+                () -> writeAheadLog.append(
+                        () -> {
+                            store.add(bill);
+                            return EmployeeLogRecord.created(bill);
+                        },
+                        record -> published.set(true)));
+        Assertions.assertFalse(published.get());
+
+        Assertions.assertTrue(writeAheadLog.hasFailed());
+        Assertions.assertEquals(Status.DOWN, health.health().getStatus());
+        Assertions.assertEquals(acknowledged, Files.size(segment));
+        AtomicBoolean applied = new AtomicBoolean();
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> writeAheadLog.append(() -> {
+                    applied.set(true);
+                    return EmployeeLogRecord.created(employee("Jill Jenkins"));
+                }));
+        Assertions.assertFalse(applied.get());
+        writeAheadLog.destroy();
+
+        // the failed create stays in memory until the restart, which replays only what was acknowledged
+        Assertions.assertEquals(2, store.size());
+        Assertions.assertEquals(List.of(tiger), EmployeeWriteAheadLog.replay(directory.resolve("wal"), List.of()));
+    }
+
+    @Test
+    public void testCompactionDeletesSegmentsAndReplayIsIdempotent() throws Exception {
+        MockEmployee tiger = employee("Tiger Nixon");
+        MockEmployeeStore store = new MockEmployeeStore(List.of(tiger));
+        EmployeeWriteAheadLog writeAheadLog = writeAheadLog(store, 1, 2, EmployeeWriteAheadLogTest::newSegment);
+        Path wal = directory.resolve("wal");
+        Path snapshot = directory.resolve("employees.snapshot");
+
+        create(writeAheadLog, store, employee("Bill Bob"));
+        create(writeAheadLog, store, employee("Jill Jenkins"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(wal.resolve("wal-000000000001.log")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(Files.exists(wal.resolve("wal-000000000001.log")));
+        Assertions.assertEquals(3, EmployeeSnapshotFile.read(snapshot).size());
+
+        delete(writeAheadLog, store, "Bill Bob");
+        writeAheadLog.destroy();
+
+        List<MockEmployee> expected = store.findAll();
+        List<MockEmployee> replayed = EmployeeWriteAheadLog.replay(wal, EmployeeSnapshotFile.read(snapshot));
+        Assertions.assertEquals(new HashSet<>(expected), new HashSet<>(replayed));
+        // as after a crash between writing a snapshot and deleting the segments it covers
+        Assertions.assertEquals(new HashSet<>(expected), new HashSet<>(EmployeeWriteAheadLog.replay(wal, replayed)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Passes everything to a real channel, for tests to override the calls they observe or break.
+     */
+    private static class ObservedChannel extends FileChannel {
+
+        private final FileChannel delegate;
+
+        ObservedChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return delegate.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return delegate.read(destinations, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            return delegate.write(source);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return delegate.write(sources, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return delegate.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return delegate.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return delegate.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeChange;
+import com.reliaquest.server.model.MockEmployeeChanges;
+import com.reliaquest.server.persistence.EmployeeLogRecord;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MockEmployeeChangeFeedTest {
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(100)
+                .build();
+    }
+
+    @Test
+    public void testChangesBehindTheRingResync() {
+        MockEmployeeChangeFeed feed = new MockEmployeeChangeFeed(2);
+        long start = feed.latestSequence();
+        MockEmployee tiger = employee("Tiger Nixon");
+        MockEmployee bill = employee("Bill Bob");
+        feed.publish(EmployeeLogRecord.created(tiger));
+        feed.publish(EmployeeLogRecord.created(bill));
+        feed.publish(EmployeeLogRecord.deleted(tiger));
+
+        MockEmployeeChanges changes = feed.changesSince(start + 1, 10).orElseThrow();
+        Assertions.assertEquals(
+                List.of(
+                        new MockEmployeeChange(start + 2, MockEmployeeChange.Type.CREATE, bill),
+                        new MockEmployeeChange(start + 3, MockEmployeeChange.Type.DELETE, tiger)),
+                changes.changes());
+        Assertions.assertEquals(start + 3, changes.latestSequence());
+        Assertions.assertTrue(feed.changesSince(start, 10).isEmpty());
+    }
+
+    @Test
+    public void testReadsDoNotWaitForAPublisher() throws Exception {
+        MockEmployeeChangeFeed feed = new MockEmployeeChangeFeed(10);
+        feed.publish(EmployeeLogRecord.created(employee("Tiger Nixon")));
+        long latest = feed.latestSequence();
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> {
+            // holds the lock a publish takes
+            synchronized (feed) {
+                publishing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        publisher.start();
+        try {
+            Assertions.assertTrue(publishing.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Optional<MockEmployeeChanges>> read = CompletableFuture.supplyAsync(
+                    () -> feed.poll(latest - 1, 10, Duration.ZERO).join());
+
+            Assertions.assertEquals(latest, feed.latestSequence());
+            Assertions.assertEquals(
+                    1, read.get(5, TimeUnit.SECONDS).orElseThrow().changes().size());
+        } finally {
+            release.countDown();
+            publisher.join();
+        }
+    }
+
+    @Test
+    public void testPollWaitsForTheNextChange() throws Exception {
+        MockEmployeeChangeFeed feed = new MockEmployeeChangeFeed(10);
+        long start = feed.latestSequence();
+        MockEmployee tiger = employee("Tiger Nixon");
+
+        CompletableFuture<Optional<MockEmployeeChanges>> poll = feed.poll(start, 10, Duration.ofSeconds(5));
+        Assertions.assertFalse(poll.isDone());
+        feed.publish(EmployeeLogRecord.created(tiger));
+
+        Assertions.assertEquals(
+                List.of(new MockEmployeeChange(start + 1, MockEmployeeChange.Type.CREATE, tiger)),
+                poll.get(1, TimeUnit.SECONDS).orElseThrow().changes());
+    }
+}
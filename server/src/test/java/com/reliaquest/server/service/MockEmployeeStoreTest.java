@@ -0,0 +1,93 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MockEmployeeStoreTest {
+
+    private static MockEmployee employee(String name) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(100)
+                .build();
+    }
+
+    @Test
+    public void testRemoveByNameRemovesEarliestIgnoringCase() {
+        MockEmployee first = employee("Tiger Nixon");
+        MockEmployee second = employee("tiger nixon");
+        MockEmployeeStore store = new MockEmployeeStore(List.of(first, second));
+
+        Assertions.assertEquals(first, store.removeByName("TIGER NIXON").orElseThrow());
+        Assertions.assertEquals(second, store.removeByName("Tiger Nixon").orElseThrow());
+        Assertions.assertTrue(store.removeByName("Tiger Nixon").isEmpty());
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testDeletedNamesLeaveNoIndexEntries() {
+        MockEmployeeStore store = new MockEmployeeStore(List.of());
+        for (int i = 0; i < 10_000; i++) {
+            store.add(employee("Imported " + i));
+            Assertions.assertTrue(store.removeByName("Imported " + i).isPresent());
+        }
+        MockEmployee renamed = employee("Before");
+        store.add(renamed);
+        store.add(renamed.toBuilder().name("After").build());
+
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertEquals(1, store.indexedNames());
+        Assertions.assertTrue(store.removeByName("Before").isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAddsAndRemovesByName() throws Exception {
+        MockEmployeeStore store = new MockEmployeeStore(List.of());
+        int threads = 8;
+        int iterations = 5_000;
+        Set<UUID> removed = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> misses = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                misses.add(executor.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    int missed = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        // every thread adds before it removes, so a remove always has an employee to find
+                        store.add(employee(i % 2 == 0 ? "Shared" : "SHARED"));
+                        MockEmployee employee = store.removeByName("shared").orElse(null);
+                        if (employee == null || !removed.add(employee.getId())) {
+                            missed++;
+                        }
+                    }
+                    return missed;
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> missed : misses) {
+                Assertions.assertEquals(0, missed.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(threads * iterations, removed.size());
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertEquals(0, store.indexedNames());
+        Assertions.assertTrue(store.findAll().isEmpty());
+    }
+}
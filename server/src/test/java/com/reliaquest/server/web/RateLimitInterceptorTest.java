@@ -0,0 +1,133 @@
+package com.reliaquest.server.web;
+
+import com.reliaquest.server.config.RateLimitConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RateLimitInterceptorTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static RateLimitConfig config(boolean perClient) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setLimit(2);
+        config.setPeriod(Duration.ofSeconds(10));
+        config.setPerClient(perClient);
+        return config;
+    }
+
+    private RateLimitInterceptor interceptor(RateLimitConfig config) {
+        return new RateLimitInterceptor(config, meterRegistry, clock::get);
+    }
+
+    private static MockHttpServletResponse send(RateLimitInterceptor interceptor, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/employee");
+        if (clientId != null) {
+            request.addHeader(RateLimitInterceptor.CLIENT_ID_HEADER, clientId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+        Assertions.assertEquals(proceed, response.getStatus() == 200);
+        return response;
+    }
+
+    private double decisions(String outcome) {
+        return meterRegistry
+                .get("mock.rate.limit.decisions")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private double clients() {
+        return meterRegistry.get("mock.rate.limit.clients").gauge().value();
+    }
+
+    @Test
+    public void testRejectsOverTheLimitWithRetryAfter() {
+        RateLimitInterceptor interceptor = interceptor(config(false));
+
+        MockHttpServletResponse first = send(interceptor, null);
+        Assertions.assertEquals("2", first.getHeader(RateLimitInterceptor.LIMIT_HEADER));
+        Assertions.assertEquals("1", first.getHeader(RateLimitInterceptor.REMAINING_HEADER));
+        Assertions.assertNull(first.getHeader("Retry-After"));
+        Assertions.assertEquals("0", send(interceptor, null).getHeader(RateLimitInterceptor.REMAINING_HEADER));
+
+        clock.set(SECOND / 2);
+        MockHttpServletResponse rejected = send(interceptor, null);
+        Assertions.assertEquals(429, rejected.getStatus());
+        Assertions.assertEquals("0", rejected.getHeader(RateLimitInterceptor.REMAINING_HEADER));
+        // four and a half seconds until the next token, rounded up
+        Assertions.assertEquals("5", rejected.getHeader("Retry-After"));
+
+        clock.set(5 * SECOND - 1);
+        Assertions.assertEquals("1", send(interceptor, null).getHeader("Retry-After"));
+        clock.set(5 * SECOND);
+        Assertions.assertEquals(200, send(interceptor, null).getStatus());
+
+        Assertions.assertEquals(3.0, decisions("allowed"));
+        Assertions.assertEquals(2.0, decisions("rejected"));
+    }
+
+    @Test
+    public void testClientsHaveSeparateBudgets() {
+        RateLimitInterceptor interceptor = interceptor(config(true));
+
+        Assertions.assertEquals(200, send(interceptor, "a").getStatus());
+        Assertions.assertEquals(200, send(interceptor, "a").getStatus());
+        Assertions.assertEquals(429, send(interceptor, "a").getStatus());
+        Assertions.assertEquals(200, send(interceptor, "b").getStatus());
+        // without a client id the remote address is the key
+        Assertions.assertEquals(200, send(interceptor, " ").getStatus());
+        Assertions.assertEquals(200, send(interceptor, null).getStatus());
+        Assertions.assertEquals(429, send(interceptor, null).getStatus());
+
+        Assertions.assertEquals(3.0, clients());
+    }
+
+    @Test
+    public void testIdleClientsAreEvictedAtMaxClients() {
+        RateLimitConfig config = config(true);
+        config.setMaxClients(2);
+        RateLimitInterceptor interceptor = interceptor(config);
+        send(interceptor, "a");
+        send(interceptor, "b");
+
+        // a and b still owe time, so neither is evicted to make room
+        send(interceptor, "c");
+        Assertions.assertEquals(3.0, clients());
+
+        clock.set(5 * SECOND);
+        send(interceptor, "d");
+        Assertions.assertEquals(1.0, clients());
+
+        // an evicted client starts over with its full budget
+        Assertions.assertEquals("1", send(interceptor, "a").getHeader(RateLimitInterceptor.REMAINING_HEADER));
+        Assertions.assertEquals(2.0, clients());
+    }
+
+    @Test
+    public void testSlidingWindowRetryAfter() {
+        RateLimitConfig config = config(false);
+        config.setAlgorithm(RateLimitConfig.Algorithm.SLIDING_WINDOW);
+        RateLimitInterceptor interceptor = interceptor(config);
+        send(interceptor, null);
+        send(interceptor, null);
+
+        MockHttpServletResponse rejected = send(interceptor, null);
+        Assertions.assertEquals(429, rejected.getStatus());
+        // half of the previous window has to slide out before a third request fits
+        Assertions.assertEquals("15", rejected.getHeader("Retry-After"));
+    }
+}
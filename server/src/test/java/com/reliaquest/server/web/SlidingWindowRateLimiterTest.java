@@ -0,0 +1,90 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testLimitWithinOneWindow() {
+        RateLimiter limiter = new SlidingWindowRateLimiter(10, Duration.ofSeconds(10), 0);
+
+        for (int remaining = 9; remaining >= 0; remaining--) {
+            Assertions.assertEquals(new RateLimiter.Decision(true, 10, remaining, 0), limiter.tryAcquire(0));
+        }
+        // the full window has to slide a tenth of the way out of the next one
+        Assertions.assertEquals(new RateLimiter.Decision(false, 10, 0, 11 * SECOND), limiter.tryAcquire(0));
+        Assertions.assertFalse(limiter.tryAcquire(11 * SECOND - 1).allowed());
+        Assertions.assertTrue(limiter.tryAcquire(11 * SECOND).allowed());
+    }
+
+    @Test
+    public void testPreviousWindowIsWeightedByItsOverlap() {
+        RateLimiter limiter = new SlidingWindowRateLimiter(10, Duration.ofSeconds(10), 0);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(0);
+        }
+
+        // halfway through the next window, half of the previous ten still count
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            Assertions.assertEquals(new RateLimiter.Decision(true, 10, remaining, 0), limiter.tryAcquire(15 * SECOND));
+        }
+        RateLimiter.Decision rejected = limiter.tryAcquire(15 * SECOND);
+        Assertions.assertFalse(rejected.allowed());
+        Assertions.assertEquals(SECOND, rejected.retryAfterNanos());
+        Assertions.assertTrue(
+                limiter.tryAcquire(15 * SECOND + rejected.retryAfterNanos()).allowed());
+    }
+
+    @Test
+    public void testIdleAfterTwoWindows() {
+        RateLimiter limiter = new SlidingWindowRateLimiter(2, Duration.ofSeconds(10), 0);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(0);
+
+        Assertions.assertFalse(limiter.isIdle(19 * SECOND));
+        Assertions.assertTrue(limiter.isIdle(20 * SECOND));
+        Assertions.assertEquals(new RateLimiter.Decision(true, 2, 1, 0), limiter.tryAcquire(25 * SECOND));
+    }
+
+    @Test
+    public void testConcurrentCallersGetExactlyTheLimit() throws Exception {
+        RateLimiter limiter = new SlidingWindowRateLimiter(1000, Duration.ofHours(1), 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> permits = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                permits.add(executor.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    int allowed = 0;
+                    for (int attempt = 0; attempt < 100; attempt++) {
+                        if (limiter.tryAcquire(SECOND).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> permit : permits) {
+                allowed += permit.get(5, TimeUnit.SECONDS);
+            }
+            Assertions.assertEquals(1000, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
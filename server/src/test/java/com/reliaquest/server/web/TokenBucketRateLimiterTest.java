@@ -0,0 +1,85 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstUpToCapacity() {
+        RateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(5), 0);
+
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            Assertions.assertEquals(new RateLimiter.Decision(true, 5, remaining, 0), limiter.tryAcquire(0));
+        }
+        Assertions.assertEquals(new RateLimiter.Decision(false, 5, 0, SECOND), limiter.tryAcquire(0));
+        Assertions.assertEquals(new RateLimiter.Decision(false, 5, 0, SECOND / 2), limiter.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    public void testRefillsOneTokenPerInterval() {
+        RateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(5), 0);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(0);
+        }
+
+        Assertions.assertTrue(limiter.tryAcquire(SECOND).allowed());
+        Assertions.assertFalse(limiter.tryAcquire(SECOND).allowed());
+        Assertions.assertEquals(new RateLimiter.Decision(true, 5, 1, 0), limiter.tryAcquire(3 * SECOND));
+        Assertions.assertFalse(limiter.isIdle(5 * SECOND));
+
+        Assertions.assertTrue(limiter.isIdle(7 * SECOND));
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limiter.tryAcquire(100 * SECOND).allowed());
+        }
+        Assertions.assertFalse(limiter.tryAcquire(100 * SECOND).allowed());
+    }
+
+    @Test
+    public void testConcurrentCallersGetExactlyTheCapacity() throws Exception {
+        RateLimiter limiter = new TokenBucketRateLimiter(1000, Duration.ofHours(1), 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> permits = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                permits.add(executor.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    int allowed = 0;
+                    for (int attempt = 0; attempt < 100; attempt++) {
+                        if (limiter.tryAcquire(SECOND).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> permit : permits) {
+                allowed += permit.get(5, TimeUnit.SECONDS);
+            }
+            Assertions.assertEquals(1000, allowed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidBudgetIsRejected() {
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, Duration.ofSeconds(1), 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(1, Duration.ZERO, 0));
+    }
+}